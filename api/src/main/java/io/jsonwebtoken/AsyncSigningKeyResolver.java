@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import java.security.Key;
+
+/**
+ * A non-blocking alternative to {@link SigningKeyResolver} for keys that must be fetched from a remote or otherwise
+ * slow key source, such as a JWKS endpoint.  Instead of returning the key, implementations start the lookup and
+ * complete the specified {@link Callback} once the key is available, so that
+ * {@link JwtParser#parseAsync(String, Callback) asynchronous parsing} never blocks the calling thread.
+ *
+ * <p>Implementations should report lookup failures through {@link Callback#onFailure(Throwable)} rather than by
+ * throwing.  A {@code null} key is treated exactly like a {@code SigningKeyResolver} returning {@code null}.</p>
+ *
+ * @see JwtParser#setAsyncSigningKeyResolver(AsyncSigningKeyResolver)
+ * @since 0.11.0
+ */
+public interface AsyncSigningKeyResolver {
+
+    /**
+     * Starts resolving the signing key that should be used to validate a digital signature for the Claims JWS with
+     * the specified header and claims, and completes {@code callback} with it.
+     *
+     * @param header   the header of the JWS to validate
+     * @param claims   the claims (body) of the JWS to validate
+     * @param callback the callback to complete with the signing key
+     */
+    void resolveSigningKey(JwsHeader header, Claims claims, Callback<Key> callback);
+
+    /**
+     * Starts resolving the signing key that should be used to validate a digital signature for the Plaintext JWS
+     * with the specified header and plaintext payload, and completes {@code callback} with it.
+     *
+     * @param header    the header of the JWS to validate
+     * @param plaintext the plaintext body of the JWS to validate
+     * @param callback  the callback to complete with the signing key
+     */
+    void resolveSigningKey(JwsHeader header, String plaintext, Callback<Key> callback);
+}
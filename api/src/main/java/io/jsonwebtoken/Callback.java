@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * Receives the outcome of an asynchronous operation: exactly one of {@link #onSuccess(Object)} or
+ * {@link #onFailure(Throwable)} is invoked, once, possibly on a different thread than the one that started the
+ * operation.
+ *
+ * @param <T> the type of the result
+ * @see AsyncSigningKeyResolver
+ * @see JwtParser#parseAsync(String, Callback)
+ * @since 0.11.0
+ */
+public interface Callback<T> {
+
+    /**
+     * Invoked with the result of the operation once it completed successfully.
+     *
+     * @param result the result of the operation
+     */
+    void onSuccess(T result);
+
+    /**
+     * Invoked with the cause of the failure if the operation did not complete successfully.
+     *
+     * @param t the cause of the failure
+     */
+    void onFailure(Throwable t);
+}
@@ -22,6 +22,8 @@ import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.security.InvalidKeyException;
 import io.jsonwebtoken.security.Keys;
 
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
@@ -520,6 +522,53 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      */
     JwtBuilder serializeToJsonWith(Serializer<Map<String, ?>> serializer);
 
+    /**
+     * Sets whether JCA {@code Mac} and {@code Signature} engines used to compute JWS signatures are pooled and
+     * reused across {@link #compact()} calls instead of being obtained and initialized for every signature.
+     *
+     * <p>Obtaining a JCA engine requires a security provider lookup and initializing it with a key requires
+     * computing a key schedule; for small tokens this setup can dominate signing cost.  When enabled, idle engines
+     * are retained in a bounded, thread-safe pool shared by all builders and parsers that enable pooling, indexed by
+     * signature algorithm and key (using the key's {@code equals} method).  The pool retains a strong
+     * reference to at most a bounded number of keys.</p>
+     *
+     * <p>When enabled, the signer for each signature algorithm and key is also created only once and then shared,
+     * so that signing a token does not repeat asserting that the key is suitable for the algorithm.</p>
+     *
+     * <p>Pooling is disabled by default.</p>
+     *
+     * @param enabled {@code true} to reuse pooled crypto engines, {@code false} to create them for every signature.
+     * @return the builder for method chaining.
+     * @since 0.11.0
+     */
+    JwtBuilder setCryptoEnginePooling(boolean enabled);
+
+    /**
+     * Sets the listener to report the {@link JwtMetrics metrics} of every {@link #compact()} call to: the time spent
+     * serializing, compressing, encoding and signing, the token length, the signature algorithm and, if building
+     * failed, the {@link JwtMetrics.Failure reason}.
+     *
+     * <p>No listener is set by default, in which case nothing is measured and building incurs no overhead.</p>
+     *
+     * @param listener the listener to report the metrics of every built JWT to, or {@code null} to disable metrics.
+     * @return the builder for method chaining.
+     * @since 0.11.0
+     */
+    JwtBuilder setMetricsListener(JwtMetricsListener listener);
+
+    /**
+     * Returns an immutable {@link JwtTemplate} that issues JWTs with this builder's current header, claims, signature
+     * algorithm and key, compression codec, JSON serializer, base64url encoder and metrics listener.  The header is
+     * serialized and encoded, and the signer created, once for all JWTs issued by the template; only the claims that
+     * differ are specified per JWT.  Later changes to this builder do not affect the template.
+     *
+     * @return a template issuing JWTs as configured by this builder.
+     * @throws IllegalStateException if a plaintext {@link #setPayload(String) payload} was specified, since
+     *                               templates only issue JWTs with claims
+     * @since 0.11.0
+     */
+    JwtTemplate toTemplate();
+
     /**
      * Actually builds the JWT and serializes it to a compact, URL-safe string according to the
      * <a href="https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-25#section-7">JWT Compact Serialization</a>
@@ -528,4 +577,41 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      * @return A compact URL-safe JWT string.
      */
     String compact();
+
+    /**
+     * Builds the JWT as with {@link #compact()} and appends it to the specified destination instead of returning
+     * it, for example to write it directly into a response buffer.  When the default base64url encoder is used, the
+     * JWT is written without first being assembled as a {@code String}.
+     *
+     * @param out the destination to append the compact JWT to
+     * @return the number of characters appended.
+     * @throws io.jsonwebtoken.io.IOException if {@code out} throws a {@link java.io.IOException}
+     * @since 0.11.0
+     */
+    int compactTo(Appendable out);
+
+    /**
+     * Builds the JWT as with {@link #compact()} and writes its US-ASCII bytes to the specified buffer, starting at
+     * its current position and advancing it past the JWT.  When the default base64url encoder is used, the JWT is
+     * written without first being assembled as a {@code String}.
+     *
+     * @param out the buffer to write the compact JWT to
+     * @return the number of bytes written.
+     * @throws java.nio.BufferOverflowException if {@code out} does not have enough space remaining for the JWT, in
+     *                                          which case nothing is written
+     * @since 0.11.0
+     */
+    int compactTo(ByteBuffer out);
+
+    /**
+     * Builds the JWT as with {@link #compact()} and writes its US-ASCII bytes to the specified stream with a single
+     * {@code write} call.  The stream is neither flushed nor closed.  When the default base64url encoder is used,
+     * the JWT is written without first being assembled as a {@code String}.
+     *
+     * @param out the stream to write the compact JWT to
+     * @return the number of bytes written.
+     * @throws io.jsonwebtoken.io.IOException if {@code out} throws a {@link java.io.IOException}
+     * @since 0.11.0
+     */
+    int compactTo(OutputStream out);
 }
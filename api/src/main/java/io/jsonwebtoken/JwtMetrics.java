@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * Timings and outcome of a single {@link JwtParser parse} or {@link JwtBuilder#compact() compact} operation, reported
+ * to a {@link JwtMetricsListener} once the operation completed.
+ *
+ * <p>Stage timings are measured with {@link System#nanoTime()} and only cover the work done by the parser or builder
+ * itself; the total additionally includes everything between the stages, such as tokenizing and cache lookups.  For
+ * an {@link JwtParser#parseAsync(String, Callback) asynchronous parse}, the total and the
+ * {@link Stage#KEY_RESOLUTION key resolution} stage include the time spent waiting for the
+ * {@link AsyncSigningKeyResolver}.</p>
+ *
+ * @see JwtParser#setMetricsListener(JwtMetricsListener)
+ * @see JwtBuilder#setMetricsListener(JwtMetricsListener)
+ * @since 0.11.0
+ */
+public interface JwtMetrics {
+
+    /**
+     * The stages of parsing and building a JWT that are timed individually.
+     */
+    enum Stage {
+
+        /**
+         * Base64url-decoding the header and payload (parse).
+         */
+        BASE64_DECODE,
+
+        /**
+         * Decompressing the payload (parse).
+         */
+        DECOMPRESS,
+
+        /**
+         * Deserializing or scanning the JSON header and claims (parse).
+         */
+        DESERIALIZE,
+
+        /**
+         * Resolving the verification key (parse).
+         */
+        KEY_RESOLUTION,
+
+        /**
+         * Asserting the key strength and verifying the signature (parse).
+         */
+        SIGNATURE_VERIFICATION,
+
+        /**
+         * Asserting the {@code exp}, {@code nbf} and expected claims (parse).
+         */
+        CLAIMS_VALIDATION,
+
+        /**
+         * Serializing the header and claims to JSON (build).
+         */
+        SERIALIZE,
+
+        /**
+         * Compressing the payload (build).
+         */
+        COMPRESS,
+
+        /**
+         * Base64url-encoding the header and payload (build).
+         */
+        BASE64_ENCODE,
+
+        /**
+         * Computing the signature (build).
+         */
+        SIGNATURE_CREATION
+    }
+
+    /**
+     * The reason an operation failed, derived from the type of the exception it failed with.
+     */
+    enum Failure {
+
+        /**
+         * The token is not a well formed JWT, for example because it cannot be decoded or deserialized
+         * ({@link MalformedJwtException} or {@link io.jsonwebtoken.io.DecodingException DecodingException}).
+         */
+        MALFORMED,
+
+        /**
+         * The token is well formed but not of the expected kind, or its algorithm does not match the key
+         * ({@link UnsupportedJwtException}).
+         */
+        UNSUPPORTED,
+
+        /**
+         * The signature does not match the locally computed signature
+         * ({@link io.jsonwebtoken.security.SignatureException}).
+         */
+        BAD_SIGNATURE,
+
+        /**
+         * The verification or signing key could not be resolved or is not valid for the algorithm
+         * ({@link io.jsonwebtoken.security.KeyException KeyException}).
+         */
+        KEY,
+
+        /**
+         * The token has expired ({@link ExpiredJwtException}).
+         */
+        EXPIRED,
+
+        /**
+         * The token is not valid yet ({@link PrematureJwtException}).
+         */
+        PREMATURE,
+
+        /**
+         * An expected claim is missing or has a different value ({@link InvalidClaimException}).
+         */
+        INVALID_CLAIM,
+
+        /**
+         * Any other exception, for example an {@link IllegalArgumentException} for an invalid configuration.
+         */
+        OTHER
+    }
+
+    /**
+     * Returns the number of nanoseconds spent in the specified stage, or {@code -1} if the operation did not perform
+     * that stage, for example because the token was found in a cache or because the operation failed earlier.
+     *
+     * @param stage the stage to return the time spent in
+     * @return the number of nanoseconds spent in the specified stage, or {@code -1} if it was not performed.
+     */
+    long getStageNanos(Stage stage);
+
+    /**
+     * Returns the number of nanoseconds the entire operation took.
+     *
+     * @return the number of nanoseconds the entire operation took.
+     */
+    long getTotalNanos();
+
+    /**
+     * Returns the number of characters of the compact JWT that was parsed or built, or {@code 0} if the operation
+     * failed before a JWT was built.
+     *
+     * @return the number of characters of the compact JWT that was parsed or built.
+     */
+    int getTokenLength();
+
+    /**
+     * Returns the signature algorithm of the JWT, {@link SignatureAlgorithm#NONE} for an unsecured JWT, or
+     * {@code null} if the operation failed before the algorithm was determined.
+     *
+     * @return the signature algorithm of the JWT, or {@code null} if it was not determined.
+     */
+    SignatureAlgorithm getAlgorithm();
+
+    /**
+     * Returns {@code true} if the parse result was found in the
+     * {@link JwtParser#setVerifiedTokenCache(int, long) verified token cache} or the token was found in the
+     * {@link JwtParser#setRejectedTokenCache(int, long) rejected token cache}, {@code false} otherwise.
+     *
+     * @return {@code true} if the token was found in one of the parser's token caches.
+     */
+    boolean isCached();
+
+    /**
+     * Returns the reason the operation failed, or {@code null} if it succeeded.
+     *
+     * @return the reason the operation failed, or {@code null} if it succeeded.
+     */
+    Failure getFailure();
+}
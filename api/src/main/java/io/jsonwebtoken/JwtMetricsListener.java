@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * Receives the {@link JwtMetrics} of every JWT parsed by a {@link JwtParser} or built by a {@link JwtBuilder} that it
+ * is registered with, for example to aggregate them into histograms exported to a monitoring system.
+ *
+ * <p>Listeners are invoked synchronously on the thread that completed the operation, after the result is known and
+ * before it is returned (or the exception thrown) to the caller, so they should be fast and must be thread-safe when
+ * registered with a parser or builder used by multiple threads.  A listener must not throw: any exception it throws is
+ * propagated to the caller instead of the operation's result.</p>
+ *
+ * <p>Parsers and builders have no listener by default, in which case nothing is measured.</p>
+ *
+ * @see JwtParser#setMetricsListener(JwtMetricsListener)
+ * @see JwtBuilder#setMetricsListener(JwtMetricsListener)
+ * @since 0.11.0
+ */
+public interface JwtMetricsListener {
+
+    /**
+     * Invoked when a {@link JwtParser} completed parsing a JWT, successfully or not.
+     *
+     * @param metrics the timings and outcome of the parse operation
+     */
+    void onParse(JwtMetrics metrics);
+
+    /**
+     * Invoked when a {@link JwtBuilder} completed building a JWT, successfully or not.
+     *
+     * @param metrics the timings and outcome of the build operation
+     */
+    void onBuild(JwtMetrics metrics);
+}
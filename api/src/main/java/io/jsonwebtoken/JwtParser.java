@@ -20,8 +20,11 @@ import io.jsonwebtoken.io.Deserializer;
 import io.jsonwebtoken.security.SignatureException;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * A parser for reading JWT strings, used to convert them into a {@link Jwt} object representing the expanded JWT.
@@ -250,6 +253,22 @@ public interface JwtParser {
      */
     JwtParser setSigningKeyResolver(SigningKeyResolver signingKeyResolver);
 
+    /**
+     * Sets the {@link AsyncSigningKeyResolver} used by the {@link #parseAsync(String, Callback) asynchronous parse
+     * methods} to obtain the signing key of a JWS without blocking the calling thread.  The JWS is decoded and its
+     * header and body are parsed up front; signature verification and claim validation continue on whichever thread
+     * completes the resolver's callback.
+     *
+     * <p>If set, the asynchronous resolver takes precedence over any signing key, key bytes or
+     * {@link #setSigningKeyResolver(SigningKeyResolver) SigningKeyResolver} for the asynchronous parse methods.  It
+     * is never used by the synchronous parse methods.</p>
+     *
+     * @param asyncSigningKeyResolver the resolver used to retrieve signing keys asynchronously.
+     * @return the parser for method chaining.
+     * @since 0.11.0
+     */
+    JwtParser setAsyncSigningKeyResolver(AsyncSigningKeyResolver asyncSigningKeyResolver);
+
     /**
      * Sets the {@link CompressionCodecResolver} used to acquire the {@link CompressionCodec} that should be used to
      * decompress the JWT body. If the parsed JWT is not compressed, this resolver is not used.
@@ -300,6 +319,194 @@ public interface JwtParser {
      */
     JwtParser deserializeJsonWith(Deserializer<Map<String,?>> deserializer);
 
+    /**
+     * Sets whether JCA {@code Mac} and {@code Signature} engines used to verify JWS signatures are pooled and reused
+     * across parse calls instead of being obtained and initialized for every verification.
+     *
+     * <p>Obtaining a JCA engine requires a security provider lookup and initializing it with a key requires
+     * computing a key schedule; for small tokens this setup can dominate verification cost.  When enabled, idle
+     * engines are retained in a bounded, thread-safe pool shared by all parsers and builders that enable pooling,
+     * indexed by signature algorithm and key (using the key's {@code equals} method).  The pool retains a strong
+     * reference to at most a bounded number of keys.</p>
+     *
+     * <p>Pooling is disabled by default.</p>
+     *
+     * @param enabled {@code true} to reuse pooled crypto engines, {@code false} to create them for every verification.
+     * @return the parser for method chaining.
+     * @since 0.11.0
+     */
+    JwtParser setCryptoEnginePooling(boolean enabled);
+
+    /**
+     * Sets whether the JSON header and payload of a JWS are deserialized lazily.  When enabled, the parser only
+     * extracts the values it needs to process the JWS: the {@code alg}, {@code kid}, {@code typ}, {@code cty} and
+     * {@code zip} header parameters, the registered claims ({@code iss}, {@code sub}, {@code aud}, {@code exp},
+     * {@code nbf}, {@code iat} and {@code jti}) and any {@link #require(String, Object) expected claims}.  The header
+     * or payload is fully deserialized into a map only when any other value is first accessed on the returned
+     * {@link JwsHeader} or {@link Claims} instance, or the instance is modified.  For large payloads (for example
+     * tokens carrying big role or permission arrays) where callers only read a few claims, this avoids most of the
+     * parsing work and garbage.
+     *
+     * <p>If the configured {@link #deserializeJsonWith(Deserializer) deserializer} implements
+     * {@link io.jsonwebtoken.io.FieldDeserializer FieldDeserializer}, it is used to extract these values in a single
+     * streaming pass; otherwise a minimal built-in JSON scanner is used.</p>
+     *
+     * <p>Because full deserialization is deferred, JSON that can be scanned but that the configured deserializer
+     * rejects results in a {@link MalformedJwtException} being thrown by the first {@code JwsHeader} or
+     * {@code Claims} method that requires the full map, rather than by the parse method.  JSON that cannot be
+     * scanned is deserialized eagerly as usual.</p>
+     *
+     * <p>Lazy deserialization is disabled by default.</p>
+     *
+     * @param enabled {@code true} to deserialize JWS headers and claims lazily, {@code false} to deserialize them
+     *                while parsing.
+     * @return the parser for method chaining.
+     * @since 0.11.0
+     */
+    JwtParser setLazyDeserialization(boolean enabled);
+
+    /**
+     * Enables a bounded cache of successfully verified JWS results so that parsing the same compact JWS again skips
+     * Base64URL decoding, JSON deserialization and signature verification entirely.  Entries are indexed by a
+     * SHA-256 digest of the entire compact string (the string itself is not retained), evicted in least recently
+     * used order once {@code maxSize} entries are cached, and expire {@code ttlSeconds} after they were added as
+     * determined by the parser's {@link #setClock(Clock) Clock}.
+     *
+     * <p>The {@code exp} and {@code nbf} claims and any {@link #require(String, Object) expected claims} are
+     * re-asserted on every cache hit, so a cached token is still rejected once it has expired.  Each call returns
+     * its own copy of the cached header and claims.  Changing the signing key, {@code SigningKeyResolver}, decoder,
+     * deserializer or compression codec resolver discards all cached results.</p>
+     *
+     * <p>Note that a {@link #setSigningKeyResolver(SigningKeyResolver) SigningKeyResolver} is not consulted for a
+     * cache hit: a token signed with a key that is revoked after the token was first verified remains accepted for up
+     * to {@code ttlSeconds}.  Choose the TTL accordingly.</p>
+     *
+     * <p>Result caching is disabled by default.</p>
+     *
+     * @param maxSize    the maximum number of verified tokens to retain, or {@code 0} to disable result caching.
+     * @param ttlSeconds the number of seconds a verified result may be reused; must be positive if {@code maxSize}
+     *                   is positive.
+     * @return the parser for method chaining.
+     * @see #getVerifiedTokenCacheStats()
+     * @since 0.11.0
+     */
+    JwtParser setVerifiedTokenCache(int maxSize, long ttlSeconds);
+
+    /**
+     * Enables a bounded cache of compact JWS strings whose signature did not match the locally computed signature,
+     * so that a replayed forged or corrupted token is rejected with a {@link SignatureException} without being
+     * decoded or verified again.  Entries are indexed by a SHA-256 digest of the entire compact string, evicted in
+     * least recently used order once {@code maxSize} entries are cached, and expire {@code ttlSeconds} after they
+     * were added as determined by the parser's {@link #setClock(Clock) Clock}.
+     *
+     * <p>Only signature mismatches are cached; malformed tokens, unsupported algorithms and claim validation failures
+     * are not.  Changing the signing key, {@code SigningKeyResolver}, decoder, deserializer or compression codec
+     * resolver discards all cached rejections.  If a {@link #setSigningKeyResolver(SigningKeyResolver)
+     * SigningKeyResolver} can start returning a different key for the same token (for example after a key rotation),
+     * that token may continue to be rejected for up to {@code ttlSeconds}.</p>
+     *
+     * <p>Rejected token caching is disabled by default.</p>
+     *
+     * @param maxSize    the maximum number of rejected tokens to retain, or {@code 0} to disable rejected token
+     *                   caching.
+     * @param ttlSeconds the number of seconds a rejection may be reused; must be positive if {@code maxSize} is
+     *                   positive.
+     * @return the parser for method chaining.
+     * @see #getRejectedTokenCacheStats()
+     * @since 0.11.0
+     */
+    JwtParser setRejectedTokenCache(int maxSize, long ttlSeconds);
+
+    /**
+     * Enables a bounded cache of parsed JWS headers indexed by their raw base64url-encoded header segment.  Tokens
+     * from a single issuer almost always share a byte-identical header, so for a cache hit the header is not decoded
+     * or deserialized again, and the signature algorithm and compression codec already resolved for it are reused.
+     * If the parser is configured with a signing key (rather than a
+     * {@link #setSigningKeyResolver(SigningKeyResolver) SigningKeyResolver}), the verification key is reused as well.
+     *
+     * <p>Headers are only cached after a token carrying them passed signature verification, so forged tokens cannot
+     * fill the cache.  Every parsed JWS still receives its own header instance that may be modified freely.  Once
+     * {@code maxSize} distinct headers are cached, adding another one discards the existing entries.  Changing the
+     * signing key, {@code SigningKeyResolver}, decoder, deserializer or compression codec resolver discards all
+     * cached headers.</p>
+     *
+     * <p>Header caching is disabled by default.</p>
+     *
+     * @param maxSize the maximum number of distinct headers to retain, or {@code 0} to disable header caching.
+     * @return the parser for method chaining.
+     * @see #getHeaderCacheStats()
+     * @since 0.11.0
+     */
+    JwtParser setHeaderCache(int maxSize);
+
+    /**
+     * Returns the hit and miss counters of the {@link #setHeaderCache(int) header cache}, or {@code null} if header
+     * caching is disabled.
+     *
+     * @return the header cache counters, or {@code null} if header caching is disabled.
+     * @since 0.11.0
+     */
+    TokenCacheStats getHeaderCacheStats();
+
+    /**
+     * Returns the hit and miss counters of the {@link #setVerifiedTokenCache(int, long) verified token cache}, or
+     * {@code null} if verified token caching is disabled.
+     *
+     * @return the verified token cache counters, or {@code null} if verified token caching is disabled.
+     * @since 0.11.0
+     */
+    TokenCacheStats getVerifiedTokenCacheStats();
+
+    /**
+     * Returns the hit and miss counters of the {@link #setRejectedTokenCache(int, long) rejected token cache}, or
+     * {@code null} if rejected token caching is disabled.  A steadily increasing hit count indicates that the same
+     * invalid tokens are being presented repeatedly.
+     *
+     * @return the rejected token cache counters, or {@code null} if rejected token caching is disabled.
+     * @since 0.11.0
+     */
+    TokenCacheStats getRejectedTokenCacheStats();
+
+    /**
+     * Sets the listener to report the {@link JwtMetrics metrics} of every parsed JWT to: the time spent decoding,
+     * decompressing, deserializing, resolving the key, verifying the signature and validating the claims, the token
+     * length, the signature algorithm and, if parsing failed, the {@link JwtMetrics.Failure reason}.
+     *
+     * <p>No listener is set by default, in which case nothing is measured and parsing incurs no overhead.</p>
+     *
+     * @param listener the listener to report the metrics of every parsed JWT to, or {@code null} to disable metrics.
+     * @return the parser for method chaining.
+     * @since 0.11.0
+     */
+    JwtParser setMetricsListener(JwtMetricsListener listener);
+
+    /**
+     * Returns an immutable, thread-safe {@code JwtParser} reflecting this parser's current configuration state.
+     *
+     * <p>All configuration work that would otherwise be repeated for every parsed JWT - locating a runtime
+     * {@link #deserializeJsonWith(Deserializer) deserializer}, validating the combination of signing key,
+     * key bytes and {@link #setSigningKeyResolver(SigningKeyResolver) SigningKeyResolver}, and creating
+     * HMAC keys from {@link #setSigningKey(byte[]) key bytes} - is performed exactly once when this method is
+     * invoked.  The returned parser may then be retained and shared across any number of threads for the lifetime of
+     * the application:</p>
+     *
+     * <pre>
+     * private static final JwtParser PARSER = Jwts.parser().setSigningKey(key).requireIssuer("me").compile();
+     *
+     * // later, from any thread:
+     * Jws&lt;Claims&gt; jws = PARSER.parseClaimsJws(compact);
+     * </pre>
+     *
+     * <p>Subsequent changes to this parser do not affect the returned instance.  Any attempt to call a configuration
+     * method on the returned instance results in an {@link IllegalStateException}.</p>
+     *
+     * @return an immutable, thread-safe {@code JwtParser} reflecting this parser's current configuration state.
+     * @throws IllegalStateException if the current configuration is invalid, for example if both a signing key and
+     *                               a {@code SigningKeyResolver} have been specified.
+     * @since 0.11.0
+     */
+    JwtParser compile() throws IllegalStateException;
+
     /**
      * Returns {@code true} if the specified JWT compact string represents a signed JWT (aka a 'JWS'), {@code false}
      * otherwise.
@@ -506,4 +713,80 @@ public interface JwtParser {
      */
     Jws<Claims> parseClaimsJws(String claimsJws)
         throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException;
+
+    /**
+     * Parses and verifies every compact Claims JWS in the specified collection, using the specified
+     * {@code Executor} to process the batch concurrently, and returns one {@link ParseResult} per token in the
+     * iteration order of the collection.  A token that cannot be parsed does not affect the others: its result
+     * {@link ParseResult#getException() reflects} the exception that {@link #parseClaimsJws(String)} would have thrown
+     * for it.
+     *
+     * <p>Tokens are grouped by their header (and therefore by {@code alg} and {@code kid}) before being split into
+     * chunks of work, and crypto engines are {@link #setCryptoEnginePooling(boolean) pooled} for the duration of the
+     * batch, so the key of each group is only initialized a small number of times regardless of the group's size.
+     * The batch is parsed against a snapshot of this parser's current configuration, as if by {@link #compile()}, so
+     * any {@link #setSigningKeyResolver(SigningKeyResolver) SigningKeyResolver}, {@link #setClock(Clock) Clock},
+     * decoder and deserializer must be thread-safe.</p>
+     *
+     * <p>This method blocks until the entire batch has been processed.  Any {@code Executor} may be used, including
+     * a {@code ForkJoinPool} or a fixed thread pool sized to the number of available processors.</p>
+     *
+     * @param claimsJwss the compact serialized Claims JWS strings to parse
+     * @param executor   the executor used to parse chunks of the batch concurrently
+     * @return an unmodifiable list with one result per token, in the iteration order of {@code claimsJwss}.
+     * @throws InterruptedException  if the calling thread is interrupted while waiting for the batch to complete.  Any
+     *                               chunks that have not completed yet are cancelled.
+     * @throws IllegalStateException if this parser's configuration is invalid, for example if both a signing key and
+     *                               a {@code SigningKeyResolver} have been specified.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor does not accept a chunk of work
+     * @see #parseClaimsJws(String)
+     * @since 0.11.0
+     */
+    List<ParseResult<Jws<Claims>>> parseClaimsJws(Collection<String> claimsJwss, Executor executor)
+        throws InterruptedException;
+
+    /**
+     * Asynchronously parses the specified compact serialized JWT string exactly like {@link #parse(String)}, and
+     * completes the specified callback with the resulting {@link Jwt} or {@link Jws}, or with the exception
+     * {@code parse(String)} would have thrown.
+     *
+     * <p>Decoding and deserialization happen on the calling thread.  If the JWT is signed and an
+     * {@link #setAsyncSigningKeyResolver(AsyncSigningKeyResolver) AsyncSigningKeyResolver} is configured, this method
+     * returns as soon as the key lookup has started, and the signature is verified on the thread that completes the
+     * lookup.  Otherwise the callback is completed before this method returns.  This method itself never throws a
+     * parse exception.</p>
+     *
+     * @param jwt      the compact serialized JWT to parse
+     * @param callback the callback to complete with the parsed JWT or the failure
+     * @see #parseAsync(String, JwtHandler, Callback)
+     * @see #parseClaimsJwsAsync(String, Callback)
+     * @since 0.11.0
+     */
+    void parseAsync(String jwt, Callback<Jwt> callback);
+
+    /**
+     * Asynchronously parses the specified compact serialized JWT string exactly like
+     * {@link #parse(String, JwtHandler)}, and completes the specified callback with the value returned by the
+     * {@code handler}, or with the exception that method would have thrown.
+     *
+     * @param jwt      the compact serialized JWT to parse
+     * @param handler  the handler to invoke when encountering a specific type of JWT
+     * @param callback the callback to complete with the handler's result or the failure
+     * @param <T>      the type of object returned from the {@code handler}
+     * @see #parseAsync(String, Callback)
+     * @since 0.11.0
+     */
+    <T> void parseAsync(String jwt, JwtHandler<T> handler, Callback<T> callback);
+
+    /**
+     * Asynchronously parses the specified compact serialized Claims JWS string exactly like
+     * {@link #parseClaimsJws(String)}, and completes the specified callback with the resulting Claims JWS, or with the
+     * exception that method would have thrown.
+     *
+     * @param claimsJws the compact serialized Claims JWS string to parse
+     * @param callback  the callback to complete with the parsed Claims JWS or the failure
+     * @see #parseAsync(String, Callback)
+     * @since 0.11.0
+     */
+    void parseClaimsJwsAsync(String claimsJws, Callback<Jws<Claims>> callback);
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * An immutable JWT template, created by {@link JwtBuilder#toTemplate()}, for issuing many JWTs that share the same
+ * header, signature algorithm, key and fixed claims and differ only in a few claims such as {@code sub}, {@code jti},
+ * {@code iat} and {@code exp}.
+ *
+ * <p>The header is serialized and base64url-encoded, and the signer created, only once when the template is created.
+ * Issuing a JWT then only serializes and, if configured, compresses the payload and computes the signature.  The
+ * template's own claims are serialized once too: unless the claims of a JWT name one of them, only the JWT's claims
+ * are serialized and spliced into the payload next to the pre-serialized ones.</p>
+ *
+ * <p>Templates are thread-safe if the configured JSON {@link io.jsonwebtoken.io.Serializer Serializer} is, as the
+ * Jackson and org.json serializers are.</p>
+ *
+ * @since 0.11.0
+ */
+public interface JwtTemplate {
+
+    /**
+     * Builds a compact JWT with the template's claims combined with the specified claims.  The specified claims take
+     * precedence; a {@code null} value omits the template claim of that name.  As with {@link JwtBuilder}, a
+     * {@link java.util.Date Date} value of the {@code exp}, {@code nbf} or {@code iat} claim is converted to seconds
+     * since the epoch.
+     *
+     * @param claims the claims specific to this JWT, may be {@code null} or empty to use only the template's claims
+     * @return a compact URL-safe JWT string.
+     * @throws IllegalStateException if the combined claims are empty
+     */
+    String compact(Map<String, ?> claims);
+
+    /**
+     * Builds a compact JWT for each of the specified claim sets as with {@link #compact(Map)}, concurrently on the
+     * specified executor, for example to issue a large batch of JWTs.
+     *
+     * <p>The returned iterator consumes {@code claims} lazily on the thread calling it, and submits at most
+     * {@code maxPending} JWTs to the executor ahead of those it has returned.  A slow consumer therefore never causes
+     * more than {@code maxPending} JWTs to be held in memory, and {@code claims} may be a stream of unknown length.
+     * To keep all threads of the executor busy, {@code maxPending} should be a small multiple of their number.  A JWT
+     * the executor rejects, for example because its queue is full, is submitted again once another JWT was returned,
+     * or built on the calling thread if no other JWT is pending.</p>
+     *
+     * <p>If {@code ordered} is {@code true}, the JWTs are returned in the order of their claim sets.  Otherwise each
+     * JWT is returned as soon as it is built, which avoids waiting for a single slow JWT but requires the claims
+     * (such as {@code sub} or {@code jti}) to identify the JWT.  An exception thrown while building a JWT is thrown by
+     * the {@code next()} call that would have returned it.  A claim set must not be modified until its JWT has been
+     * returned.</p>
+     *
+     * <p>For RSA and Elliptic Curve signatures, which dominate the cost of issuing a JWT, create the template with
+     * {@link JwtBuilder#setCryptoEnginePooling(boolean) crypto engine pooling} enabled so that the executor's threads
+     * reuse initialized JCA engines.</p>
+     *
+     * @param claims     the claims specific to each JWT
+     * @param executor   the executor that builds the JWTs, such as a fixed thread pool or a {@code ForkJoinPool}
+     * @param maxPending the maximum number of JWTs submitted to the executor but not yet returned, greater than zero
+     * @param ordered    whether to return the JWTs in the order of their claim sets
+     * @return an iterator over the compact JWTs, which must be used by a single thread.
+     */
+    Iterator<String> compactAll(Iterator<? extends Map<String, ?>> claims, Executor executor, int maxPending,
+                                boolean ordered);
+}
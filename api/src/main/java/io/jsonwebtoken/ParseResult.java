@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * The outcome of parsing a single compact JWT as part of a batch: either the parsed value or the exception that
+ * parsing it would have thrown.
+ *
+ * @param <T> the type of the parsed value
+ * @see JwtParser#parseClaimsJws(java.util.Collection, java.util.concurrent.Executor)
+ * @since 0.11.0
+ */
+public interface ParseResult<T> {
+
+    /**
+     * Returns the compact JWT string that was parsed.
+     *
+     * @return the compact JWT string that was parsed.
+     */
+    String getCompact();
+
+    /**
+     * Returns {@code true} if the JWT was parsed successfully, {@code false} if parsing it failed.
+     *
+     * @return {@code true} if the JWT was parsed successfully, {@code false} if parsing it failed.
+     */
+    boolean isSuccess();
+
+    /**
+     * Returns the parsed value, or {@code null} if parsing failed.
+     *
+     * @return the parsed value, or {@code null} if parsing failed.
+     */
+    T getValue();
+
+    /**
+     * Returns the exception thrown while parsing the JWT, or {@code null} if parsing succeeded.  This is the same
+     * exception the corresponding single-token parse method would have thrown, for example an
+     * {@link ExpiredJwtException} or a {@link io.jsonwebtoken.security.SignatureException SignatureException}.
+     *
+     * @return the exception thrown while parsing the JWT, or {@code null} if parsing succeeded.
+     */
+    RuntimeException getException();
+}
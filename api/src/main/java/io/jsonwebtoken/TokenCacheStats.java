@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * A live view of the usage counters of one of a {@link JwtParser}'s token or header caches.  Counters are cumulative for the
+ * lifetime of the cache and are never reset, even when the cache itself is cleared.
+ *
+ * @see JwtParser#getVerifiedTokenCacheStats()
+ * @see JwtParser#getRejectedTokenCacheStats()
+ * @see JwtParser#getHeaderCacheStats()
+ * @since 0.11.0
+ */
+public interface TokenCacheStats {
+
+    /**
+     * Returns the number of parsed tokens that were found in the cache.
+     *
+     * @return the number of parsed tokens that were found in the cache.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of parsed tokens that were not found in the cache.
+     *
+     * @return the number of parsed tokens that were not found in the cache.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of entries currently in the cache, which may include expired entries that have not been
+     * evicted yet.
+     *
+     * @return the number of entries currently in the cache.
+     */
+    int getSize();
+}
@@ -1,5 +1,7 @@
 package io.jsonwebtoken.io;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -16,6 +18,11 @@ import java.util.Arrays;
  * has a few demands on the decoded input. Normally though, these fast versions should be used if the source if
  * the input is known and it hasn't bee tampered with.</p>
  *
+ * <p>Inputs of at least {@link #WIDE_THRESHOLD} bytes or characters are processed by wide-word loops: encoding packs
+ * six bytes into a <code>long</code> and emits each 12 bits as two characters with a single table lookup, and
+ * decoding assembles eight characters per iteration with a single validity check.  Smaller inputs use the scalar
+ * loops, which do not need the larger lookup tables.</p>
+ *
  * @author Mikael Grev
  * @author Les Hazlewood
  * @since 0.10.0
@@ -27,8 +34,16 @@ final class Base64 { //final and package-protected on purpose
     private static final char[] BASE64URL_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
     private static final int[] BASE64_IALPHABET = new int[256];
     private static final int[] BASE64URL_IALPHABET = new int[256];
+    // same as the above, but without '=' so that padding is rejected within the input:
+    private static final int[] BASE64_STRICT_IALPHABET = new int[256];
+    private static final int[] BASE64URL_STRICT_IALPHABET = new int[256];
     private static final int IALPHABET_MAX_INDEX = BASE64_IALPHABET.length - 1;
 
+    /**
+     * The input size, in bytes to encode or characters to decode, from which the wide-word loops are used.
+     */
+    static final int WIDE_THRESHOLD = 512;
+
     static {
         Arrays.fill(BASE64_IALPHABET, -1);
         System.arraycopy(BASE64_IALPHABET, 0, BASE64URL_IALPHABET, 0, BASE64_IALPHABET.length);
@@ -36,27 +51,190 @@ final class Base64 { //final and package-protected on purpose
             BASE64_IALPHABET[BASE64_ALPHABET[i]] = i;
             BASE64URL_IALPHABET[BASE64URL_ALPHABET[i]] = i;
         }
+        System.arraycopy(BASE64_IALPHABET, 0, BASE64_STRICT_IALPHABET, 0, BASE64_IALPHABET.length);
+        System.arraycopy(BASE64URL_IALPHABET, 0, BASE64URL_STRICT_IALPHABET, 0, BASE64URL_IALPHABET.length);
         BASE64_IALPHABET['='] = 0;
         BASE64URL_IALPHABET['='] = 0;
     }
 
-    static final Base64 DEFAULT = new Base64(false);
-    static final Base64 URL_SAFE = new Base64(true);
+    static final Base64 DEFAULT = new Base64(false, WIDE_THRESHOLD);
+    static final Base64 URL_SAFE = new Base64(true, WIDE_THRESHOLD);
 
     private final boolean urlsafe;
     private final char[] ALPHABET;
     private final int[] IALPHABET;
+    private final int[] STRICT_IALPHABET;
+    private final int wideThreshold;
 
-    private Base64(boolean urlsafe) {
+    Base64(boolean urlsafe, int wideThreshold) {
         this.urlsafe = urlsafe;
         this.ALPHABET = urlsafe ? BASE64URL_ALPHABET : BASE64_ALPHABET;
         this.IALPHABET = urlsafe ? BASE64URL_IALPHABET : BASE64_IALPHABET;
+        this.STRICT_IALPHABET = urlsafe ? BASE64URL_STRICT_IALPHABET : BASE64_STRICT_IALPHABET;
+        this.wideThreshold = wideThreshold;
+    }
+
+    /**
+     * Lookup tables mapping each 12-bit value to its two encoded characters, packed into an <code>int</code>.  They
+     * are only created the first time a wide-word loop runs.
+     */
+    private static final class PairTables {
+
+        private static final int[] BASE64_PAIRS = pairs(BASE64_ALPHABET);
+        private static final int[] BASE64URL_PAIRS = pairs(BASE64URL_ALPHABET);
+
+        private static int[] pairs(char[] alphabet) {
+            int[] pairs = new int[4096];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = alphabet[i >>> 6] << 16 | alphabet[i & 0x3f];
+            }
+            return pairs;
+        }
+    }
+
+    private int[] pairs() {
+        return urlsafe ? PairTables.BASE64URL_PAIRS : PairTables.BASE64_PAIRS;
+    }
+
+    // ****************************************************************************************
+    // *  wide-word loops
+    // ****************************************************************************************
+
+    /**
+     * Returns the number of leading bytes of an {@code sLen}-byte input that the wide-word encoding loops process,
+     * always a multiple of 6.
+     */
+    private int wideEncodeLength(int sLen) {
+        return sLen >= wideThreshold ? sLen - sLen % 6 : 0;
+    }
+
+    /**
+     * Encodes {@code sLen} bytes, a multiple of 6, into {@code sLen / 3 * 4} characters.
+     */
+    private void encodeWide(byte[] sArr, int sOff, int sLen, char[] dArr, int dOff) {
+        int[] pairs = pairs();
+        for (int s = sOff, eIx = sOff + sLen, d = dOff; s < eIx; s += 6, d += 8) {
+            long l = (sArr[s] & 0xffL) << 40 | (sArr[s + 1] & 0xffL) << 32 | (sArr[s + 2] & 0xffL) << 24 |
+                (sArr[s + 3] & 0xff) << 16 | (sArr[s + 4] & 0xff) << 8 | (sArr[s + 5] & 0xff);
+            int p = pairs[(int) (l >>> 36)];
+            dArr[d] = (char) (p >>> 16);
+            dArr[d + 1] = (char) p;
+            p = pairs[(int) (l >>> 24) & 0xfff];
+            dArr[d + 2] = (char) (p >>> 16);
+            dArr[d + 3] = (char) p;
+            p = pairs[(int) (l >>> 12) & 0xfff];
+            dArr[d + 4] = (char) (p >>> 16);
+            dArr[d + 5] = (char) p;
+            p = pairs[(int) l & 0xfff];
+            dArr[d + 6] = (char) (p >>> 16);
+            dArr[d + 7] = (char) p;
+        }
+    }
+
+    /**
+     * Same as {@link #encodeWide(byte[], int, int, char[], int)}, but writes the US-ASCII bytes of the characters.
+     */
+    private void encodeWide(byte[] sArr, int sOff, int sLen, byte[] dArr, int dOff) {
+        int[] pairs = pairs();
+        for (int s = sOff, eIx = sOff + sLen, d = dOff; s < eIx; s += 6, d += 8) {
+            long l = (sArr[s] & 0xffL) << 40 | (sArr[s + 1] & 0xffL) << 32 | (sArr[s + 2] & 0xffL) << 24 |
+                (sArr[s + 3] & 0xff) << 16 | (sArr[s + 4] & 0xff) << 8 | (sArr[s + 5] & 0xff);
+            int p = pairs[(int) (l >>> 36)];
+            dArr[d] = (byte) (p >>> 16);
+            dArr[d + 1] = (byte) p;
+            p = pairs[(int) (l >>> 24) & 0xfff];
+            dArr[d + 2] = (byte) (p >>> 16);
+            dArr[d + 3] = (byte) p;
+            p = pairs[(int) (l >>> 12) & 0xfff];
+            dArr[d + 4] = (byte) (p >>> 16);
+            dArr[d + 5] = (byte) p;
+            p = pairs[(int) l & 0xfff];
+            dArr[d + 6] = (byte) (p >>> 16);
+            dArr[d + 7] = (byte) p;
+        }
+    }
+
+    /**
+     * Returns the number of leading characters of a line-separator-free input with {@code len} characters in
+     * complete groups of four that the wide-word decoding loops process, always a multiple of 8.
+     */
+    private int wideDecodeLength(int len) {
+        return len >= wideThreshold ? len & ~7 : 0;
+    }
+
+    /**
+     * Decodes {@code sLen} characters, a multiple of 8, into {@code sLen / 4 * 3} bytes using the specified table.
+     * Each group of eight characters is validated with a single branch; the characters are only inspected one by
+     * one to report the offending character.
+     */
+    private void decodeWide(CharSequence s, int sOff, int sLen, int[] ia, byte[] dArr, int dOff) {
+        for (int sIx = sOff, eIx = sOff + sLen, d = dOff; sIx < eIx; sIx += 8, d += 6) {
+            char c0 = s.charAt(sIx), c1 = s.charAt(sIx + 1), c2 = s.charAt(sIx + 2), c3 = s.charAt(sIx + 3);
+            char c4 = s.charAt(sIx + 4), c5 = s.charAt(sIx + 5), c6 = s.charAt(sIx + 6), c7 = s.charAt(sIx + 7);
+            if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) > IALPHABET_MAX_INDEX) {
+                throw illegalCharacter(s, sIx, ia);
+            }
+            int hi = ia[c0] << 18 | ia[c1] << 12 | ia[c2] << 6 | ia[c3];
+            int lo = ia[c4] << 18 | ia[c5] << 12 | ia[c6] << 6 | ia[c7];
+            if ((hi | lo) < 0) { // any -1 entry sets the sign bit
+                throw illegalCharacter(s, sIx, ia);
+            }
+            long l = (long) hi << 24 | lo;
+            dArr[d] = (byte) (l >>> 40);
+            dArr[d + 1] = (byte) (l >>> 32);
+            dArr[d + 2] = (byte) (l >>> 24);
+            dArr[d + 3] = (byte) (l >>> 16);
+            dArr[d + 4] = (byte) (l >>> 8);
+            dArr[d + 5] = (byte) l;
+        }
+    }
+
+    /**
+     * Same as {@link #decodeWide(CharSequence, int, int, int[], byte[], int)}, but for a <code>char[]</code>.
+     */
+    private void decodeWide(char[] sArr, int sOff, int sLen, int[] ia, byte[] dArr, int dOff) {
+        for (int sIx = sOff, eIx = sOff + sLen, d = dOff; sIx < eIx; sIx += 8, d += 6) {
+            char c0 = sArr[sIx], c1 = sArr[sIx + 1], c2 = sArr[sIx + 2], c3 = sArr[sIx + 3];
+            char c4 = sArr[sIx + 4], c5 = sArr[sIx + 5], c6 = sArr[sIx + 6], c7 = sArr[sIx + 7];
+            if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) > IALPHABET_MAX_INDEX) {
+                throw illegalCharacter(new String(sArr, sIx, 8), 0, ia);
+            }
+            int hi = ia[c0] << 18 | ia[c1] << 12 | ia[c2] << 6 | ia[c3];
+            int lo = ia[c4] << 18 | ia[c5] << 12 | ia[c6] << 6 | ia[c7];
+            if ((hi | lo) < 0) {
+                throw illegalCharacter(new String(sArr, sIx, 8), 0, ia);
+            }
+            long l = (long) hi << 24 | lo;
+            dArr[d] = (byte) (l >>> 40);
+            dArr[d + 1] = (byte) (l >>> 32);
+            dArr[d + 2] = (byte) (l >>> 24);
+            dArr[d + 3] = (byte) (l >>> 16);
+            dArr[d + 4] = (byte) (l >>> 8);
+            dArr[d + 5] = (byte) l;
+        }
+    }
+
+    /**
+     * Returns the exception for the first of the eight characters at {@code sIx} that is not in the table.
+     */
+    private DecodingException illegalCharacter(CharSequence s, int sIx, int[] ia) {
+        for (int i = sIx; i < sIx + 8; i++) {
+            char c = s.charAt(i);
+            if (c > IALPHABET_MAX_INDEX || ia[c] < 0) {
+                return new DecodingException("Illegal " + getName() + " character: '" + c + "'");
+            }
+        }
+        throw new IllegalStateException("No illegal character found."); // not reachable
     }
 
     // ****************************************************************************************
     // *  char[] version
     // ****************************************************************************************
 
+    boolean isUrlSafe() {
+        return urlsafe;
+    }
+
     private String getName() {
         return urlsafe ? "base64url" : "base64"; // RFC 4648 codec names are all lowercase
     }
@@ -93,8 +271,14 @@ final class Base64 { //final and package-protected on purpose
 
         char[] dArr = new char[urlsafe ? (dLen - padCount) : dLen];
 
+        // Encode the leading multiple of 6 bytes of large inputs 48 bits at a time
+        int w = lineSep ? 0 : wideEncodeLength(sLen);
+        if (w > 0) {
+            encodeWide(sArr, 0, w, dArr, 0);
+        }
+
         // Encode even 24-bits
-        for (int s = 0, d = 0, cc = 0; s < eLen; ) {
+        for (int s = w, d = w / 3 * 4, cc = 0; s < eLen; ) {
 
             // Copy next three bytes into lower 24 bits of int, paying attension to sign.
             int i = (sArr[s++] & 0xff) << 16 | (sArr[s++] & 0xff) << 8 | (sArr[s++] & 0xff);
@@ -135,6 +319,181 @@ final class Base64 { //final and package-protected on purpose
         return dArr;
     }
 
+    /**
+     * Returns the number of characters {@code sLen} bytes encode to, without line separators.  BASE64URL output is
+     * never padded.
+     *
+     * @param sLen The number of bytes to encode.
+     * @return The number of encoded characters.
+     */
+    final int encodedLength(int sLen) {
+        if (sLen < 0) {
+            throw new EncodingException("Invalid " + getName() + " input length: " + sLen);
+        }
+        return urlsafe ? (int) (((long) sLen * 4 + 2) / 3) : (int) (((long) sLen + 2) / 3 * 4);
+    }
+
+    private void assertRange(byte[] sArr, int sOff, int sLen) {
+        if (sArr == null || sOff < 0 || sLen < 0 || sOff > sArr.length - sLen) {
+            throw new EncodingException("Invalid " + getName() + " input range.");
+        }
+    }
+
+    /**
+     * Encodes a range of a raw byte array into a caller-supplied <code>char[]</code> without line separators and
+     * without allocating.
+     *
+     * @param sArr The bytes to convert.
+     * @param sOff The index of the first byte to convert.
+     * @param sLen The number of bytes to convert.
+     * @param dArr The destination array.
+     * @param dOff The index in the destination array of the first encoded character.
+     * @return The number of encoded characters.
+     * @throws EncodingException if the range is invalid or the destination array is too small
+     */
+    final int encodeInto(byte[] sArr, int sOff, int sLen, char[] dArr, int dOff) throws EncodingException {
+
+        assertRange(sArr, sOff, sLen);
+        int dLen = encodedLength(sLen);
+        if (dArr == null || dOff < 0 || dOff > dArr.length - dLen) {
+            throw new EncodingException("Destination array cannot hold " + dLen + " encoded characters.");
+        }
+
+        int eLen = (sLen / 3) * 3; // # of bytes that can encode evenly into 24-bit chunks
+        int w = wideEncodeLength(sLen);
+        if (w > 0) {
+            encodeWide(sArr, sOff, w, dArr, dOff);
+        }
+        int d = dOff + w / 3 * 4;
+
+        // Encode even 24-bits
+        for (int s = sOff + w, eIx = sOff + eLen; s < eIx; ) {
+            int i = (sArr[s++] & 0xff) << 16 | (sArr[s++] & 0xff) << 8 | (sArr[s++] & 0xff);
+            dArr[d++] = ALPHABET[(i >>> 18) & 0x3f];
+            dArr[d++] = ALPHABET[(i >>> 12) & 0x3f];
+            dArr[d++] = ALPHABET[(i >>> 6) & 0x3f];
+            dArr[d++] = ALPHABET[i & 0x3f];
+        }
+
+        // Encode the last 1 or 2 bytes, padded unless urlsafe
+        int left = sLen - eLen;
+        if (left > 0) {
+            int i = ((sArr[sOff + eLen] & 0xff) << 10) | (left == 2 ? ((sArr[sOff + sLen - 1] & 0xff) << 2) : 0);
+            dArr[d++] = ALPHABET[i >> 12];
+            dArr[d++] = ALPHABET[(i >>> 6) & 0x3f];
+            if (left == 2) {
+                dArr[d++] = ALPHABET[i & 0x3f];
+            } else if (!urlsafe) {
+                dArr[d++] = '=';
+            }
+            if (!urlsafe) {
+                dArr[d] = '=';
+            }
+        }
+
+        return dLen;
+    }
+
+    /**
+     * Same as {@link #encodeInto(byte[], int, int, char[], int)}, but appends the encoded characters to the specified
+     * <code>StringBuilder</code>.
+     *
+     * @param sArr The bytes to convert.
+     * @param sOff The index of the first byte to convert.
+     * @param sLen The number of bytes to convert.
+     * @param sb   The destination builder.
+     * @return The number of encoded characters.
+     * @throws EncodingException if the range is invalid
+     */
+    final int encodeInto(byte[] sArr, int sOff, int sLen, StringBuilder sb) throws EncodingException {
+
+        assertRange(sArr, sOff, sLen);
+        if (sb == null) {
+            throw new EncodingException("Destination StringBuilder cannot be null.");
+        }
+        int dLen = encodedLength(sLen);
+        sb.ensureCapacity(sb.length() + dLen);
+
+        int eLen = (sLen / 3) * 3;
+
+        for (int s = sOff, eIx = sOff + eLen; s < eIx; ) {
+            int i = (sArr[s++] & 0xff) << 16 | (sArr[s++] & 0xff) << 8 | (sArr[s++] & 0xff);
+            sb.append(ALPHABET[(i >>> 18) & 0x3f]);
+            sb.append(ALPHABET[(i >>> 12) & 0x3f]);
+            sb.append(ALPHABET[(i >>> 6) & 0x3f]);
+            sb.append(ALPHABET[i & 0x3f]);
+        }
+
+        int left = sLen - eLen;
+        if (left > 0) {
+            int i = ((sArr[sOff + eLen] & 0xff) << 10) | (left == 2 ? ((sArr[sOff + sLen - 1] & 0xff) << 2) : 0);
+            sb.append(ALPHABET[i >> 12]);
+            sb.append(ALPHABET[(i >>> 6) & 0x3f]);
+            if (left == 2) {
+                sb.append(ALPHABET[i & 0x3f]);
+            } else if (!urlsafe) {
+                sb.append('=');
+            }
+            if (!urlsafe) {
+                sb.append('=');
+            }
+        }
+
+        return dLen;
+    }
+
+    /**
+     * Same as {@link #encodeInto(byte[], int, int, char[], int)}, but writes the US-ASCII bytes of the encoded
+     * characters to the specified buffer at its current position and advances the position accordingly.
+     *
+     * @param sArr The bytes to convert.
+     * @param sOff The index of the first byte to convert.
+     * @param sLen The number of bytes to convert.
+     * @param dst  The destination buffer.
+     * @return The number of encoded bytes.
+     * @throws EncodingException if the range is invalid or the destination buffer is too small
+     */
+    final int encodeInto(byte[] sArr, int sOff, int sLen, ByteBuffer dst) throws EncodingException {
+
+        assertRange(sArr, sOff, sLen);
+        int dLen = encodedLength(sLen);
+        if (dst == null || dst.remaining() < dLen) {
+            throw new EncodingException("Destination buffer cannot hold " + dLen + " encoded bytes.");
+        }
+
+        int eLen = (sLen / 3) * 3;
+        int w = dst.hasArray() ? wideEncodeLength(sLen) : 0;
+        if (w > 0) {
+            encodeWide(sArr, sOff, w, dst.array(), dst.arrayOffset() + dst.position());
+            ((Buffer) dst).position(dst.position() + w / 3 * 4); // Buffer: see decodeClean
+        }
+
+        for (int s = sOff + w, eIx = sOff + eLen; s < eIx; ) {
+            int i = (sArr[s++] & 0xff) << 16 | (sArr[s++] & 0xff) << 8 | (sArr[s++] & 0xff);
+            dst.put((byte) ALPHABET[(i >>> 18) & 0x3f]);
+            dst.put((byte) ALPHABET[(i >>> 12) & 0x3f]);
+            dst.put((byte) ALPHABET[(i >>> 6) & 0x3f]);
+            dst.put((byte) ALPHABET[i & 0x3f]);
+        }
+
+        int left = sLen - eLen;
+        if (left > 0) {
+            int i = ((sArr[sOff + eLen] & 0xff) << 10) | (left == 2 ? ((sArr[sOff + sLen - 1] & 0xff) << 2) : 0);
+            dst.put((byte) ALPHABET[i >> 12]);
+            dst.put((byte) ALPHABET[(i >>> 6) & 0x3f]);
+            if (left == 2) {
+                dst.put((byte) ALPHABET[i & 0x3f]);
+            } else if (!urlsafe) {
+                dst.put((byte) '=');
+            }
+            if (!urlsafe) {
+                dst.put((byte) '=');
+            }
+        }
+
+        return dLen;
+    }
+
     /*
      * Decodes a BASE64 encoded char array. All illegal characters will be ignored and can handle both arrays with
      * and without line separators.
@@ -247,8 +606,15 @@ final class Base64 { //final and package-protected on purpose
         int len = ((cCnt - sepCnt) * 6 >> 3) - pad; // The number of decoded bytes
         byte[] dArr = new byte[len];       // Preallocate byte[] of exact length
 
+        // Decode the leading multiple of 8 characters of large single-line inputs 48 bits at a time
+        int w = sepCnt == 0 ? wideDecodeLength((len / 3) << 2) : 0;
+        if (w > 0) {
+            decodeWide(sArr, sIx, w, IALPHABET, dArr, 0);
+            sIx += w;
+        }
+
         // Decode all but the last 0 - 2 bytes.
-        int d = 0;
+        int d = w / 4 * 3;
         for (int cc = 0, eLen = (len / 3) * 3; d < eLen; ) {
 
             // Assemble three bytes into an int from four "valid" characters.
@@ -281,6 +647,157 @@ final class Base64 { //final and package-protected on purpose
         return dArr;
     }
 
+    // ****************************************************************************************
+    // *  CharSequence range version
+    // ****************************************************************************************
+
+    private int strictCtoi(char c) {
+        int i = c > IALPHABET_MAX_INDEX ? -1 : STRICT_IALPHABET[c];
+        if (i < 0) {
+            String msg = "Illegal " + getName() + " character: '" + c + "'";
+            throw new DecodingException(msg);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of characters of the specified range that remain after trimming up to two trailing
+     * padding characters, failing if that is not a valid length of encoded input.
+     */
+    private int unpaddedLength(CharSequence s, int sOff, int sLen) {
+        if (s == null || sOff < 0 || sLen < 0 || sOff > s.length() - sLen) {
+            throw new DecodingException("Invalid " + getName() + " input range.");
+        }
+        int len = sLen;
+        for (int i = 0; i < 2 && len > 0 && s.charAt(sOff + len - 1) == '='; i++) {
+            len--;
+        }
+        if ((len & 3) == 1) { // a single remaining character cannot encode a whole byte
+            throw new DecodingException("Illegal " + getName() + " input length: " + sLen);
+        }
+        return len;
+    }
+
+    private static int decodedLength(int unpaddedLength) {
+        return (unpaddedLength >> 2) * 3 + ((unpaddedLength & 3) * 3 >> 2);
+    }
+
+    /**
+     * Returns the number of bytes the specified characters decode to with
+     * {@link #decodeClean(CharSequence, int, int, byte[], int)}.
+     *
+     * @param s    The source characters.
+     * @param sOff The index of the first character to decode.
+     * @param sLen The number of characters to decode.
+     * @return the number of decoded bytes.
+     * @throws DecodingException if the number of characters is not a valid length of encoded input
+     */
+    final int decodedLength(CharSequence s, int sOff, int sLen) throws DecodingException {
+        return decodedLength(unpaddedLength(s, sOff, sLen));
+    }
+
+    /**
+     * Decodes BASE64 encoded characters that are known to be clean, such as the segments of a compact JWT, in a
+     * single pass and without any allocation.  The preconditions are:<br>
+     * + The characters must not contain line separators or any other characters outside of the alphabet<br>
+     * + The characters may end with up to two padding ('=') characters, but need not<br>
+     *
+     * @param s    The source characters.
+     * @param sOff The index of the first character to decode.
+     * @param sLen The number of characters to decode.
+     * @param dArr The destination array.
+     * @param dOff The index in the destination array of the first decoded byte.
+     * @return The number of decoded bytes.
+     * @throws DecodingException on illegal input or if the destination array is too small
+     */
+    final int decodeClean(CharSequence s, int sOff, int sLen, byte[] dArr, int dOff) throws DecodingException {
+
+        int len = unpaddedLength(s, sOff, sLen);
+        int dLen = decodedLength(len);
+        if (dArr == null || dOff < 0 || dOff > dArr.length - dLen) {
+            throw new DecodingException("Destination array cannot hold " + dLen + " decoded bytes.");
+        }
+
+        // Decode the leading multiple of 8 characters of large inputs 48 bits at a time
+        int w = wideDecodeLength(len & ~3);
+        if (w > 0) {
+            decodeWide(s, sOff, w, STRICT_IALPHABET, dArr, dOff);
+        }
+
+        int sIx = sOff + w, d = dOff + w / 4 * 3;
+
+        // Decode all complete groups of four characters into three bytes.
+        for (int eIx = sOff + (len & ~3); sIx < eIx; ) {
+            int i = strictCtoi(s.charAt(sIx++)) << 18 | strictCtoi(s.charAt(sIx++)) << 12 |
+                strictCtoi(s.charAt(sIx++)) << 6 | strictCtoi(s.charAt(sIx++));
+            dArr[d++] = (byte) (i >> 16);
+            dArr[d++] = (byte) (i >> 8);
+            dArr[d++] = (byte) i;
+        }
+
+        // Decode the last 2 or 3 characters into 1 or 2 bytes.
+        int left = len & 3;
+        if (left > 0) {
+            int i = strictCtoi(s.charAt(sIx++)) << 18 | strictCtoi(s.charAt(sIx++)) << 12;
+            dArr[d++] = (byte) (i >> 16);
+            if (left == 3) {
+                i |= strictCtoi(s.charAt(sIx)) << 6;
+                dArr[d++] = (byte) (i >> 8);
+            }
+        }
+
+        return dLen;
+    }
+
+    /**
+     * Same as {@link #decodeClean(CharSequence, int, int, byte[], int)}, but writes the decoded bytes to the
+     * specified buffer at its current position and advances the position accordingly.
+     *
+     * @param s    The source characters.
+     * @param sOff The index of the first character to decode.
+     * @param sLen The number of characters to decode.
+     * @param dst  The destination buffer.
+     * @return The number of decoded bytes.
+     * @throws DecodingException on illegal input or if the destination buffer is too small
+     */
+    final int decodeClean(CharSequence s, int sOff, int sLen, ByteBuffer dst) throws DecodingException {
+
+        int len = unpaddedLength(s, sOff, sLen);
+        int dLen = decodedLength(len);
+        if (dst == null || dst.remaining() < dLen) {
+            throw new DecodingException("Destination buffer cannot hold " + dLen + " decoded bytes.");
+        }
+
+        if (dst.hasArray()) {
+            decodeClean(s, sOff, sLen, dst.array(), dst.arrayOffset() + dst.position());
+            // cast: JDK 9+ compilers would otherwise link the covariant ByteBuffer.position(int), absent on Java 7/8
+            ((Buffer) dst).position(dst.position() + dLen);
+            return dLen;
+        }
+
+        int sIx = sOff;
+
+        for (int eIx = sOff + (len & ~3); sIx < eIx; ) {
+            int i = strictCtoi(s.charAt(sIx++)) << 18 | strictCtoi(s.charAt(sIx++)) << 12 |
+                strictCtoi(s.charAt(sIx++)) << 6 | strictCtoi(s.charAt(sIx++));
+            dst.put((byte) (i >> 16));
+            dst.put((byte) (i >> 8));
+            dst.put((byte) i);
+        }
+
+        int left = len & 3;
+        if (left > 0) {
+            int i = strictCtoi(s.charAt(sIx++)) << 18 | strictCtoi(s.charAt(sIx++)) << 12;
+            dst.put((byte) (i >> 16));
+            if (left == 3) {
+                i |= strictCtoi(s.charAt(sIx)) << 6;
+                dst.put((byte) (i >> 8));
+            }
+        }
+
+        return dLen;
+    }
+
     // ****************************************************************************************
     // *  byte[] version
     // ****************************************************************************************
@@ -0,0 +1,70 @@
+package io.jsonwebtoken.io;
+
+/**
+ * Selects, once per JVM, the implementation behind {@link Encoder#encode(Object)} and {@link Decoder#decode(Object)}
+ * of the {@link Encoders} and {@link Decoders} Base64 and Base64URL constants.  The {@link BufferEncoder} and
+ * {@link BufferDecoder} methods, and with them the strict validation of compact JWT segments, always use the
+ * built-in {@link Base64} implementation.
+ *
+ * <p>The selection may be overridden with the {@value #SYSTEM_PROPERTY} system property:</p>
+ * <ul>
+ * <li>{@value #AUTO} (the default) encodes with <code>java.util.Base64</code> whenever it is available, and decodes
+ * with it on Java 9 and later.  On Java 8 its decoder is slower than the built-in one.</li>
+ * <li>{@value #JDK} uses <code>java.util.Base64</code> for both whenever it is available.</li>
+ * <li>{@value #BUILT_IN} always uses the built-in implementation.</li>
+ * </ul>
+ *
+ * <p>Input rejected by <code>java.util.Base64</code> is decoded again by the built-in implementation, so the accepted
+ * input, the decoded bytes and the exceptions thrown are the same whichever implementation is selected.</p>
+ *
+ * @since 0.11.0
+ */
+final class Base64Codecs {
+
+    static final String SYSTEM_PROPERTY = "io.jsonwebtoken.io.base64";
+
+    static final String AUTO = "auto";
+    static final String JDK = "jdk";
+    static final String BUILT_IN = "builtin";
+
+    private static final boolean JDK_ENCODER;
+    private static final boolean JDK_DECODER;
+
+    static {
+        String requested = System.getProperty(SYSTEM_PROPERTY);
+        boolean available = JdkBase64.isAvailable();
+        boolean java9OrLater = isJava9OrLater(System.getProperty("java.specification.version"));
+        JDK_ENCODER = isJdkEncoderSelected(requested, available);
+        JDK_DECODER = isJdkDecoderSelected(requested, available, java9OrLater);
+    }
+
+    private Base64Codecs() {
+    }
+
+    static boolean isJdkEncoderSelected() {
+        return JDK_ENCODER;
+    }
+
+    static boolean isJdkDecoderSelected() {
+        return JDK_DECODER;
+    }
+
+    static boolean isJdkEncoderSelected(String requested, boolean jdkAvailable) {
+        return jdkAvailable && !BUILT_IN.equalsIgnoreCase(requested);
+    }
+
+    static boolean isJdkDecoderSelected(String requested, boolean jdkAvailable, boolean java9OrLater) {
+        if (!jdkAvailable || BUILT_IN.equalsIgnoreCase(requested)) {
+            return false;
+        }
+        return JDK.equalsIgnoreCase(requested) || java9OrLater;
+    }
+
+    /**
+     * Returns {@code true} if the specified {@code java.specification.version} is 9 or later.  Earlier versions are
+     * numbered {@code 1.x}.
+     */
+    static boolean isJava9OrLater(String specificationVersion) {
+        return specificationVersion != null && !specificationVersion.startsWith("1.");
+    }
+}
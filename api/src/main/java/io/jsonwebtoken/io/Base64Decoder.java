@@ -2,22 +2,56 @@ package io.jsonwebtoken.io;
 
 import io.jsonwebtoken.lang.Assert;
 
+import java.nio.ByteBuffer;
+
 /**
  * @since 0.10.0
  */
-class Base64Decoder extends Base64Support implements Decoder<String, byte[]> {
+class Base64Decoder extends Base64Support implements Decoder<String, byte[]>, BufferDecoder {
+
+    private final boolean jdk;
 
     Base64Decoder() {
-        super(Base64.DEFAULT);
+        this(Base64.DEFAULT);
     }
 
     Base64Decoder(Base64 base64) {
+        this(base64, Base64Codecs.isJdkDecoderSelected());
+    }
+
+    /**
+     * @param jdk whether to decode with <code>java.util.Base64</code>, which must be available
+     * @since 0.11.0
+     */
+    Base64Decoder(Base64 base64, boolean jdk) {
         super(base64);
+        this.jdk = jdk;
     }
 
     @Override
     public byte[] decode(String s) throws DecodingException {
         Assert.notNull(s, "String argument cannot be null");
+        if (jdk) {
+            byte[] bytes = JdkBase64.decode(s, this.base64.isUrlSafe());
+            if (bytes != null) {
+                return bytes;
+            }
+        }
         return this.base64.decodeFast(s.toCharArray());
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getDecodedLength(CharSequence s, int offset, int length) throws DecodingException {
+        return this.base64.decodedLength(s, offset, length);
+    }
+
+    @Override
+    public int decode(CharSequence s, int offset, int length, byte[] dst, int dstOffset) throws DecodingException {
+        return this.base64.decodeClean(s, offset, length, dst, dstOffset);
+    }
+
+    @Override
+    public int decode(CharSequence s, int offset, int length, ByteBuffer dst) throws DecodingException {
+        return this.base64.decodeClean(s, offset, length, dst);
+    }
+}
@@ -2,22 +2,58 @@ package io.jsonwebtoken.io;
 
 import io.jsonwebtoken.lang.Assert;
 
+import java.nio.ByteBuffer;
+
 /**
  * @since 0.10.0
  */
-class Base64Encoder extends Base64Support implements Encoder<byte[], String> {
+class Base64Encoder extends Base64Support implements Encoder<byte[], String>, BufferEncoder {
+
+    private final boolean jdk;
 
     Base64Encoder() {
-        super(Base64.DEFAULT);
+        this(Base64.DEFAULT);
     }
 
     Base64Encoder(Base64 base64) {
+        this(base64, Base64Codecs.isJdkEncoderSelected());
+    }
+
+    /**
+     * @param jdk whether to encode with <code>java.util.Base64</code>, which must be available
+     * @since 0.11.0
+     */
+    Base64Encoder(Base64 base64, boolean jdk) {
         super(base64);
+        this.jdk = jdk;
     }
 
     @Override
     public String encode(byte[] bytes) throws EncodingException {
         Assert.notNull(bytes, "byte array argument cannot be null");
+        if (jdk) {
+            return JdkBase64.encode(bytes, this.base64.isUrlSafe());
+        }
         return this.base64.encodeToString(bytes, false);
     }
+
+    @Override
+    public int getEncodedLength(int byteCount) throws EncodingException {
+        return this.base64.encodedLength(byteCount);
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) throws EncodingException {
+        return this.base64.encodeInto(src, offset, length, dst, dstOffset);
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, StringBuilder dst) throws EncodingException {
+        return this.base64.encodeInto(src, offset, length, dst);
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, ByteBuffer dst) throws EncodingException {
+        return this.base64.encodeInto(src, offset, length, dst);
+    }
 }
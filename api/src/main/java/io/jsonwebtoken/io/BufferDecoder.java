@@ -0,0 +1,56 @@
+package io.jsonwebtoken.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An optional extension to a text {@link Decoder} that decodes a range of characters directly into a
+ * caller-supplied buffer, without copying the characters or allocating a result array.  The parser uses it to decode
+ * the segments of a compact JWT in place.
+ *
+ * <p>Implementations may assume clean input as found in a compact JWT: a single line without whitespace, line
+ * separators or other characters outside of the encoding alphabet.  Trailing padding is permitted but not required.
+ * Any other input is rejected with a {@link DecodingException}; callers that must accept arbitrary input should use
+ * {@link Decoder#decode(Object)} instead.</p>
+ *
+ * @see Decoders#BASE64URL
+ * @since 0.11.0
+ */
+public interface BufferDecoder {
+
+    /**
+     * Returns the number of bytes the specified range of characters decodes to.
+     *
+     * @param s      the characters to decode
+     * @param offset the index of the first character to decode
+     * @param length the number of characters to decode
+     * @return the number of bytes the specified range of characters decodes to.
+     * @throws DecodingException if {@code length} is not a valid length of encoded input
+     */
+    int getDecodedLength(CharSequence s, int offset, int length) throws DecodingException;
+
+    /**
+     * Decodes the specified range of characters into {@code dst}, starting at index {@code dstOffset}.
+     *
+     * @param s         the characters to decode
+     * @param offset    the index of the first character to decode
+     * @param length    the number of characters to decode
+     * @param dst       the array to write the decoded bytes to
+     * @param dstOffset the index in {@code dst} of the first decoded byte
+     * @return the number of decoded bytes written to {@code dst}.
+     * @throws DecodingException if the characters cannot be decoded or {@code dst} cannot hold the decoded bytes
+     */
+    int decode(CharSequence s, int offset, int length, byte[] dst, int dstOffset) throws DecodingException;
+
+    /**
+     * Decodes the specified range of characters into {@code dst} at its current position, advancing the position
+     * by the number of decoded bytes.
+     *
+     * @param s      the characters to decode
+     * @param offset the index of the first character to decode
+     * @param length the number of characters to decode
+     * @param dst    the buffer to write the decoded bytes to
+     * @return the number of decoded bytes written to {@code dst}.
+     * @throws DecodingException if the characters cannot be decoded or {@code dst} cannot hold the decoded bytes
+     */
+    int decode(CharSequence s, int offset, int length, ByteBuffer dst) throws DecodingException;
+}
@@ -0,0 +1,63 @@
+package io.jsonwebtoken.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An optional extension to a text {@link Encoder} that encodes a range of bytes directly into a caller-supplied
+ * buffer, without allocating an intermediate <code>String</code>.  The builder uses it to assemble a compact JWT in a
+ * single pre-sized buffer.
+ *
+ * <p>Encoded output never contains line separators.</p>
+ *
+ * @see Encoders#BASE64URL
+ * @since 0.11.0
+ */
+public interface BufferEncoder {
+
+    /**
+     * Returns the number of characters the specified number of bytes encodes to.
+     *
+     * @param byteCount the number of bytes to encode
+     * @return the number of characters the specified number of bytes encodes to.
+     * @throws EncodingException if {@code byteCount} is negative
+     */
+    int getEncodedLength(int byteCount) throws EncodingException;
+
+    /**
+     * Encodes the specified range of bytes into {@code dst}, starting at index {@code dstOffset}.
+     *
+     * @param src       the bytes to encode
+     * @param offset    the index of the first byte to encode
+     * @param length    the number of bytes to encode
+     * @param dst       the array to write the encoded characters to
+     * @param dstOffset the index in {@code dst} of the first encoded character
+     * @return the number of encoded characters written to {@code dst}.
+     * @throws EncodingException if the range is invalid or {@code dst} cannot hold the encoded characters
+     */
+    int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) throws EncodingException;
+
+    /**
+     * Appends the encoded form of the specified range of bytes to {@code dst}.
+     *
+     * @param src    the bytes to encode
+     * @param offset the index of the first byte to encode
+     * @param length the number of bytes to encode
+     * @param dst    the builder to append the encoded characters to
+     * @return the number of encoded characters appended to {@code dst}.
+     * @throws EncodingException if the range is invalid
+     */
+    int encode(byte[] src, int offset, int length, StringBuilder dst) throws EncodingException;
+
+    /**
+     * Writes the US-ASCII bytes of the encoded form of the specified range of bytes to {@code dst} at its current
+     * position, advancing the position by the number of bytes written.
+     *
+     * @param src    the bytes to encode
+     * @param offset the index of the first byte to encode
+     * @param length the number of bytes to encode
+     * @param dst    the buffer to write the encoded characters to
+     * @return the number of bytes written to {@code dst}.
+     * @throws EncodingException if the range is invalid or {@code dst} cannot hold the encoded characters
+     */
+    int encode(byte[] src, int offset, int length, ByteBuffer dst) throws EncodingException;
+}
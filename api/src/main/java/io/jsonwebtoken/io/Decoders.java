@@ -5,8 +5,19 @@ package io.jsonwebtoken.io;
  */
 public final class Decoders {
 
-    public static final Decoder<String, byte[]> BASE64 = new ExceptionPropagatingDecoder<>(new Base64Decoder());
-    public static final Decoder<String, byte[]> BASE64URL = new ExceptionPropagatingDecoder<>(new Base64UrlDecoder());
+    /**
+     * Decodes Base64 text.  The instance also implements {@link BufferDecoder} to decode clean input into
+     * caller-supplied buffers.
+     */
+    public static final Decoder<String, byte[]> BASE64 =
+        new ExceptionPropagatingBufferDecoder<Base64Decoder>(new Base64Decoder());
+
+    /**
+     * Decodes Base64URL text.  The instance also implements {@link BufferDecoder} to decode clean input, such as the
+     * segments of a compact JWT, into caller-supplied buffers.
+     */
+    public static final Decoder<String, byte[]> BASE64URL =
+        new ExceptionPropagatingBufferDecoder<Base64UrlDecoder>(new Base64UrlDecoder());
 
     private Decoders() { //prevent instantiation
     }
@@ -5,8 +5,19 @@ package io.jsonwebtoken.io;
  */
 public final class Encoders {
 
-    public static final Encoder<byte[], String> BASE64 = new ExceptionPropagatingEncoder<>(new Base64Encoder());
-    public static final Encoder<byte[], String> BASE64URL = new ExceptionPropagatingEncoder<>(new Base64UrlEncoder());
+    /**
+     * Encodes bytes as Base64 text.  The instance also implements {@link BufferEncoder} to encode bytes into
+     * caller-supplied buffers.
+     */
+    public static final Encoder<byte[], String> BASE64 =
+        new ExceptionPropagatingBufferEncoder<Base64Encoder>(new Base64Encoder());
+
+    /**
+     * Encodes bytes as Base64URL text.  The instance also implements {@link BufferEncoder} to encode bytes, such as
+     * the segments of a compact JWT, into caller-supplied buffers.
+     */
+    public static final Encoder<byte[], String> BASE64URL =
+        new ExceptionPropagatingBufferEncoder<Base64UrlEncoder>(new Base64UrlEncoder());
 
     private Encoders() { //prevent instantiation
     }
@@ -5,6 +5,13 @@ package io.jsonwebtoken.io;
  */
 public class EncodingException extends CodecException {
 
+    /**
+     * @since 0.11.0
+     */
+    public EncodingException(String message) {
+        super(message);
+    }
+
     public EncodingException(String message, Throwable cause) {
         super(message, cause);
     }
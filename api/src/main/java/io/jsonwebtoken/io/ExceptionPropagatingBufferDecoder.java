@@ -0,0 +1,54 @@
+package io.jsonwebtoken.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link ExceptionPropagatingDecoder} that also exposes the {@link BufferDecoder} methods of its delegate, with the
+ * same exception handling.
+ *
+ * @since 0.11.0
+ */
+class ExceptionPropagatingBufferDecoder<D extends Decoder<String, byte[]> & BufferDecoder>
+    extends ExceptionPropagatingDecoder<String, byte[]> implements BufferDecoder {
+
+    ExceptionPropagatingBufferDecoder(D decoder) {
+        super(decoder);
+    }
+
+    private BufferDecoder bufferDecoder() {
+        return (BufferDecoder) decoder;
+    }
+
+    @Override
+    public int getDecodedLength(CharSequence s, int offset, int length) throws DecodingException {
+        try {
+            return bufferDecoder().getDecodedLength(s, offset, length);
+        } catch (DecodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new DecodingException("Unable to decode input: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int decode(CharSequence s, int offset, int length, byte[] dst, int dstOffset) throws DecodingException {
+        try {
+            return bufferDecoder().decode(s, offset, length, dst, dstOffset);
+        } catch (DecodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new DecodingException("Unable to decode input: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int decode(CharSequence s, int offset, int length, ByteBuffer dst) throws DecodingException {
+        try {
+            return bufferDecoder().decode(s, offset, length, dst);
+        } catch (DecodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new DecodingException("Unable to decode input: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.jsonwebtoken.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link ExceptionPropagatingEncoder} that also exposes the {@link BufferEncoder} methods of its delegate, with the
+ * same exception handling.
+ *
+ * @since 0.11.0
+ */
+class ExceptionPropagatingBufferEncoder<E extends Encoder<byte[], String> & BufferEncoder>
+    extends ExceptionPropagatingEncoder<byte[], String> implements BufferEncoder {
+
+    ExceptionPropagatingBufferEncoder(E encoder) {
+        super(encoder);
+    }
+
+    private BufferEncoder bufferEncoder() {
+        return (BufferEncoder) encoder;
+    }
+
+    @Override
+    public int getEncodedLength(int byteCount) throws EncodingException {
+        try {
+            return bufferEncoder().getEncodedLength(byteCount);
+        } catch (EncodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new EncodingException("Unable to encode input: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) throws EncodingException {
+        try {
+            return bufferEncoder().encode(src, offset, length, dst, dstOffset);
+        } catch (EncodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new EncodingException("Unable to encode input: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, StringBuilder dst) throws EncodingException {
+        try {
+            return bufferEncoder().encode(src, offset, length, dst);
+        } catch (EncodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new EncodingException("Unable to encode input: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, ByteBuffer dst) throws EncodingException {
+        try {
+            return bufferEncoder().encode(src, offset, length, dst);
+        } catch (EncodingException e) {
+            throw e; //propagate
+        } catch (Exception e) {
+            throw new EncodingException("Unable to encode input: " + e.getMessage(), e);
+        }
+    }
+}
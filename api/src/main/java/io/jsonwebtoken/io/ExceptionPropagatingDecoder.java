@@ -7,7 +7,7 @@ import io.jsonwebtoken.lang.Assert;
  */
 class ExceptionPropagatingDecoder<T, R> implements Decoder<T, R> {
 
-    private final Decoder<T, R> decoder;
+    final Decoder<T, R> decoder;
 
     ExceptionPropagatingDecoder(Decoder<T, R> decoder) {
         Assert.notNull(decoder, "Decoder cannot be null.");
@@ -7,7 +7,7 @@ import io.jsonwebtoken.lang.Assert;
  */
 class ExceptionPropagatingEncoder<T, R> implements Encoder<T, R> {
 
-    private final Encoder<T, R> encoder;
+    final Encoder<T, R> encoder;
 
     ExceptionPropagatingEncoder(Encoder<T, R> encoder) {
         Assert.notNull(encoder, "Encoder cannot be null.");
@@ -0,0 +1,46 @@
+package io.jsonwebtoken.io;
+
+import java.util.Collection;
+
+/**
+ * An optional extension to {@link Deserializer} for JSON libraries that can read a JSON object as a stream of
+ * tokens.  The parser uses it to extract only the members it needs (for example {@code alg}, {@code zip},
+ * {@code kid}, {@code exp} and {@code nbf}) in a single pass, without building a {@code Map} of the entire object.
+ *
+ * <p>Member values are reported as they would appear in the map returned by {@link Deserializer#deserialize(byte[])}
+ * for the same bytes, including nested objects and arrays.  Members that are not requested must be skipped without
+ * being materialized.</p>
+ *
+ * @since 0.11.0
+ */
+public interface FieldDeserializer {
+
+    /**
+     * Reads the top level members of the specified UTF-8 encoded JSON object and invokes
+     * {@link FieldHandler#onField(String, Object)} for each member whose name is contained in {@code fieldNames}, in
+     * document order.
+     *
+     * @param bytes      the UTF-8 encoded JSON object
+     * @param fieldNames the names of the top level members to report
+     * @param handler    the handler to invoke for each requested member
+     * @throws DeserializationException if the bytes do not represent a JSON object
+     */
+    void deserializeFields(byte[] bytes, Collection<String> fieldNames, FieldHandler handler)
+        throws DeserializationException;
+
+    /**
+     * Receives the members extracted by {@link FieldDeserializer#deserializeFields(byte[], Collection, FieldHandler)}.
+     *
+     * @since 0.11.0
+     */
+    interface FieldHandler {
+
+        /**
+         * Invoked for each requested top level member.
+         *
+         * @param name  the member name
+         * @param value the member value, or {@code null} if the member value is JSON {@code null}
+         */
+        void onField(String name, Object value);
+    }
+}
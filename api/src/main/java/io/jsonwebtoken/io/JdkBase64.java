@@ -0,0 +1,93 @@
+package io.jsonwebtoken.io;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Binds the <code>java.util.Base64</code> codecs of Java 8 and later, which this library cannot reference directly
+ * because it must run on Java 7.  The bound method handles are constants, so the JIT compiler inlines the calls as
+ * if they had been made directly.
+ *
+ * @since 0.11.0
+ */
+final class JdkBase64 {
+
+    private static final MethodHandle ENCODE;
+    private static final MethodHandle URL_ENCODE;
+    private static final MethodHandle DECODE;
+    private static final MethodHandle URL_DECODE;
+
+    static {
+        MethodHandle[] handles = null;
+        try {
+            handles = bind();
+        } catch (Throwable t) { // Java 7: java.util.Base64 is not available
+            handles = new MethodHandle[4];
+        }
+        ENCODE = handles[0];
+        URL_ENCODE = handles[1];
+        DECODE = handles[2];
+        URL_DECODE = handles[3];
+    }
+
+    private static MethodHandle[] bind() throws Exception {
+        Class<?> base64 = Class.forName("java.util.Base64");
+        Class<?> encoderClass = Class.forName("java.util.Base64$Encoder");
+        Class<?> decoderClass = Class.forName("java.util.Base64$Decoder");
+
+        Object encoder = base64.getMethod("getEncoder").invoke(null);
+        Object urlEncoder = base64.getMethod("getUrlEncoder").invoke(null);
+        urlEncoder = encoderClass.getMethod("withoutPadding").invoke(urlEncoder);
+        Object decoder = base64.getMethod("getDecoder").invoke(null);
+        Object urlDecoder = base64.getMethod("getUrlDecoder").invoke(null);
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle encode = lookup.findVirtual(encoderClass, "encodeToString",
+            MethodType.methodType(String.class, byte[].class));
+        MethodHandle decode = lookup.findVirtual(decoderClass, "decode",
+            MethodType.methodType(byte[].class, String.class));
+
+        return new MethodHandle[]{
+            encode.bindTo(encoder), encode.bindTo(urlEncoder), decode.bindTo(decoder), decode.bindTo(urlDecoder)
+        };
+    }
+
+    private JdkBase64() {
+    }
+
+    static boolean isAvailable() {
+        return ENCODE != null;
+    }
+
+    /**
+     * Encodes the specified bytes exactly like {@link Base64#encodeToString(byte[], boolean)} without line
+     * separators: BASE64 output is padded, BASE64URL output is not.
+     */
+    static String encode(byte[] bytes, boolean urlsafe) {
+        try {
+            return urlsafe ? (String) URL_ENCODE.invokeExact(bytes) : (String) ENCODE.invokeExact(bytes);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) { // not reachable: encodeToString declares no checked exceptions
+            throw new EncodingException("Unable to encode input: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Decodes the specified characters, or returns {@code null} if they are not a single line of well-formed
+     * encoded input.  The caller then decodes them with {@link Base64} so that lenient input is still accepted and
+     * malformed input is reported exactly as before.
+     */
+    static byte[] decode(String s, boolean urlsafe) {
+        try {
+            return urlsafe ? (byte[]) URL_DECODE.invokeExact(s) : (byte[]) DECODE.invokeExact(s);
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) { // not reachable: decode declares no checked exceptions
+            throw new DecodingException("Unable to decode input: " + t.getMessage(), t);
+        }
+    }
+}
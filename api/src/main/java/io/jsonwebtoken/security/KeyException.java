@@ -8,4 +8,11 @@ public class KeyException extends SecurityException {
     public KeyException(String message) {
         super(message);
     }
+
+    /**
+     * @since 0.11.0
+     */
+    public KeyException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,74 @@
+package io.jsonwebtoken.io
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class Base64CodecsTest {
+
+    @Test
+    void testPrivateCtor() {
+        new Base64Codecs() //not allowed in java, including here only to pass test coverage assertions
+    }
+
+    @Test
+    void testJdkAvailableOnJava8AndLater() {
+        assertTrue JdkBase64.isAvailable()
+    }
+
+    @Test
+    void testEncoderSelection() {
+        assertTrue Base64Codecs.isJdkEncoderSelected(null, true)
+        assertTrue Base64Codecs.isJdkEncoderSelected('auto', true)
+        assertTrue Base64Codecs.isJdkEncoderSelected('JDK', true)
+        assertFalse Base64Codecs.isJdkEncoderSelected('builtin', true)
+        assertFalse Base64Codecs.isJdkEncoderSelected(null, false)
+        assertFalse Base64Codecs.isJdkEncoderSelected('jdk', false)
+    }
+
+    @Test
+    void testDecoderSelection() {
+        assertTrue Base64Codecs.isJdkDecoderSelected(null, true, true)
+        assertFalse Base64Codecs.isJdkDecoderSelected(null, true, false)
+        assertFalse Base64Codecs.isJdkDecoderSelected('auto', true, false)
+        assertTrue Base64Codecs.isJdkDecoderSelected('jdk', true, false)
+        assertFalse Base64Codecs.isJdkDecoderSelected('builtin', true, true)
+        assertFalse Base64Codecs.isJdkDecoderSelected('jdk', false, true)
+    }
+
+    @Test
+    void testIsJava9OrLater() {
+        assertFalse Base64Codecs.isJava9OrLater(null)
+        assertFalse Base64Codecs.isJava9OrLater('1.7')
+        assertFalse Base64Codecs.isJava9OrLater('1.8')
+        assertTrue Base64Codecs.isJava9OrLater('9')
+        assertTrue Base64Codecs.isJava9OrLater('17')
+    }
+
+    @Test
+    void testSelectionMatchesEnvironment() {
+        String version = System.getProperty('java.specification.version')
+        assertTrue Base64Codecs.isJdkEncoderSelected()
+        assertEquals Base64Codecs.isJava9OrLater(version), Base64Codecs.isJdkDecoderSelected()
+    }
+
+    @Test
+    void testJdkEncodeMatchesBuiltIn() {
+        Random random = new Random()
+        for (int len = 0; len < 64; len++) {
+            byte[] bytes = new byte[len]
+            random.nextBytes(bytes)
+            assertEquals Base64.DEFAULT.encodeToString(bytes, false), JdkBase64.encode(bytes, false)
+            assertEquals Base64.URL_SAFE.encodeToString(bytes, false), JdkBase64.encode(bytes, true)
+        }
+    }
+
+    @Test
+    void testJdkDecodeReturnsNullForRejectedInput() {
+        assertNull JdkBase64.decode('Zg=', true)
+        assertNull JdkBase64.decode(' Zg', true)
+        assertNull JdkBase64.decode('Zm9v\r\nYmFy', false)
+        assertNull JdkBase64.decode('Zm9v+mFy', true)
+        assertArrayEquals 'foo'.getBytes('US-ASCII'), JdkBase64.decode('Zm9v', true)
+    }
+}
@@ -3,7 +3,9 @@ package io.jsonwebtoken.io
 import io.jsonwebtoken.lang.Strings
 import org.junit.Test
 
-import static org.junit.Assert.assertEquals
+import java.nio.ByteBuffer
+
+import static org.junit.Assert.*
 
 class Base64DecoderTest {
 
@@ -19,4 +21,161 @@ class Base64DecoderTest {
         String result = new String(bytes, Strings.UTF_8)
         assertEquals 'Hello 世界', result
     }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length]
+        new Random(length).nextBytes(bytes)
+        return bytes
+    }
+
+    @Test
+    void testDecodeRangeIntoArray() {
+        for (int length = 0; length < 70; length++) {
+            byte[] expected = randomBytes(length)
+            String encoded = Encoders.BASE64URL.encode(expected)
+            String s = 'xx' + encoded + 'yy'
+            def decoder = new Base64UrlDecoder()
+            assertEquals length, decoder.getDecodedLength(s, 2, encoded.length())
+            byte[] dst = new byte[length + 4]
+            assertEquals length, decoder.decode(s, 2, encoded.length(), dst, 3)
+            assertArrayEquals expected, Arrays.copyOfRange(dst, 3, 3 + length)
+            assertEquals 0, dst[0]
+            assertEquals 0, dst[length + 3]
+        }
+    }
+
+    @Test
+    void testDecodeRangeMatchesDecode() {
+        for (int length = 0; length < 70; length++) {
+            String encoded = Encoders.BASE64.encode(randomBytes(length))
+            def decoder = new Base64Decoder()
+            byte[] dst = new byte[decoder.getDecodedLength(encoded, 0, encoded.length())]
+            decoder.decode(encoded, 0, encoded.length(), dst, 0)
+            assertArrayEquals decoder.decode(encoded), dst
+        }
+    }
+
+    @Test
+    void testDecodeRangeWithPadding() {
+        def decoder = new Base64UrlDecoder()
+        assertEquals 1, decoder.getDecodedLength('QQ==', 0, 4)
+        byte[] dst = new byte[1]
+        assertEquals 1, decoder.decode('QQ==', 0, 4, dst, 0)
+        assertEquals 'A', new String(dst, Strings.UTF_8)
+    }
+
+    @Test
+    void testDecodeRangeIntoHeapBuffer() {
+        byte[] expected = randomBytes(100)
+        String encoded = Encoders.BASE64URL.encode(expected)
+        ByteBuffer buffer = ByteBuffer.allocate(120)
+        buffer.position(10)
+        ByteBuffer slice = buffer.slice()
+        slice.position(5)
+        assertEquals 100, new Base64UrlDecoder().decode(encoded, 0, encoded.length(), slice)
+        assertEquals 105, slice.position()
+        assertArrayEquals expected, Arrays.copyOfRange(buffer.array(), 15, 115)
+    }
+
+    @Test
+    void testDecodeRangeIntoDirectBuffer() {
+        for (int length = 0; length < 10; length++) {
+            byte[] expected = randomBytes(length)
+            String encoded = Encoders.BASE64URL.encode(expected)
+            ByteBuffer buffer = ByteBuffer.allocateDirect(length)
+            assertEquals length, new Base64UrlDecoder().decode(encoded, 0, encoded.length(), buffer)
+            assertFalse buffer.hasRemaining()
+            buffer.flip()
+            byte[] actual = new byte[length]
+            buffer.get(actual)
+            assertArrayEquals expected, actual
+        }
+    }
+
+    @Test
+    void testDecodeRangeRejectsIllegalCharacters() {
+        def decoder = new Base64UrlDecoder()
+        for (String s : ['QUJD\r\nREVG', 'QU=D', 'QUJ+', ' QUJ', 'QUJ\u00e9']) {
+            try {
+                decoder.decode(s, 0, s.length(), new byte[10], 0)
+                fail()
+            } catch (DecodingException expected) {
+                assertTrue expected.getMessage().startsWith('Illegal base64url character: ')
+            }
+        }
+    }
+
+    @Test
+    void testDecodeRangeRejectsInvalidLength() {
+        try {
+            new Base64UrlDecoder().getDecodedLength('QUJDR', 0, 5)
+            fail()
+        } catch (DecodingException expected) {
+            assertEquals 'Illegal base64url input length: 5', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testDecodeRangeRejectsInvalidRange() {
+        try {
+            new Base64UrlDecoder().getDecodedLength('QUJD', 2, 4)
+            fail()
+        } catch (DecodingException expected) {
+            assertEquals 'Invalid base64url input range.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testDecodeRangeIntoTooSmallDestination() {
+        def decoder = new Base64UrlDecoder()
+        try {
+            decoder.decode('QUJD', 0, 4, new byte[3], 1)
+            fail()
+        } catch (DecodingException expected) {
+            assertEquals 'Destination array cannot hold 3 decoded bytes.', expected.getMessage()
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(10)
+            buffer.limit(2)
+            decoder.decode('QUJD', 0, 4, buffer)
+            fail()
+        } catch (DecodingException expected) {
+            assertEquals 'Destination buffer cannot hold 3 decoded bytes.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testJdkDecoderMatchesBuiltInDecoder() {
+        Random random = new Random()
+        char[] alphabet = 'AZaz09-_+/= \r\n.'.toCharArray()
+        for (Base64 base64 : [Base64.DEFAULT, Base64.URL_SAFE]) {
+            Base64Decoder builtIn = new Base64Decoder(base64, false)
+            Base64Decoder jdk = new Base64Decoder(base64, true)
+            for (int i = 0; i < 1000; i++) {
+                byte[] bytes = new byte[random.nextInt(40)]
+                random.nextBytes(bytes)
+                char[] chars = base64.encodeToString(bytes, i % 7 == 0).toCharArray()
+                if (i % 2 == 1 && chars.length > 0) { // corrupt a random character
+                    chars[random.nextInt(chars.length)] = alphabet[random.nextInt(alphabet.length)]
+                }
+                String s = new String(chars)
+                def expected, actual
+                try {
+                    expected = builtIn.decode(s)
+                } catch (DecodingException e) {
+                    expected = e.getMessage()
+                }
+                try {
+                    actual = jdk.decode(s)
+                } catch (DecodingException e) {
+                    actual = e.getMessage()
+                }
+                if (expected instanceof byte[]) {
+                    assertArrayEquals s, expected, actual
+                } else {
+                    assertEquals s, expected, actual
+                }
+            }
+        }
+    }
 }
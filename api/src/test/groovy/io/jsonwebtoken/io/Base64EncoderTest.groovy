@@ -3,7 +3,9 @@ package io.jsonwebtoken.io
 import io.jsonwebtoken.lang.Strings
 import org.junit.Test
 
-import static org.junit.Assert.assertEquals
+import java.nio.ByteBuffer
+
+import static org.junit.Assert.*
 
 class Base64EncoderTest {
 
@@ -19,4 +21,106 @@ class Base64EncoderTest {
         String encoded = new Base64Encoder().encode(bytes)
         assertEquals 'SGVsbG8g5LiW55WM', encoded
     }
+
+    @Test
+    void testGetEncodedLength() {
+        assertEquals 0, new Base64Encoder().getEncodedLength(0)
+        assertEquals 4, new Base64Encoder().getEncodedLength(1)
+        assertEquals 4, new Base64Encoder().getEncodedLength(3)
+        assertEquals 8, new Base64Encoder().getEncodedLength(4)
+        assertEquals 0, new Base64UrlEncoder().getEncodedLength(0)
+        assertEquals 2, new Base64UrlEncoder().getEncodedLength(1)
+        assertEquals 3, new Base64UrlEncoder().getEncodedLength(2)
+        assertEquals 4, new Base64UrlEncoder().getEncodedLength(3)
+        assertEquals 6, new Base64UrlEncoder().getEncodedLength(4)
+    }
+
+    @Test(expected = EncodingException)
+    void testGetEncodedLengthNegative() {
+        new Base64UrlEncoder().getEncodedLength(-1)
+    }
+
+    @Test
+    void testEncodeIntoMatchesEncode() {
+        Random random = new Random()
+        for (Base64Encoder encoder : [new Base64Encoder(), new Base64UrlEncoder()]) {
+            for (int len = 0; len < 20; len++) {
+                byte[] bytes = new byte[len + 3]
+                random.nextBytes(bytes)
+                String expected = encoder.encode(Arrays.copyOfRange(bytes, 2, 2 + len))
+                int n = expected.length()
+
+                char[] chars = new char[n + 2]
+                assertEquals n, encoder.encode(bytes, 2, len, chars, 1)
+                assertEquals expected, new String(chars, 1, n)
+                assertEquals 0 as char, chars[0]
+                assertEquals 0 as char, chars[n + 1]
+
+                StringBuilder sb = new StringBuilder('x')
+                assertEquals n, encoder.encode(bytes, 2, len, sb)
+                assertEquals 'x' + expected, sb.toString()
+
+                ByteBuffer buf = ByteBuffer.allocate(n + 1)
+                buf.put((byte) 'x')
+                assertEquals n, encoder.encode(bytes, 2, len, buf)
+                assertFalse buf.hasRemaining()
+                assertEquals 'x' + expected, new String(buf.array(), 'US-ASCII')
+            }
+        }
+    }
+
+    @Test
+    void testEncodeIntoDirectByteBuffer() {
+        byte[] bytes = 'Hello 世界'.getBytes(Strings.UTF_8)
+        ByteBuffer buf = ByteBuffer.allocateDirect(16)
+        assertEquals 16, new Base64Encoder().encode(bytes, 0, bytes.length, buf)
+        buf.flip()
+        byte[] ascii = new byte[16]
+        buf.get(ascii)
+        assertEquals 'SGVsbG8g5LiW55WM', new String(ascii, 'US-ASCII')
+    }
+
+    @Test
+    void testEncodeIntoInvalidRange() {
+        try {
+            new Base64UrlEncoder().encode(new byte[2], 1, 2, new char[4], 0)
+            fail()
+        } catch (EncodingException expected) {
+            assertEquals 'Invalid base64url input range.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testEncodeIntoArrayTooSmall() {
+        try {
+            new Base64UrlEncoder().encode(new byte[4], 0, 4, new char[6], 1)
+            fail()
+        } catch (EncodingException expected) {
+            assertEquals 'Destination array cannot hold 6 encoded characters.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testEncodeIntoBufferTooSmall() {
+        try {
+            new Base64Encoder().encode(new byte[4], 0, 4, ByteBuffer.allocate(7))
+            fail()
+        } catch (EncodingException expected) {
+            assertEquals 'Destination buffer cannot hold 8 encoded bytes.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testJdkEncoderMatchesBuiltInEncoder() {
+        Random random = new Random()
+        for (Base64 base64 : [Base64.DEFAULT, Base64.URL_SAFE]) {
+            Base64Encoder builtIn = new Base64Encoder(base64, false)
+            Base64Encoder jdk = new Base64Encoder(base64, true)
+            for (int i = 0; i < 200; i++) {
+                byte[] bytes = new byte[i < 100 ? i : random.nextInt(4 * Base64.WIDE_THRESHOLD)]
+                random.nextBytes(bytes)
+                assertEquals builtIn.encode(bytes), jdk.encode(bytes)
+            }
+        }
+    }
 }
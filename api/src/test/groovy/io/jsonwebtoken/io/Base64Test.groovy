@@ -3,6 +3,8 @@ package io.jsonwebtoken.io
 import io.jsonwebtoken.lang.Strings
 import org.junit.Test
 
+import java.nio.ByteBuffer
+
 import static org.junit.Assert.*
 
 class Base64Test {
@@ -207,4 +209,72 @@ class Base64Test {
         assertEquals expected, urlEncode(input)
         assertEquals input, urlDecode(expected)
     }
+
+    @Test
+    void testWideWordCodecMatchesScalarCodec() {
+        Random random = new Random()
+        for (boolean urlsafe : [false, true]) {
+            Base64 scalar = new Base64(urlsafe, Integer.MAX_VALUE)
+            Base64 wide = new Base64(urlsafe, 0)
+            for (int i = 0; i < 300; i++) {
+                // every length modulo 6 and 8, both below and above the default threshold:
+                int len = i < 100 ? i : random.nextInt(4 * Base64.WIDE_THRESHOLD)
+                byte[] bytes = new byte[len]
+                random.nextBytes(bytes)
+
+                String expected = scalar.encodeToString(bytes, false)
+                assertEquals expected, wide.encodeToString(bytes, false)
+
+                char[] chars = new char[expected.length() + 1]
+                assertEquals expected.length(), wide.encodeInto(bytes, 0, len, chars, 1)
+                assertEquals expected, new String(chars, 1, expected.length())
+
+                ByteBuffer buf = ByteBuffer.allocate(expected.length() + 1)
+                buf.put((byte) 0)
+                wide.encodeInto(bytes, 0, len, buf)
+                assertEquals expected, new String(buf.array(), 1, expected.length(), 'US-ASCII')
+
+                assertArrayEquals bytes, wide.decodeFast(expected.toCharArray())
+
+                byte[] decoded = new byte[len + 2]
+                String s = '.' + expected + '.'
+                assertEquals len, wide.decodeClean(s, 1, expected.length(), decoded, 2)
+                assertArrayEquals bytes, Arrays.copyOfRange(decoded, 2, len + 2)
+            }
+        }
+    }
+
+    @Test
+    void testDefaultCodecRoundTripsLargeInput() {
+        byte[] bytes = new byte[64 * 1024 + 5]
+        new Random().nextBytes(bytes)
+        for (Base64 base64 : [Base64.DEFAULT, Base64.URL_SAFE]) {
+            String encoded = base64.encodeToString(bytes, false)
+            assertArrayEquals bytes, base64.decodeFast(encoded.toCharArray())
+            byte[] decoded = new byte[bytes.length]
+            base64.decodeClean(encoded, 0, encoded.length(), decoded, 0)
+            assertArrayEquals bytes, decoded
+        }
+    }
+
+    @Test
+    void testWideWordDecodeIllegalCharacter() {
+        Base64 wide = new Base64(true, 0)
+        String encoded = wide.encodeToString(new byte[24], false)
+        for (String illegal : ['+', '\u00e9', '\u4e16']) {
+            String s = encoded.substring(0, 13) + illegal + encoded.substring(14)
+            try {
+                wide.decodeClean(s, 0, s.length(), new byte[24], 0)
+                fail()
+            } catch (DecodingException expected) {
+                assertEquals "Illegal base64url character: '" + illegal + "'", expected.getMessage()
+            }
+            try {
+                wide.decodeFast(s.toCharArray())
+                fail()
+            } catch (DecodingException expected) {
+                assertEquals "Illegal base64url character: '" + illegal + "'", expected.getMessage()
+            }
+        }
+    }
 }
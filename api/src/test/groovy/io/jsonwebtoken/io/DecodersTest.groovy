@@ -2,6 +2,9 @@ package io.jsonwebtoken.io
 
 import org.junit.Test
 
+import java.nio.ByteBuffer
+import java.nio.ReadOnlyBufferException
+
 import static org.junit.Assert.*
 
 class DecodersTest {
@@ -11,12 +14,34 @@ class DecodersTest {
         new Decoders() //not allowed in java, including here only to pass test coverage assertions
         assertTrue Decoders.BASE64 instanceof ExceptionPropagatingDecoder
         assertTrue Decoders.BASE64.decoder instanceof Base64Decoder
+        assertTrue Decoders.BASE64 instanceof BufferDecoder
     }
 
     @Test
     void testBase64Url() {
         assertTrue Decoders.BASE64URL instanceof ExceptionPropagatingDecoder
         assertTrue Decoders.BASE64URL.decoder instanceof Base64UrlDecoder
+        assertTrue Decoders.BASE64URL instanceof BufferDecoder
+    }
+
+    @Test
+    void testBase64UrlBufferDecoderPropagatesDecodingException() {
+        try {
+            ((BufferDecoder) Decoders.BASE64URL).decode('QU#D', 0, 4, new byte[3], 0)
+            fail()
+        } catch (DecodingException expected) {
+            assertEquals "Illegal base64url character: '#'", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testBase64UrlBufferDecoderWrapsOtherExceptions() {
+        try {
+            ((BufferDecoder) Decoders.BASE64URL).decode('QUJD', 0, 4, ByteBuffer.allocate(3).asReadOnlyBuffer())
+            fail()
+        } catch (DecodingException expected) {
+            assertTrue expected.getCause() instanceof ReadOnlyBufferException
+        }
     }
 
 }
@@ -2,6 +2,9 @@ package io.jsonwebtoken.io
 
 import org.junit.Test
 
+import java.nio.ByteBuffer
+import java.nio.ReadOnlyBufferException
+
 import static org.junit.Assert.*
 
 class EncodersTest {
@@ -11,11 +14,33 @@ class EncodersTest {
         new Encoders() //not allowed in java, including here only to pass test coverage assertions
         assertTrue Encoders.BASE64 instanceof ExceptionPropagatingEncoder
         assertTrue Encoders.BASE64.encoder instanceof Base64Encoder
+        assertTrue Encoders.BASE64 instanceof BufferEncoder
     }
 
     @Test
     void testBase64Url() {
         assertTrue Encoders.BASE64URL instanceof ExceptionPropagatingEncoder
         assertTrue Encoders.BASE64URL.encoder instanceof Base64UrlEncoder
+        assertTrue Encoders.BASE64URL instanceof BufferEncoder
+    }
+
+    @Test
+    void testBase64UrlBufferEncoderPropagatesEncodingException() {
+        try {
+            ((BufferEncoder) Encoders.BASE64URL).encode(new byte[3], 0, 3, new char[3], 0)
+            fail()
+        } catch (EncodingException expected) {
+            assertEquals 'Destination array cannot hold 4 encoded characters.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testBase64UrlBufferEncoderWrapsOtherExceptions() {
+        try {
+            ((BufferEncoder) Encoders.BASE64URL).encode(new byte[3], 0, 3, ByteBuffer.allocate(4).asReadOnlyBuffer())
+            fail()
+        } catch (EncodingException expected) {
+            assertTrue expected.getCause() instanceof ReadOnlyBufferException
+        }
     }
 }
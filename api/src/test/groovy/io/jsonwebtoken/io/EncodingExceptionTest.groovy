@@ -13,4 +13,9 @@ class EncodingExceptionTest {
         assertEquals "wrapping", exception.getMessage()
         assertEquals ioException, exception.getCause()
     }
+
+    @Test
+    void testConstructorWithMessage() {
+        assertEquals "message", new EncodingException("message").getMessage()
+    }
 }
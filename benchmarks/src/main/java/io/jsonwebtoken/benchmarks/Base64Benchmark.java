@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.benchmarks;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Base64URL implementations selectable with the {@code io.jsonwebtoken.io.base64} system property.
+ * Every parameter combination runs in its own JVM, so the property is set before {@code Encoders} and
+ * {@code Decoders} are initialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Base64Benchmark {
+
+    @Param({"builtin", "jdk"})
+    public String codec;
+
+    @Param({"32", "1024", "16384"})
+    public int bytes;
+
+    private byte[] data;
+
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        System.setProperty("io.jsonwebtoken.io.base64", codec);
+        data = new byte[bytes];
+        new Random(bytes).nextBytes(data);
+        encoded = Encoders.BASE64URL.encode(data);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Encoders.BASE64URL.encode(data);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Decoders.BASE64URL.decode(encoded);
+    }
+}
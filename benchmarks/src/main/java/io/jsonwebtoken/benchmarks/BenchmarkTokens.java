@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodecs;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.JacksonDeserializer;
+import io.jsonwebtoken.io.JacksonSerializer;
+import io.jsonwebtoken.io.OrgJsonDeserializer;
+import io.jsonwebtoken.io.OrgJsonSerializer;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Keys, claims and JSON libraries shared by the benchmarks, selected by the string values of the benchmarks'
+ * {@code @Param} fields.
+ */
+final class BenchmarkTokens {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private static final int FILLER_VALUE_LENGTH = 48;
+
+    private BenchmarkTokens() {
+    }
+
+    /**
+     * The signing key (a secret key or private key) and verification key (the same secret key or public key) for an
+     * algorithm.
+     */
+    static final class KeyMaterial {
+
+        final Key signingKey;
+        final Key verificationKey;
+
+        private KeyMaterial(Key signingKey, Key verificationKey) {
+            this.signingKey = signingKey;
+            this.verificationKey = verificationKey;
+        }
+    }
+
+    static KeyMaterial keysFor(SignatureAlgorithm alg) {
+        if (alg.isHmac()) {
+            Key key = Keys.secretKeyFor(alg);
+            return new KeyMaterial(key, key);
+        }
+        KeyPair pair = Keys.keyPairFor(alg);
+        return new KeyMaterial(pair.getPrivate(), pair.getPublic());
+    }
+
+    /**
+     * Returns claims whose JSON serialization is approximately the specified size.  {@code small} contains registered
+     * claims only; {@code 1kb} and {@code 8kb} add pseudo-random (and therefore barely compressible) custom claims.
+     */
+    static Claims claims(String size) {
+        Claims claims = Jwts.claims()
+            .setIssuer("https://issuer.example.com")
+            .setSubject("user-1234567890")
+            .setAudience("https://api.example.com")
+            .setIssuedAt(new Date(1550000000000L))
+            .setId("6c3a2c1e-5f0b-4f3e-9d2a-6a1f4f8d2b7c");
+
+        int target = targetSize(size);
+        Serializer<Map<String, ?>> serializer = new JacksonSerializer<Map<String, ?>>();
+        Random random = new Random(target); //deterministic across runs
+        for (int i = 0; serializer.serialize(claims).length < target; i++) {
+            claims.put("claim" + i, randomString(random));
+        }
+        return claims;
+    }
+
+    private static int targetSize(String size) {
+        switch (size) {
+            case "small":
+                return 0;
+            case "1kb":
+                return 1024;
+            case "8kb":
+                return 8 * 1024;
+            default:
+                throw new IllegalArgumentException("Unsupported size: " + size);
+        }
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder(FILLER_VALUE_LENGTH);
+        for (int i = 0; i < FILLER_VALUE_LENGTH; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    static Serializer<Map<String, ?>> serializer(String json) {
+        switch (json) {
+            case "jackson":
+                return new JacksonSerializer<Map<String, ?>>();
+            case "orgjson":
+                return new OrgJsonSerializer<Map<String, ?>>();
+            default:
+                throw new IllegalArgumentException("Unsupported JSON library: " + json);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Deserializer<Map<String, ?>> deserializer(String json) {
+        switch (json) {
+            case "jackson":
+                return new JacksonDeserializer<Map<String, ?>>();
+            case "orgjson":
+                //OrgJsonDeserializer produces a Map for every JSON object:
+                return (Deserializer) new OrgJsonDeserializer();
+            default:
+                throw new IllegalArgumentException("Unsupported JSON library: " + json);
+        }
+    }
+
+    /**
+     * Returns a builder for the specified claims, configured exactly as the benchmarks use it.
+     */
+    static JwtBuilder builder(Claims claims, SignatureAlgorithm alg, Key signingKey,
+                              Serializer<Map<String, ?>> serializer, boolean compressed) {
+        JwtBuilder builder = Jwts.builder()
+            .setClaims(claims)
+            .signWith(signingKey, alg)
+            .serializeToJsonWith(serializer);
+        if (compressed) {
+            builder.compressWith(CompressionCodecs.DEFLATE);
+        }
+        return builder;
+    }
+
+    static JwtParser parser(Key verificationKey, Deserializer<Map<String, ?>> deserializer) {
+        return Jwts.parser()
+            .setSigningKey(verificationKey)
+            .deserializeJsonWith(deserializer);
+    }
+}
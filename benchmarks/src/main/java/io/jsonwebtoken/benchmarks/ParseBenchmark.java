@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding, deserializing and verifying a compact JWS with {@code JwtParser.parseClaimsJws(String)}.  The
+ * parser is configured once per trial, as an application would, and no result caching is enabled, so every
+ * invocation performs the full verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "PS256", "PS384", "PS512", "ES256", "ES384", "ES512"})
+    public String algorithm;
+
+    @Param({"small", "1kb", "8kb"})
+    public String size;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    @Param({"jackson", "orgjson"})
+    public String json;
+
+    private JwtParser parser;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        SignatureAlgorithm alg = SignatureAlgorithm.valueOf(algorithm);
+        BenchmarkTokens.KeyMaterial keys = BenchmarkTokens.keysFor(alg);
+        Claims claims = BenchmarkTokens.claims(size);
+        token = BenchmarkTokens.builder(claims, alg, keys.signingKey, BenchmarkTokens.serializer(json), compressed)
+            .compact();
+        parser = BenchmarkTokens.parser(keys.verificationKey, BenchmarkTokens.deserializer(json));
+        parser.parseClaimsJws(token); //fail fast on a misconfigured combination
+    }
+
+    @Benchmark
+    public Jws<Claims> parseClaimsJws() {
+        return parser.parseClaimsJws(token);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtTemplate;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building, serializing, signing and encoding a compact JWS with {@code JwtBuilder.compact()}, writing it
+ * to a reused buffer with {@code JwtBuilder.compactTo(ByteBuffer)}, and issuing the same JWS from a
+ * {@code JwtTemplate} whose header and signer were prepared once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "PS256", "PS384", "PS512", "ES256", "ES384", "ES512"})
+    public String algorithm;
+
+    @Param({"small", "1kb", "8kb"})
+    public String size;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    @Param({"jackson", "orgjson"})
+    public String json;
+
+    private SignatureAlgorithm alg;
+
+    private Key signingKey;
+
+    private Claims claims;
+
+    private Serializer<Map<String, ?>> serializer;
+
+    private JwtTemplate template;
+
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        alg = SignatureAlgorithm.valueOf(algorithm);
+        signingKey = BenchmarkTokens.keysFor(alg).signingKey;
+        claims = BenchmarkTokens.claims(size);
+        serializer = BenchmarkTokens.serializer(json);
+        template = BenchmarkTokens.builder(Jwts.claims(), alg, signingKey, serializer, compressed).toTemplate();
+        buffer = ByteBuffer.allocate(64 * 1024);
+    }
+
+    @Benchmark
+    public String compact() {
+        return BenchmarkTokens.builder(claims, alg, signingKey, serializer, compressed).compact();
+    }
+
+    @Benchmark
+    public int compactToBuffer() {
+        buffer.clear();
+        return BenchmarkTokens.builder(claims, alg, signingKey, serializer, compressed).compactTo(buffer);
+    }
+
+    @Benchmark
+    public String compactTemplate() {
+        return template.compact(claims);
+    }
+}
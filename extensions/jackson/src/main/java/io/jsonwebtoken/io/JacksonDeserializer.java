@@ -1,14 +1,17 @@
 package io.jsonwebtoken.io;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.lang.Assert;
 
 import java.io.IOException;
+import java.util.Collection;
 
 /**
  * @since 0.10.0
  */
-public class JacksonDeserializer<T> implements Deserializer<T> {
+public class JacksonDeserializer<T> implements Deserializer<T>, FieldDeserializer {
 
     private final Class<T> returnType;
     private final ObjectMapper objectMapper;
@@ -43,4 +46,36 @@ public class JacksonDeserializer<T> implements Deserializer<T> {
     protected T readValue(byte[] bytes) throws IOException {
         return objectMapper.readValue(bytes, returnType);
     }
+
+    /**
+     * Extracts the requested top level members with Jackson's streaming {@link JsonParser}.  Members that are not
+     * requested are skipped token by token; requested member values are bound with this deserializer's
+     * {@code ObjectMapper}, so they have the same types as in a fully deserialized map.
+     *
+     * @since 0.11.0
+     */
+    @Override
+    public void deserializeFields(byte[] bytes, Collection<String> fieldNames, FieldHandler handler)
+        throws DeserializationException {
+        Assert.notNull(fieldNames, "fieldNames cannot be null.");
+        Assert.notNull(handler, "FieldHandler cannot be null.");
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new DeserializationException("Unable to deserialize fields: bytes do not represent a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (fieldNames.contains(name)) {
+                    Object value = token == JsonToken.VALUE_NULL ? null : objectMapper.readValue(parser, Object.class);
+                    handler.onField(name, value);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            String msg = "Unable to deserialize fields: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
 }
@@ -61,4 +61,57 @@ class JacksonDeserializerTest {
 
         verify ex
     }
+
+    @Test
+    void testDeserializeFields() {
+        byte[] serialized = '{"a":"世界","b":[1,2],"c":{"d":true},"e":1500000000000,"f":null}'.getBytes(Strings.UTF_8)
+        def fields = [:]
+        new JacksonDeserializer().deserializeFields(serialized, ['a', 'c', 'e', 'f'] as Set, new FieldDeserializer.FieldHandler() {
+            @Override
+            void onField(String name, Object value) {
+                fields.put(name, value)
+            }
+        })
+        assertEquals([a: '世界', c: [d: true], e: 1500000000000L, f: null], fields)
+    }
+
+    @Test
+    void testDeserializeFieldsMatchesDeserialize() {
+        byte[] serialized = '{"i":42,"l":1500000000000,"d":1.5,"s":"x"}'.getBytes(Strings.UTF_8)
+        def deserializer = new JacksonDeserializer()
+        def full = deserializer.deserialize(serialized)
+        def fields = [:]
+        deserializer.deserializeFields(serialized, full.keySet(), new FieldDeserializer.FieldHandler() {
+            @Override
+            void onField(String name, Object value) {
+                fields.put(name, value)
+            }
+        })
+        assertEquals full, fields
+        for (String name : full.keySet()) {
+            assertEquals full[name].getClass(), fields[name].getClass()
+        }
+    }
+
+    @Test
+    void testDeserializeFieldsWithNonObject() {
+        try {
+            new JacksonDeserializer().deserializeFields('[1]'.getBytes(Strings.UTF_8), ['a'], new FieldDeserializer.FieldHandler() {
+                @Override
+                void onField(String name, Object value) {
+                }
+            })
+            fail()
+        } catch (DeserializationException expected) {
+        }
+    }
+
+    @Test(expected = DeserializationException)
+    void testDeserializeFieldsWithMalformedJson() {
+        new JacksonDeserializer().deserializeFields('{"a":'.getBytes(Strings.UTF_8), ['a'], new FieldDeserializer.FieldHandler() {
+            @Override
+            void onField(String name, Object value) {
+            }
+        })
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.TokenCacheStats;
+import io.jsonwebtoken.impl.crypto.JwtSignatureValidator;
+import io.jsonwebtoken.io.Decoder;
+import io.jsonwebtoken.lang.Assert;
+
+import java.security.Key;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link SigningKeyResolver} that caches the keys returned by another resolver, indexed by the {@code kid} and
+ * {@code alg} header parameters of the JWS being verified.  Tokens without a {@code kid} are always delegated.
+ *
+ * <p>When used with a {@link io.jsonwebtoken.JwtParser JwtParser}, each cached key also retains the signature
+ * validator the parser created for it the first time, after the key's strength was asserted for the algorithm.  For
+ * a cache hit, the parser neither calls the delegate resolver nor re-validates the key nor creates a new validator.
+ * Combine with {@link io.jsonwebtoken.JwtParser#setCryptoEnginePooling(boolean) crypto engine pooling} so that the
+ * retained validators also reuse initialized JCA engines.</p>
+ *
+ * <p>Because the delegate is only consulted on a cache miss, a key must not depend on the claims of the JWS.  Entries
+ * expire {@code ttlSeconds} after they were resolved, and can be discarded earlier with {@link #invalidate(String)}
+ * or {@link #invalidateAll()}, for example when a key is revoked.  Once {@code maxSize} keys are cached, resolving
+ * another one discards all existing entries.</p>
+ *
+ * <p>Instances are thread-safe and may be shared by multiple parsers.</p>
+ *
+ * @since 0.11.0
+ */
+public final class CachingSigningKeyResolver implements SigningKeyResolver, TokenCacheStats {
+
+    private static final int MILLISECONDS_PER_SECOND = 1000;
+
+    private final SigningKeyResolver delegate;
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a resolver caching up to {@code maxSize} keys returned by {@code delegate} for {@code ttlSeconds}.
+     *
+     * @param delegate   the resolver to consult for keys that are not cached
+     * @param maxSize    the maximum number of keys to cache
+     * @param ttlSeconds the number of seconds a resolved key may be reused
+     */
+    public CachingSigningKeyResolver(SigningKeyResolver delegate, int maxSize, long ttlSeconds) {
+        this(delegate, maxSize, ttlSeconds, DefaultClock.INSTANCE);
+    }
+
+    /**
+     * Creates a resolver caching up to {@code maxSize} keys returned by {@code delegate} for {@code ttlSeconds} as
+     * determined by the specified {@code clock}.
+     *
+     * @param delegate   the resolver to consult for keys that are not cached
+     * @param maxSize    the maximum number of keys to cache
+     * @param ttlSeconds the number of seconds a resolved key may be reused
+     * @param clock      the clock used to expire cached keys
+     */
+    public CachingSigningKeyResolver(SigningKeyResolver delegate, int maxSize, long ttlSeconds, Clock clock) {
+        Assert.notNull(delegate, "delegate SigningKeyResolver cannot be null.");
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than zero.");
+        Assert.isTrue(ttlSeconds > 0, "ttlSeconds must be greater than zero.");
+        Assert.notNull(clock, "Clock cannot be null.");
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * MILLISECONDS_PER_SECOND;
+        this.clock = clock;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        Entry entry = resolve(header, claims, null);
+        return entry != null ? entry.getKey() : null;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        Entry entry = resolve(header, null, plaintext);
+        return entry != null ? entry.getKey() : null;
+    }
+
+    /**
+     * Discards the cached keys for the specified key id, for all algorithms.
+     *
+     * @param kid the key id of the keys to discard
+     */
+    public void invalidate(String kid) {
+        Assert.notNull(kid, "kid cannot be null.");
+        for (Iterator<CacheKey> i = entries.keySet().iterator(); i.hasNext(); ) {
+            if (kid.equals(i.next().kid)) {
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all cached keys.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the cached entry for the specified JWS, resolving and caching its key with the delegate first if
+     * necessary, or {@code null} if the delegate did not return a key.  Exactly one of {@code claims} and
+     * {@code plaintext} is non-null.
+     */
+    Entry resolve(JwsHeader header, Claims claims, String plaintext) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            Key key = delegateResolve(header, claims, plaintext);
+            return key != null ? new Entry(key, Long.MAX_VALUE) : null;
+        }
+
+        long now = clock.now().getTime();
+        CacheKey cacheKey = new CacheKey(kid, header.getAlgorithm());
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && now < entry.expiresAt) {
+            hitCount.incrementAndGet();
+            return entry;
+        }
+        missCount.incrementAndGet();
+
+        Key key = delegateResolve(header, claims, plaintext);
+        if (key == null) {
+            return null;
+        }
+        entry = new Entry(key, now + ttlMillis);
+        if (entries.size() >= maxSize && !entries.containsKey(cacheKey)) {
+            entries.clear();
+        }
+        entries.put(cacheKey, entry);
+        return entry;
+    }
+
+    private Key delegateResolve(JwsHeader header, Claims claims, String plaintext) {
+        return claims != null ? delegate.resolveSigningKey(header, claims) :
+            delegate.resolveSigningKey(header, plaintext);
+    }
+
+    /**
+     * A resolved key together with the validator a parser created for it.
+     */
+    static final class Entry {
+
+        private final Key key;
+
+        private final long expiresAt;
+
+        private volatile ValidatorHolder validator;
+
+        private Entry(Key key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        Key getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the validator retained for the specified parser configuration, or {@code null} if there is none.
+         */
+        JwtSignatureValidator getValidator(Decoder<String, byte[]> base64UrlDecoder, boolean pooled) {
+            ValidatorHolder holder = this.validator;
+            if (holder != null && holder.base64UrlDecoder == base64UrlDecoder && holder.pooled == pooled) {
+                return holder.validator;
+            }
+            return null;
+        }
+
+        void setValidator(JwtSignatureValidator validator, Decoder<String, byte[]> base64UrlDecoder, boolean pooled) {
+            this.validator = new ValidatorHolder(validator, base64UrlDecoder, pooled);
+        }
+    }
+
+    private static final class ValidatorHolder {
+
+        private final JwtSignatureValidator validator;
+        private final Decoder<String, byte[]> base64UrlDecoder;
+        private final boolean pooled;
+
+        ValidatorHolder(JwtSignatureValidator validator, Decoder<String, byte[]> base64UrlDecoder, boolean pooled) {
+            this.validator = validator;
+            this.base64UrlDecoder = base64UrlDecoder;
+            this.pooled = pooled;
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final String kid;
+        private final String alg;
+
+        CacheKey(String kid, String alg) {
+            this.kid = kid;
+            this.alg = alg;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kid.hashCode() + (alg != null ? alg.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return kid.equals(other.kid) && (alg != null ? alg.equals(other.alg) : other.alg == null);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.io.BufferEncoder;
+import io.jsonwebtoken.io.IOException;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A destination that a compact JWT is written to exactly once, either in pieces as it is assembled, or as a whole
+ * if it was built as a {@code String}.  The length of the JWT is announced by {@link #begin(int)} before any of it is
+ * written, so that implementations can allocate or verify their capacity up front.  Compact JWTs are US-ASCII, so
+ * every character is written as a single byte to byte-oriented destinations.
+ *
+ * @since 0.11.0
+ */
+abstract class CompactOutput {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    private int length;
+
+    static CompactOutput of(Appendable out) {
+        return out instanceof StringBuilder ? new StringBuilderOutput((StringBuilder) out) : new AppendableOutput(out);
+    }
+
+    static CompactOutput of(ByteBuffer out) {
+        return new ByteBufferOutput(out);
+    }
+
+    static CompactOutput of(OutputStream out) {
+        return new OutputStreamOutput(out);
+    }
+
+    /**
+     * Returns the number of characters of the JWT, once {@link #begin(int)} was called.
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Starts writing a JWT of the specified number of characters.
+     */
+    void begin(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Writes the first {@code length} US-ASCII bytes of the specified array.
+     */
+    abstract void write(byte[] ascii, int length);
+
+    abstract void write(char c);
+
+    /**
+     * Writes the encoded form of the specified bytes.
+     */
+    abstract void encode(BufferEncoder encoder, byte[] bytes);
+
+    /**
+     * Writes an entire JWT that was built as a {@code String}, instead of calling {@link #begin(int)}, the write
+     * methods and {@link #end()}.
+     */
+    void write(String jwt) {
+        byte[] ascii = jwt.getBytes(US_ASCII);
+        begin(ascii.length);
+        write(ascii, ascii.length);
+        end();
+    }
+
+    /**
+     * Completes writing the JWT, after all of it was written.
+     */
+    void end() {
+    }
+
+    /**
+     * Collects the JWT in a pre-sized {@code char[]} from which the resulting {@code String} is created.
+     */
+    static class CharArrayOutput extends CompactOutput {
+
+        char[] chars;
+
+        String string;
+
+        private int position;
+
+        @Override
+        void begin(int length) {
+            super.begin(length);
+            this.chars = new char[length];
+        }
+
+        @Override
+        void write(byte[] ascii, int length) {
+            for (int i = 0; i < length; i++) {
+                chars[position++] = (char) ascii[i]; // base64url output is ASCII, so widening each byte is exact
+            }
+        }
+
+        @Override
+        void write(char c) {
+            chars[position++] = c;
+        }
+
+        @Override
+        void encode(BufferEncoder encoder, byte[] bytes) {
+            position += encoder.encode(bytes, 0, bytes.length, chars, position);
+        }
+
+        @Override
+        void write(String jwt) {
+            super.begin(jwt.length());
+            this.string = jwt;
+            end();
+        }
+
+        @Override
+        public String toString() {
+            return string != null ? string : new String(chars);
+        }
+    }
+
+    /**
+     * Collects the JWT in a {@code char[]} that is appended to an arbitrary {@link Appendable} as a whole.
+     */
+    private static final class AppendableOutput extends CharArrayOutput {
+
+        private final Appendable out;
+
+        AppendableOutput(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        void end() {
+            try {
+                if (string != null) {
+                    out.append(string);
+                } else if (out instanceof Writer) {
+                    ((Writer) out).write(chars); // Writer.append(CharSequence) would create a String first
+                } else {
+                    out.append(CharBuffer.wrap(chars));
+                }
+            } catch (java.io.IOException e) {
+                throw new IOException("Unable to write JWT: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class StringBuilderOutput extends CompactOutput {
+
+        private final StringBuilder out;
+
+        StringBuilderOutput(StringBuilder out) {
+            this.out = out;
+        }
+
+        @Override
+        void begin(int length) {
+            super.begin(length);
+            out.ensureCapacity(out.length() + length);
+        }
+
+        @Override
+        void write(byte[] ascii, int length) {
+            for (int i = 0; i < length; i++) {
+                out.append((char) ascii[i]);
+            }
+        }
+
+        @Override
+        void write(char c) {
+            out.append(c);
+        }
+
+        @Override
+        void encode(BufferEncoder encoder, byte[] bytes) {
+            encoder.encode(bytes, 0, bytes.length, out);
+        }
+
+        @Override
+        void write(String jwt) {
+            super.begin(jwt.length());
+            out.append(jwt);
+        }
+    }
+
+    /**
+     * Writes the JWT at the current position of a buffer, which must have enough space remaining for all of it:
+     * otherwise nothing is written.
+     */
+    private static class ByteBufferOutput extends CompactOutput {
+
+        ByteBuffer out;
+
+        ByteBufferOutput(ByteBuffer out) {
+            this.out = out;
+        }
+
+        @Override
+        void begin(int length) {
+            super.begin(length);
+            if (out.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+        }
+
+        @Override
+        void write(byte[] ascii, int length) {
+            out.put(ascii, 0, length);
+        }
+
+        @Override
+        void write(char c) {
+            out.put((byte) c);
+        }
+
+        @Override
+        void encode(BufferEncoder encoder, byte[] bytes) {
+            encoder.encode(bytes, 0, bytes.length, out);
+        }
+    }
+
+    /**
+     * Collects the JWT in a pre-sized byte array that is written to the stream with a single call.
+     */
+    private static final class OutputStreamOutput extends ByteBufferOutput {
+
+        private final OutputStream stream;
+
+        OutputStreamOutput(OutputStream stream) {
+            super(null);
+            this.stream = stream;
+        }
+
+        @Override
+        void begin(int length) {
+            this.out = ByteBuffer.allocate(length);
+            super.begin(length);
+        }
+
+        @Override
+        void write(String jwt) {
+            this.out = ByteBuffer.wrap(jwt.getBytes(US_ASCII));
+            super.begin(out.remaining());
+            // cast: JDK 9+ compilers would otherwise link the covariant ByteBuffer.position(int), absent on Java 7/8
+            ((Buffer) out).position(out.limit());
+            end();
+        }
+
+        @Override
+        void end() {
+            try {
+                stream.write(out.array(), 0, out.position());
+            } catch (java.io.IOException e) {
+                throw new IOException("Unable to write JWT: " + e.getMessage(), e);
+            }
+        }
+    }
+}
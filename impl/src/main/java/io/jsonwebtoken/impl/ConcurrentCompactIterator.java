@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.JwtTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The iterator returned by {@link JwtTemplate#compactAll(Iterator, Executor, int, boolean)}.  Claim sets are read from
+ * the source iterator by the consuming thread, which submits a task building each JWT to the executor until
+ * {@code maxPending} tasks are outstanding.  Every JWT returned frees a slot for the next claim set.
+ *
+ * <p>Ordered iteration waits for the oldest outstanding task, unordered iteration for whichever task completes
+ * first: tasks add themselves to a completion queue when they are done.</p>
+ *
+ * @since 0.11.0
+ */
+final class ConcurrentCompactIterator implements Iterator<String> {
+
+    private final JwtTemplate template;
+
+    private final Iterator<? extends Map<String, ?>> claims;
+
+    private final Executor executor;
+
+    private final int maxPending;
+
+    /**
+     * Outstanding tasks in submission order, or {@code null} for unordered iteration.
+     */
+    private final Queue<Future<String>> submitted;
+
+    /**
+     * Tasks in completion order, or {@code null} for ordered iteration.
+     */
+    private final BlockingQueue<Future<String>> completed;
+
+    private int pending;
+
+    /**
+     * The task the executor rejected last, which is submitted again before any other claim set is consumed.
+     */
+    private Task rejected;
+
+    ConcurrentCompactIterator(JwtTemplate template, Iterator<? extends Map<String, ?>> claims, Executor executor,
+                              int maxPending, boolean ordered) {
+        this.template = template;
+        this.claims = claims;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.submitted = ordered ? new ArrayDeque<Future<String>>(maxPending) : null;
+        this.completed = ordered ? null : new LinkedBlockingQueue<Future<String>>();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending > 0 || rejected != null || claims.hasNext();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        submit();
+
+        Future<String> task;
+        try {
+            task = submitted != null ? awaitOldest() : completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a JWT to be built.", e);
+        }
+        pending--;
+        submit(); //keep the executor busy while the caller handles this JWT
+
+        return getDone(task);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported.");
+    }
+
+    /**
+     * Waits for the oldest outstanding task and only then removes it, so that an interrupted caller may retry.
+     */
+    private Future<String> awaitOldest() throws InterruptedException {
+        try {
+            submitted.peek().get();
+        } catch (ExecutionException e) { //the task is done: its failure is thrown in place of its JWT
+        }
+        return submitted.remove();
+    }
+
+    /**
+     * Submits tasks until {@code maxPending} are outstanding.  A task rejected by the executor, for example because
+     * its queue is full, is retried once an outstanding task has been returned; if none is outstanding, it runs on
+     * the calling thread so that iteration always makes progress.
+     */
+    private void submit() {
+        while (pending < maxPending && (rejected != null || claims.hasNext())) {
+            Task task = rejected != null ? rejected : new Task(claims.next());
+            rejected = null;
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (pending > 0) {
+                    rejected = task;
+                    return;
+                }
+                task.run();
+            }
+            if (submitted != null) {
+                submitted.add(task);
+            }
+            pending++;
+        }
+    }
+
+    private static String getDone(Future<String> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) { //cannot happen, the task is done
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a JWT to be built.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Unable to build JWT: " + cause.getMessage(), cause);
+        }
+    }
+
+    private final class Task extends FutureTask<String> {
+
+        Task(final Map<String, ?> claims) {
+            super(new Callable<String>() {
+                @Override
+                public String call() {
+                    return template.compact(claims);
+                }
+            });
+        }
+
+        @Override
+        protected void done() {
+            if (completed != null) {
+                completed.add(this);
+            }
+        }
+    }
+}
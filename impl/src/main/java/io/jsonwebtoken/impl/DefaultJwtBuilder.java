@@ -20,11 +20,17 @@ import io.jsonwebtoken.CompressionCodec;
 import io.jsonwebtoken.Header;
 import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtMetrics.Stage;
+import io.jsonwebtoken.JwtMetricsListener;
 import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtTemplate;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.impl.crypto.DefaultJwtSigner;
+import io.jsonwebtoken.impl.crypto.DefaultSignerFactory;
 import io.jsonwebtoken.impl.crypto.JwtSigner;
+import io.jsonwebtoken.impl.crypto.JwtSignerRegistry;
 import io.jsonwebtoken.impl.io.InstanceLocator;
+import io.jsonwebtoken.io.BufferEncoder;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoder;
 import io.jsonwebtoken.io.Encoders;
@@ -38,6 +44,8 @@ import io.jsonwebtoken.security.InvalidKeyException;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
@@ -57,6 +65,10 @@ public class DefaultJwtBuilder implements JwtBuilder {
 
     private CompressionCodec compressionCodec;
 
+    private boolean cryptoEnginePooling = false;
+
+    private JwtMetricsListener metricsListener;
+
     @Override
     public JwtBuilder serializeToJsonWith(Serializer<Map<String,?>> serializer) {
         Assert.notNull(serializer, "Serializer cannot be null.");
@@ -71,6 +83,18 @@ public class DefaultJwtBuilder implements JwtBuilder {
         return this;
     }
 
+    @Override
+    public JwtBuilder setCryptoEnginePooling(boolean enabled) {
+        this.cryptoEnginePooling = enabled;
+        return this;
+    }
+
+    @Override
+    public JwtBuilder setMetricsListener(JwtMetricsListener listener) {
+        this.metricsListener = listener;
+        return this;
+    }
+
     @Override
     public JwtBuilder setHeader(Header header) {
         this.header = header;
@@ -293,13 +317,58 @@ public class DefaultJwtBuilder implements JwtBuilder {
 
     @Override
     public String compact() {
+        CompactOutput.CharArrayOutput out = new CompactOutput.CharArrayOutput();
+        compactTo(out);
+        return out.toString();
+    }
 
-        if (this.serializer == null) {
-            //try to find one based on the runtime environment:
-            InstanceLocator<Serializer<Map<String,?>>> locator =
-                Classes.newInstance("io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator");
-            this.serializer = locator.getInstance();
+    @Override
+    public int compactTo(Appendable out) {
+        Assert.notNull(out, "Appendable cannot be null.");
+        return compactTo(CompactOutput.of(out));
+    }
+
+    @Override
+    public int compactTo(ByteBuffer out) {
+        Assert.notNull(out, "ByteBuffer cannot be null.");
+        return compactTo(CompactOutput.of(out));
+    }
+
+    @Override
+    public int compactTo(OutputStream out) {
+        Assert.notNull(out, "OutputStream cannot be null.");
+        return compactTo(CompactOutput.of(out));
+    }
+
+    private int compactTo(CompactOutput out) {
+        JwtMetricsListener listener = this.metricsListener;
+        if (listener == null) {
+            compact(null, out);
+            return out.getLength();
+        }
+        JwtMetricsRecorder metrics = new JwtMetricsRecorder();
+        try {
+            compact(metrics, out);
+        } catch (RuntimeException e) {
+            metrics.complete(e);
+            listener.onBuild(metrics);
+            throw e;
         }
+        metrics.setTokenLength(out.getLength());
+        metrics.complete(null);
+        listener.onBuild(metrics);
+        return out.getLength();
+    }
+
+    /**
+     * Builds the JWT and writes it to {@code out}, recording the time spent in each stage if {@code metrics} is not
+     * {@code null}.
+     *
+     * @since 0.11.0
+     */
+    private void compact(JwtMetricsRecorder metrics, CompactOutput out) {
+
+        ensureSerializer();
 
         if (payload == null && Collections.isEmpty(claims)) {
             throw new IllegalStateException("Either 'payload' or 'claims' must be specified.");
@@ -309,6 +378,81 @@ public class DefaultJwtBuilder implements JwtBuilder {
             throw new IllegalStateException("Both 'payload' and 'claims' cannot both be specified. Choose either one.");
         }
 
+        JwsHeader jwsHeader = prepareHeader();
+
+        if (metrics != null) {
+            metrics.setAlgorithm(key != null ? algorithm : SignatureAlgorithm.NONE);
+        }
+
+        long t = JwtMetricsRecorder.mark(metrics);
+        byte[] headerBytes = serializeHeader(jwsHeader);
+
+        byte[] bytes;
+        try {
+            bytes = this.payload != null ? payload.getBytes(Strings.UTF_8) : toJson(claims);
+        } catch (SerializationException e) {
+            throw new IllegalArgumentException("Unable to serialize claims object to json: " + e.getMessage(), e);
+        }
+        JwtMetricsRecorder.record(metrics, Stage.SERIALIZE, t);
+
+        if (compressionCodec != null) {
+            t = JwtMetricsRecorder.mark(metrics);
+            bytes = compressionCodec.compress(bytes);
+            JwtMetricsRecorder.record(metrics, Stage.COMPRESS, t);
+        }
+
+        JwtSigner signer = null;
+        if (key != null) { //jwt must be signed:
+            t = JwtMetricsRecorder.mark(metrics);
+            signer = createSigner(algorithm, key);
+            JwtMetricsRecorder.record(metrics, Stage.SIGNATURE_CREATION, t);
+        }
+
+        // only an exact DefaultJwtSigner: a subclass may override sign(String), which computeSignature would bypass
+        if (base64UrlEncoder instanceof BufferEncoder &&
+            (signer == null || signer.getClass() == DefaultJwtSigner.class)) {
+            compact((BufferEncoder) base64UrlEncoder, headerBytes, false, bytes, (DefaultJwtSigner) signer, metrics,
+                out);
+            return;
+        }
+
+        t = JwtMetricsRecorder.mark(metrics);
+        String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
+        String base64UrlEncodedBody = base64UrlEncoder.encode(bytes);
+        JwtMetricsRecorder.record(metrics, Stage.BASE64_ENCODE, t);
+
+        String jwt = base64UrlEncodedHeader + JwtParser.SEPARATOR_CHAR + base64UrlEncodedBody;
+
+        if (signer != null) {
+
+            t = JwtMetricsRecorder.mark(metrics);
+            String base64UrlSignature = signer.sign(jwt);
+            JwtMetricsRecorder.record(metrics, Stage.SIGNATURE_CREATION, t);
+
+            jwt += JwtParser.SEPARATOR_CHAR + base64UrlSignature;
+        } else {
+            // no signature (plaintext), but must terminate w/ a period, see
+            // https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-25#section-6.1
+            jwt += JwtParser.SEPARATOR_CHAR;
+        }
+
+        out.write(jwt);
+    }
+
+    private void ensureSerializer() {
+        if (this.serializer == null) {
+            //try to find one based on the runtime environment:
+            InstanceLocator<Serializer<Map<String,?>>> locator =
+                Classes.newInstance("io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator");
+            this.serializer = locator.getInstance();
+        }
+    }
+
+    /**
+     * Returns the header to serialize, with the {@code alg} and {@code zip} parameters set as configured.
+     */
+    private JwsHeader prepareHeader() {
+
         Header header = ensureHeader();
 
         JwsHeader jwsHeader;
@@ -330,44 +474,113 @@ public class DefaultJwtBuilder implements JwtBuilder {
             jwsHeader.setCompressionAlgorithm(compressionCodec.getAlgorithmName());
         }
 
-        String base64UrlEncodedHeader = base64UrlEncode(jwsHeader, "Unable to serialize header to json.");
+        return jwsHeader;
+    }
 
-        byte[] bytes;
+    private byte[] serializeHeader(JwsHeader jwsHeader) {
         try {
-            bytes = this.payload != null ? payload.getBytes(Strings.UTF_8) : toJson(claims);
+            return toJson(jwsHeader);
         } catch (SerializationException e) {
-            throw new IllegalArgumentException("Unable to serialize claims object to json: " + e.getMessage(), e);
+            throw new IllegalStateException("Unable to serialize header to json.", e);
         }
+    }
 
-        if (compressionCodec != null) {
-            bytes = compressionCodec.compress(bytes);
+    @Override
+    public JwtTemplate toTemplate() {
+
+        if (payload != null) {
+            throw new IllegalStateException("A template cannot be created for a plaintext 'payload'. Specify claims instead.");
         }
 
-        String base64UrlEncodedBody = base64UrlEncoder.encode(bytes);
+        ensureSerializer();
 
-        String jwt = base64UrlEncodedHeader + JwtParser.SEPARATOR_CHAR + base64UrlEncodedBody;
+        JwsHeader jwsHeader = prepareHeader();
+        byte[] headerBytes = serializeHeader(jwsHeader);
+        JwtSigner signer = key != null ? createSigner(algorithm, key) : null;
 
-        if (key != null) { //jwt must be signed:
+        return new DefaultJwtTemplate(headerBytes, claims, key != null ? algorithm : SignatureAlgorithm.NONE, signer,
+            serializer, base64UrlEncoder, compressionCodec, metricsListener);
+    }
 
-            JwtSigner signer = createSigner(algorithm, key);
+    /**
+     * Assembles the compact JWT as a <code>String</code> from a single pre-sized <code>char[]</code>.
+     *
+     * @see #compact(BufferEncoder, byte[], boolean, byte[], DefaultJwtSigner, JwtMetricsRecorder, CompactOutput)
+     * @since 0.11.0
+     */
+    static String compact(BufferEncoder encoder, byte[] header, boolean headerEncoded, byte[] payloadBytes,
+                          DefaultJwtSigner signer, JwtMetricsRecorder metrics) {
+        CompactOutput.CharArrayOutput out = new CompactOutput.CharArrayOutput();
+        compact(encoder, header, headerEncoded, payloadBytes, signer, metrics, out);
+        return out.toString();
+    }
 
-            String base64UrlSignature = signer.sign(jwt);
+    /**
+     * Assembles the compact JWT without intermediate strings: the header and payload are encoded once into an
+     * exact-size US-ASCII signing input that is handed to the signer as is, and then written to {@code out} followed
+     * by the encoded signature.  An unsigned JWT is encoded directly into {@code out}.
+     *
+     * @param header        the serialized header, or its US-ASCII base64url encoding if {@code headerEncoded}
+     * @param headerEncoded whether {@code header} is already base64url-encoded
+     * @param signer        the signer, or {@code null} for an unsigned JWT
+     * @since 0.11.0
+     */
+    static void compact(BufferEncoder encoder, byte[] header, boolean headerEncoded, byte[] payloadBytes,
+                        DefaultJwtSigner signer, JwtMetricsRecorder metrics, CompactOutput out) {
 
-            jwt += JwtParser.SEPARATOR_CHAR + base64UrlSignature;
-        } else {
+        long t = JwtMetricsRecorder.mark(metrics);
+        int headerLength = headerEncoded ? header.length : encoder.getEncodedLength(header.length);
+        int signingInputLength = headerLength + 1 + encoder.getEncodedLength(payloadBytes.length);
+
+        if (signer == null) {
             // no signature (plaintext), but must terminate w/ a period, see
             // https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-25#section-6.1
-            jwt += JwtParser.SEPARATOR_CHAR;
+            out.begin(signingInputLength + 1);
+            if (headerEncoded) {
+                out.write(header, header.length);
+            } else {
+                out.encode(encoder, header);
+            }
+            out.write(JwtParser.SEPARATOR_CHAR);
+            out.encode(encoder, payloadBytes);
+            out.write(JwtParser.SEPARATOR_CHAR);
+            out.end();
+            JwtMetricsRecorder.record(metrics, Stage.BASE64_ENCODE, t);
+            return;
         }
 
-        return jwt;
+        ByteBuffer signingInput = ByteBuffer.allocate(signingInputLength);
+        if (headerEncoded) {
+            signingInput.put(header);
+        } else {
+            encoder.encode(header, 0, header.length, signingInput);
+        }
+        signingInput.put((byte) JwtParser.SEPARATOR_CHAR);
+        encoder.encode(payloadBytes, 0, payloadBytes.length, signingInput);
+        byte[] ascii = signingInput.array();
+        JwtMetricsRecorder.record(metrics, Stage.BASE64_ENCODE, t);
+
+        t = JwtMetricsRecorder.mark(metrics);
+        byte[] signature = signer.computeSignature(ascii);
+        JwtMetricsRecorder.record(metrics, Stage.SIGNATURE_CREATION, t);
+
+        t = JwtMetricsRecorder.mark(metrics);
+        out.begin(signingInputLength + 1 + encoder.getEncodedLength(signature.length));
+        out.write(ascii, signingInputLength);
+        out.write(JwtParser.SEPARATOR_CHAR);
+        out.encode(encoder, signature);
+        out.end();
+        JwtMetricsRecorder.record(metrics, Stage.BASE64_ENCODE, t);
     }
 
     /*
      * @since 0.5 mostly to allow testing overrides
      */
     protected JwtSigner createSigner(SignatureAlgorithm alg, Key key) {
-        return new DefaultJwtSigner(alg, key, base64UrlEncoder);
+        if (cryptoEnginePooling) {
+            return JwtSignerRegistry.POOLED.getSigner(alg, key, base64UrlEncoder);
+        }
+        return new DefaultJwtSigner(DefaultSignerFactory.INSTANCE, alg, key, base64UrlEncoder);
     }
 
     @Deprecated // remove before 1.0 - call the serializer and base64UrlEncoder directly
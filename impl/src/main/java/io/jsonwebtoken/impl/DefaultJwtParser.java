@@ -15,6 +15,8 @@
  */
 package io.jsonwebtoken.impl;
 
+import io.jsonwebtoken.AsyncSigningKeyResolver;
+import io.jsonwebtoken.Callback;
 import io.jsonwebtoken.ClaimJwtException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Clock;
@@ -29,16 +31,22 @@ import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwt;
 import io.jsonwebtoken.JwtHandler;
 import io.jsonwebtoken.JwtHandlerAdapter;
+import io.jsonwebtoken.JwtMetrics.Stage;
+import io.jsonwebtoken.JwtMetricsListener;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.MissingClaimException;
+import io.jsonwebtoken.ParseResult;
 import io.jsonwebtoken.PrematureJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.TokenCacheStats;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver;
 import io.jsonwebtoken.impl.crypto.DefaultJwtSignatureValidator;
+import io.jsonwebtoken.impl.crypto.DefaultSignatureValidatorFactory;
 import io.jsonwebtoken.impl.crypto.JwtSignatureValidator;
+import io.jsonwebtoken.impl.crypto.SignatureValidatorFactory;
 import io.jsonwebtoken.impl.io.InstanceLocator;
 import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Decoders;
@@ -55,20 +63,41 @@ import io.jsonwebtoken.security.WeakKeyException;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.security.Key;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @SuppressWarnings("unchecked")
 public class DefaultJwtParser implements JwtParser {
 
     private static final int MILLISECONDS_PER_SECOND = 1000;
 
+    /**
+     * Claims extracted up front by {@link LazyClaims} so that common claim accessors and the parser's own validation
+     * do not require the full payload to be deserialized.
+     *
+     * @since 0.11.0
+     */
+    private static final Set<String> REGISTERED_CLAIM_NAMES = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList(Claims.ISSUER, Claims.SUBJECT, Claims.AUDIENCE, Claims.EXPIRATION,
+            Claims.NOT_BEFORE, Claims.ISSUED_AT, Claims.ID)));
+
     private byte[] keyBytes;
 
     private Key key;
 
     private SigningKeyResolver signingKeyResolver;
 
+    private AsyncSigningKeyResolver asyncSigningKeyResolver;
+
     private CompressionCodecResolver compressionCodecResolver = new DefaultCompressionCodecResolver();
 
     private Decoder<String, byte[]> base64UrlDecoder = Decoders.BASE64URL;
@@ -81,10 +110,135 @@ public class DefaultJwtParser implements JwtParser {
 
     private long allowedClockSkewMillis = 0;
 
+    private boolean cryptoEnginePooling = false;
+
+    private boolean lazyDeserialization = false;
+
+    /**
+     * Successfully verified JWS results, or {@code null} if result caching is disabled.
+     */
+    private TokenCache<Jws<?>> verifiedTokenCache;
+
+    /**
+     * Messages of signature verification failures, or {@code null} if rejected tokens are not cached.
+     */
+    private TokenCache<String> rejectedTokenCache;
+
+    /**
+     * Parsed and resolved JWS headers indexed by their encoded header segment, or {@code null} if header caching is
+     * disabled.
+     */
+    private HeaderCache headerCache;
+
+    /**
+     * The listener to report the metrics of every parsed JWT to, or {@code null} if nothing is measured.
+     */
+    private JwtMetricsListener metricsListener;
+
+    /**
+     * HMAC keys pre-computed from {@link #keyBytes}, indexed by algorithm.  Only populated for compiled (snapshot)
+     * parsers, {@code null} otherwise.
+     */
+    private Map<SignatureAlgorithm, Key> hmacKeys;
+
+    /**
+     * {@code true} only for compiled (snapshot) parsers where the key configuration has been validated once up front.
+     */
+    private boolean keyConfigurationAsserted = false;
+
+    public DefaultJwtParser() {
+    }
+
+    /**
+     * Creates a fully resolved snapshot of the specified parser's current configuration.  The resulting instance is
+     * never mutated after construction and is therefore safe to use concurrently as long as it is safely published,
+     * which {@link ImmutableJwtParser} guarantees by retaining it in a {@code final} field.
+     *
+     * @param src the parser configuration to snapshot
+     * @since 0.11.0
+     */
+    DefaultJwtParser(DefaultJwtParser src) {
+        Assert.notNull(src, "source JwtParser cannot be null.");
+        assertKeyConfiguration(src.key, src.keyBytes, src.signingKeyResolver);
+        this.key = src.key;
+        if (!Objects.isEmpty(src.keyBytes)) {
+            this.keyBytes = src.keyBytes.clone();
+            this.hmacKeys = createHmacKeys(this.keyBytes);
+        }
+        this.keyConfigurationAsserted = true;
+        this.signingKeyResolver = src.signingKeyResolver;
+        this.asyncSigningKeyResolver = src.asyncSigningKeyResolver;
+        this.compressionCodecResolver = src.compressionCodecResolver;
+        this.base64UrlDecoder = src.base64UrlDecoder;
+        this.deserializer = src.deserializer != null ? src.deserializer : locateDeserializer();
+        this.expectedClaims = new DefaultClaims(src.expectedClaims);
+        this.clock = src.clock;
+        this.allowedClockSkewMillis = src.allowedClockSkewMillis;
+        this.cryptoEnginePooling = src.cryptoEnginePooling;
+        this.lazyDeserialization = src.lazyDeserialization;
+        this.verifiedTokenCache = emptyCopy(src.verifiedTokenCache);
+        this.rejectedTokenCache = emptyCopy(src.rejectedTokenCache);
+        this.headerCache = src.headerCache != null ? new HeaderCache(src.headerCache.getMaxSize()) : null;
+        this.metricsListener = src.metricsListener;
+    }
+
+    private static <V> TokenCache<V> emptyCopy(TokenCache<V> cache) {
+        return cache != null ? new TokenCache<V>(cache.getMaxSize(), cache.getTtlMillis()) : null;
+    }
+
+    /**
+     * Discards cached parse results that might not be reproducible with a changed key or decoding configuration.
+     * Claim expectations, the clock and the allowed clock skew are re-evaluated for every cache hit, so changing them
+     * does not require this.
+     */
+    private void clearTokenCaches() {
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.clear();
+        }
+        if (rejectedTokenCache != null) {
+            rejectedTokenCache.clear();
+        }
+        if (headerCache != null) {
+            headerCache.clear();
+        }
+    }
+
+    private static Map<SignatureAlgorithm, Key> createHmacKeys(byte[] keyBytes) {
+        Map<SignatureAlgorithm, Key> keys = new EnumMap<>(SignatureAlgorithm.class);
+        for (SignatureAlgorithm alg : SignatureAlgorithm.values()) {
+            if (alg.isHmac()) {
+                keys.put(alg, new SecretKeySpec(keyBytes, alg.getJcaName()));
+            }
+        }
+        return keys;
+    }
+
+    private static Deserializer<Map<String, ?>> locateDeserializer() {
+        //try to find one based on the runtime environment:
+        InstanceLocator<Deserializer<Map<String, ?>>> locator =
+            Classes.newInstance("io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator");
+        return locator.getInstance();
+    }
+
+    private static void assertKeyConfiguration(Key key, byte[] keyBytes, SigningKeyResolver signingKeyResolver) {
+        if (key != null && keyBytes != null) {
+            throw new IllegalStateException("A key object and key bytes cannot both be specified. Choose either.");
+        } else if ((key != null || keyBytes != null) && signingKeyResolver != null) {
+            String object = key != null ? "a key object" : "key bytes";
+            throw new IllegalStateException("A signing key resolver and " + object + " cannot both be specified. Choose either.");
+        }
+    }
+
+    @Override
+    public JwtParser compile() {
+        return new ImmutableJwtParser(this);
+    }
+
     @Override
     public JwtParser deserializeJsonWith(Deserializer<Map<String, ?>> deserializer) {
         Assert.notNull(deserializer, "deserializer cannot be null.");
         this.deserializer = deserializer;
+        clearTokenCaches();
         return this;
     }
 
@@ -92,6 +246,7 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser base64UrlDecodeWith(Decoder<String, byte[]> base64UrlDecoder) {
         Assert.notNull(base64UrlDecoder, "base64UrlDecoder cannot be null.");
         this.base64UrlDecoder = base64UrlDecoder;
+        clearTokenCaches();
         return this;
     }
 
@@ -158,10 +313,75 @@ public class DefaultJwtParser implements JwtParser {
         return this;
     }
 
+    @Override
+    public JwtParser setCryptoEnginePooling(boolean enabled) {
+        this.cryptoEnginePooling = enabled;
+        return this;
+    }
+
+    @Override
+    public JwtParser setLazyDeserialization(boolean enabled) {
+        this.lazyDeserialization = enabled;
+        return this;
+    }
+
+    @Override
+    public JwtParser setVerifiedTokenCache(int maxSize, long ttlSeconds) {
+        Assert.isTrue(maxSize >= 0, "maxSize cannot be negative.");
+        if (maxSize == 0) {
+            this.verifiedTokenCache = null;
+        } else {
+            Assert.isTrue(ttlSeconds > 0, "ttlSeconds must be greater than zero.");
+            this.verifiedTokenCache = new TokenCache<>(maxSize, ttlSeconds * MILLISECONDS_PER_SECOND);
+        }
+        return this;
+    }
+
+    @Override
+    public JwtParser setRejectedTokenCache(int maxSize, long ttlSeconds) {
+        Assert.isTrue(maxSize >= 0, "maxSize cannot be negative.");
+        if (maxSize == 0) {
+            this.rejectedTokenCache = null;
+        } else {
+            Assert.isTrue(ttlSeconds > 0, "ttlSeconds must be greater than zero.");
+            this.rejectedTokenCache = new TokenCache<>(maxSize, ttlSeconds * MILLISECONDS_PER_SECOND);
+        }
+        return this;
+    }
+
+    @Override
+    public JwtParser setHeaderCache(int maxSize) {
+        Assert.isTrue(maxSize >= 0, "maxSize cannot be negative.");
+        this.headerCache = maxSize > 0 ? new HeaderCache(maxSize) : null;
+        return this;
+    }
+
+    @Override
+    public TokenCacheStats getHeaderCacheStats() {
+        return headerCache;
+    }
+
+    @Override
+    public TokenCacheStats getVerifiedTokenCacheStats() {
+        return verifiedTokenCache;
+    }
+
+    @Override
+    public TokenCacheStats getRejectedTokenCacheStats() {
+        return rejectedTokenCache;
+    }
+
+    @Override
+    public JwtParser setMetricsListener(JwtMetricsListener listener) {
+        this.metricsListener = listener;
+        return this;
+    }
+
     @Override
     public JwtParser setSigningKey(byte[] key) {
         Assert.notEmpty(key, "signing key cannot be null or empty.");
         this.keyBytes = key;
+        clearTokenCaches();
         return this;
     }
 
@@ -169,6 +389,7 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser setSigningKey(String base64EncodedSecretKey) {
         Assert.hasText(base64EncodedSecretKey, "signing key cannot be null or empty.");
         this.keyBytes = Decoders.BASE64.decode(base64EncodedSecretKey);
+        clearTokenCaches();
         return this;
     }
 
@@ -176,6 +397,7 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser setSigningKey(Key key) {
         Assert.notNull(key, "signing key cannot be null.");
         this.key = key;
+        clearTokenCaches();
         return this;
     }
 
@@ -183,6 +405,15 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser setSigningKeyResolver(SigningKeyResolver signingKeyResolver) {
         Assert.notNull(signingKeyResolver, "SigningKeyResolver cannot be null.");
         this.signingKeyResolver = signingKeyResolver;
+        clearTokenCaches();
+        return this;
+    }
+
+    @Override
+    public JwtParser setAsyncSigningKeyResolver(AsyncSigningKeyResolver asyncSigningKeyResolver) {
+        Assert.notNull(asyncSigningKeyResolver, "AsyncSigningKeyResolver cannot be null.");
+        this.asyncSigningKeyResolver = asyncSigningKeyResolver;
+        clearTokenCaches();
         return this;
     }
 
@@ -190,6 +421,7 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser setCompressionCodecResolver(CompressionCodecResolver compressionCodecResolver) {
         Assert.notNull(compressionCodecResolver, "compressionCodecResolver cannot be null.");
         this.compressionCodecResolver = compressionCodecResolver;
+        clearTokenCaches();
         return this;
     }
 
@@ -219,53 +451,105 @@ public class DefaultJwtParser implements JwtParser {
 
     @Override
     public Jwt parse(String jwt) throws ExpiredJwtException, MalformedJwtException, SignatureException {
-
-        if (this.deserializer == null) {
-            //try to find one based on the runtime environment:
-            InstanceLocator<Deserializer<Map<String, ?>>> locator =
-                Classes.newInstance("io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator");
-            this.deserializer = locator.getInstance();
+        JwtMetricsListener listener = this.metricsListener;
+        if (listener == null) {
+            return decodeAndVerify(jwt, null);
         }
+        JwtMetricsRecorder metrics = newMetricsRecorder(jwt);
+        Jwt result;
+        try {
+            result = decodeAndVerify(jwt, metrics);
+        } catch (RuntimeException e) {
+            metrics.complete(e);
+            listener.onParse(metrics);
+            throw e;
+        }
+        metrics.complete(null);
+        listener.onParse(metrics);
+        return result;
+    }
 
-        Assert.hasText(jwt, "JWT String argument cannot be null or empty.");
-
-        String base64UrlEncodedHeader = null;
-        String base64UrlEncodedPayload = null;
-        String base64UrlEncodedDigest = null;
+    /**
+     * Parses the specified JWT, recording the time spent in each stage if {@code metrics} is not {@code null}.
+     *
+     * @since 0.11.0
+     */
+    private Jwt decodeAndVerify(String jwt, JwtMetricsRecorder metrics) {
+        DecodedJwt decoded = decode(jwt, metrics);
+        if (decoded.cached != null) {
+            return decoded.cached;
+        }
+        if (decoded.isSigned()) {
+            long t = JwtMetricsRecorder.mark(metrics);
+            resolveKey(decoded);
+            JwtMetricsRecorder.record(metrics, Stage.KEY_RESOLUTION, t);
+        }
+        return verify(decoded);
+    }
 
-        int delimiterCount = 0;
+    private static JwtMetricsRecorder newMetricsRecorder(String jwt) {
+        JwtMetricsRecorder metrics = new JwtMetricsRecorder();
+        metrics.setTokenLength(jwt != null ? jwt.length() : 0);
+        return metrics;
+    }
 
-        StringBuilder sb = new StringBuilder(128);
+    /**
+     * Decodes the specified compact JWT and parses its header and body, or finds its result in the token caches.
+     * Nothing in this phase depends on the verification key.
+     *
+     * @since 0.11.0
+     */
+    private DecodedJwt decode(String jwt, JwtMetricsRecorder metrics) {
 
-        for (char c : jwt.toCharArray()) {
+        if (this.deserializer == null) {
+            this.deserializer = locateDeserializer();
+        }
 
-            if (c == SEPARATOR_CHAR) {
+        Assert.hasText(jwt, "JWT String argument cannot be null or empty.");
 
-                CharSequence tokenSeq = Strings.clean(sb);
-                String token = tokenSeq != null ? tokenSeq.toString() : null;
+        DecodedJwt decoded = new DecodedJwt();
+        decoded.metrics = metrics;
 
-                if (delimiterCount == 0) {
-                    base64UrlEncodedHeader = token;
-                } else if (delimiterCount == 1) {
-                    base64UrlEncodedPayload = token;
+        if (rejectedTokenCache != null) {
+            decoded.cacheKey = TokenCache.keyFor(jwt);
+            String rejection = rejectedTokenCache.get(decoded.cacheKey, this.clock.now().getTime());
+            if (rejection != null) {
+                if (metrics != null) {
+                    metrics.setCached(true);
                 }
-
-                delimiterCount++;
-                sb.setLength(0);
-            } else {
-                sb.append(c);
+                throw new SignatureException(rejection);
             }
         }
-
-        if (delimiterCount != 2) {
-            String msg = "JWT strings must contain exactly 2 period characters. Found: " + delimiterCount;
-            throw new MalformedJwtException(msg);
-        }
-        if (sb.length() > 0) {
-            base64UrlEncodedDigest = sb.toString();
+        if (verifiedTokenCache != null) {
+            if (decoded.cacheKey == null) {
+                decoded.cacheKey = TokenCache.keyFor(jwt);
+            }
+            Date now = this.clock.now();
+            Jws<?> cached = verifiedTokenCache.get(decoded.cacheKey, now.getTime());
+            if (cached != null) {
+                //the signature was already verified, but time-sensitive and expected claims might not hold anymore:
+                Jws<?> jws = copyOf(cached);
+                if (metrics != null) {
+                    metrics.setCached(true);
+                    metrics.setAlgorithm(SignatureAlgorithm.forName(jws.getHeader().getAlgorithm()));
+                }
+                if (jws.getBody() instanceof Claims) {
+                    long t = JwtMetricsRecorder.mark(metrics);
+                    validateClaims(jws.getHeader(), (Claims) jws.getBody(), now);
+                    JwtMetricsRecorder.record(metrics, Stage.CLAIMS_VALIDATION, t);
+                }
+                decoded.cached = jws;
+                return decoded;
+            }
         }
 
-        if (base64UrlEncodedPayload == null) {
+        TokenizedJwt tokenized = TokenizedJwt.tokenize(jwt);
+        decoded.tokenized = tokenized;
+
+        String base64UrlEncodedHeader = tokenized.getHeader();
+        String base64UrlEncodedDigest = tokenized.getSignature();
+
+        if (!tokenized.hasPayload()) {
             throw new MalformedJwtException("JWT string '" + jwt + "' is missing a body/payload.");
         }
 
@@ -274,43 +558,87 @@ public class DefaultJwtParser implements JwtParser {
 
         CompressionCodec compressionCodec = null;
 
-        if (base64UrlEncodedHeader != null) {
-            byte[] bytes = base64UrlDecoder.decode(base64UrlEncodedHeader);
-            String origValue = new String(bytes, Strings.UTF_8);
-            Map<String, Object> m = (Map<String, Object>) readValue(origValue);
+        //a cached header has already been verified together with a signature, so it is known to be well formed:
+        HeaderCache.Entry cachedHeader = null;
+        if (headerCache != null && base64UrlEncodedHeader != null && base64UrlEncodedDigest != null) {
+            cachedHeader = headerCache.get(base64UrlEncodedHeader);
+        }
 
-            if (base64UrlEncodedDigest != null) {
-                header = new DefaultJwsHeader(m);
-            } else {
-                header = new DefaultHeader(m);
+        if (cachedHeader != null) {
+            header = cachedHeader.copyHeader();
+            compressionCodec = cachedHeader.getCompressionCodec();
+        } else if (base64UrlEncodedHeader != null) {
+            long t = JwtMetricsRecorder.mark(metrics);
+            byte[] bytes = tokenized.decodeHeader(base64UrlDecoder);
+            JwtMetricsRecorder.record(metrics, Stage.BASE64_DECODE, t);
+
+            t = JwtMetricsRecorder.mark(metrics);
+            if (lazyDeserialization && base64UrlEncodedDigest != null) {
+                header = LazyJwsHeader.scan(bytes, deserializer);
+            }
+
+            if (header == null) {
+                String origValue = new String(bytes, Strings.UTF_8);
+                Map<String, Object> m = (Map<String, Object>) readValue(origValue);
+
+                if (base64UrlEncodedDigest != null) {
+                    header = new DefaultJwsHeader(m);
+                } else {
+                    header = new DefaultHeader(m);
+                }
+            }
+            JwtMetricsRecorder.record(metrics, Stage.DESERIALIZE, t);
+
+            if (headerCache != null && base64UrlEncodedDigest != null) {
+                //an unmodified copy, retained in the header cache once the signature is verified:
+                decoded.headerTemplate = copyOf((JwsHeader) header);
             }
 
             compressionCodec = compressionCodecResolver.resolveCompressionCodec(header);
         }
 
+        decoded.header = header;
+        decoded.cachedHeader = cachedHeader;
+        decoded.compressionCodec = compressionCodec;
+
         // =============== Body =================
-        byte[] bytes = base64UrlDecoder.decode(base64UrlEncodedPayload);
+        long t = JwtMetricsRecorder.mark(metrics);
+        byte[] bytes = tokenized.decodePayload(base64UrlDecoder);
+        JwtMetricsRecorder.record(metrics, Stage.BASE64_DECODE, t);
         if (compressionCodec != null) {
+            t = JwtMetricsRecorder.mark(metrics);
             bytes = compressionCodec.decompress(bytes);
+            JwtMetricsRecorder.record(metrics, Stage.DECOMPRESS, t);
         }
+
+        t = JwtMetricsRecorder.mark(metrics);
         String payload = new String(bytes, Strings.UTF_8);
 
         Claims claims = null;
 
         if (payload.charAt(0) == '{' && payload.charAt(payload.length() - 1) == '}') { //likely to be json, parse it:
-            Map<String, Object> claimsMap = (Map<String, Object>) readValue(payload);
-            claims = new DefaultClaims(claimsMap);
+            if (lazyDeserialization) {
+                claims = LazyClaims.scan(bytes, deserializer, getScannedClaimNames());
+            }
+            if (claims == null) {
+                Map<String, Object> claimsMap = (Map<String, Object>) readValue(payload);
+                claims = new DefaultClaims(claimsMap);
+            }
         }
+        JwtMetricsRecorder.record(metrics, Stage.DESERIALIZE, t);
 
-        // =============== Signature =================
-        if (base64UrlEncodedDigest != null) { //it is signed - validate the signature
+        decoded.payload = payload;
+        decoded.claims = claims;
 
-            JwsHeader jwsHeader = (JwsHeader) header;
+        // =============== Signature algorithm =================
+        if (base64UrlEncodedDigest != null) { //it is signed - the signature is validated once the key is known
 
             SignatureAlgorithm algorithm = null;
 
-            if (header != null) {
-                String alg = jwsHeader.getAlgorithm();
+            if (cachedHeader != null) {
+                algorithm = cachedHeader.getAlgorithm();
+            } else if (header != null) {
+                String alg = ((JwsHeader) header).getAlgorithm();
                 if (Strings.hasText(alg)) {
                     algorithm = SignatureAlgorithm.forName(alg);
                 }
@@ -323,126 +651,232 @@ public class DefaultJwtParser implements JwtParser {
                 throw new MalformedJwtException(msg);
             }
 
-            if (key != null && keyBytes != null) {
-                throw new IllegalStateException("A key object and key bytes cannot both be specified. Choose either.");
-            } else if ((key != null || keyBytes != null) && signingKeyResolver != null) {
-                String object = key != null ? "a key object" : "key bytes";
-                throw new IllegalStateException("A signing key resolver and " + object + " cannot both be specified. Choose either.");
-            }
+            decoded.algorithm = algorithm;
+        }
 
-            //digitally signed, let's assert the signature:
-            Key key = this.key;
+        if (metrics != null) {
+            metrics.setAlgorithm(decoded.isSigned() ? decoded.algorithm : SignatureAlgorithm.NONE);
+        }
 
-            if (key == null) { //fall back to keyBytes
+        return decoded;
+    }
 
-                byte[] keyBytes = this.keyBytes;
+    /**
+     * Resolves the verification key of a decoded JWS from the configured key, key bytes or
+     * {@link SigningKeyResolver}.
+     *
+     * @since 0.11.0
+     */
+    private void resolveKey(DecodedJwt decoded) {
 
-                if (Objects.isEmpty(keyBytes) && signingKeyResolver != null) { //use the signingKeyResolver
-                    if (claims != null) {
-                        key = signingKeyResolver.resolveSigningKey(jwsHeader, claims);
-                    } else {
-                        key = signingKeyResolver.resolveSigningKey(jwsHeader, payload);
-                    }
-                }
+        if (!keyConfigurationAsserted) {
+            assertKeyConfiguration(this.key, this.keyBytes, this.signingKeyResolver);
+        }
 
-                if (!Objects.isEmpty(keyBytes)) {
+        HeaderCache.Entry cachedHeader = decoded.cachedHeader;
+        Key key = cachedHeader != null && cachedHeader.getKey() != null ? cachedHeader.getKey() : this.key;
 
-                    Assert.isTrue(algorithm.isHmac(),
-                        "Key bytes can only be specified for HMAC signatures. Please specify a PublicKey or PrivateKey instance.");
+        if (key == null) { //fall back to keyBytes
 
-                    key = new SecretKeySpec(keyBytes, algorithm.getJcaName());
+            byte[] keyBytes = this.keyBytes;
+
+            if (Objects.isEmpty(keyBytes) && signingKeyResolver instanceof CachingSigningKeyResolver) {
+                //a key from a caching resolver may come with a validator already created for it:
+                decoded.resolved = ((CachingSigningKeyResolver) signingKeyResolver).resolve(decoded.getJwsHeader(),
+                    decoded.claims, decoded.claims != null ? null : decoded.payload);
+                key = decoded.resolved != null ? decoded.resolved.getKey() : null;
+            } else if (Objects.isEmpty(keyBytes) && signingKeyResolver != null) { //use the signingKeyResolver
+                if (decoded.claims != null) {
+                    key = signingKeyResolver.resolveSigningKey(decoded.getJwsHeader(), decoded.claims);
+                } else {
+                    key = signingKeyResolver.resolveSigningKey(decoded.getJwsHeader(), decoded.payload);
                 }
             }
 
+            if (!Objects.isEmpty(keyBytes)) {
+
+                SignatureAlgorithm algorithm = decoded.algorithm;
+
+                Assert.isTrue(algorithm.isHmac(),
+                    "Key bytes can only be specified for HMAC signatures. Please specify a PublicKey or PrivateKey instance.");
+
+                key = hmacKeys != null ? hmacKeys.get(algorithm) :
+                    new SecretKeySpec(keyBytes, algorithm.getJcaName());
+            }
+        }
+
+        decoded.key = key;
+        //a key from a SigningKeyResolver may depend on the claims, so only a configured key can be reused:
+        decoded.keyReusable = signingKeyResolver == null;
+    }
+
+    /**
+     * Validates the signature of a decoded JWS with its resolved key, asserts the claims and returns the result.
+     *
+     * @since 0.11.0
+     */
+    private Jwt verify(DecodedJwt decoded) {
+
+        Header header = decoded.header;
+        Claims claims = decoded.claims;
+        JwtMetricsRecorder metrics = decoded.metrics;
+
+        // =============== Signature =================
+        if (decoded.isSigned()) {
+
+            long t = JwtMetricsRecorder.mark(metrics);
+
+            SignatureAlgorithm algorithm = decoded.algorithm;
+
+            //digitally signed, let's assert the signature:
+            Key key = decoded.key;
+
             Assert.notNull(key, "A signing key must be specified if the specified JWT is digitally signed.");
 
-            //re-create the jwt part without the signature.  This is what needs to be signed for verification:
-            String jwtWithoutSignature = base64UrlEncodedHeader + SEPARATOR_CHAR + base64UrlEncodedPayload;
+            //the jwt part without the signature.  This is what needs to be signed for verification:
+            byte[] jwtWithoutSignature = decoded.tokenized.getSigningInputBytes();
+
+            CachingSigningKeyResolver.Entry resolved = decoded.resolved;
+            JwtSignatureValidator validator = resolved != null ?
+                resolved.getValidator(base64UrlDecoder, cryptoEnginePooling) : null;
+            if (validator == null) {
+                validator = createValidatorFor(algorithm, key);
+                if (resolved != null) {
+                    //the resolver entry is specific to the header's alg, so the validator can be reused with it:
+                    resolved.setValidator(validator, base64UrlDecoder, cryptoEnginePooling);
+                }
+            }
 
-            JwtSignatureValidator validator;
-            try {
-                algorithm.assertValidVerificationKey(key); //since 0.10.0: https://github.com/jwtk/jjwt/issues/334
-                validator = createSignatureValidator(algorithm, key);
-            } catch (WeakKeyException e) {
-                throw e;
-            } catch (InvalidKeyException | IllegalArgumentException e) {
-                String algName = algorithm.getValue();
-                String msg = "The parsed JWT indicates it was signed with the " + algName + " signature " +
-                    "algorithm, but the specified signing key of type " + key.getClass().getName() +
-                    " may not be used to validate " + algName + " signatures.  Because the specified " +
-                    "signing key reflects a specific and expected algorithm, and the JWT does not reflect " +
-                    "this algorithm, it is likely that the JWT was not expected and therefore should not be " +
-                    "trusted.  Another possibility is that the parser was configured with the incorrect " +
-                    "signing key, but this cannot be assumed for security reasons.";
-                throw new UnsupportedJwtException(msg, e);
-            }
-
-            if (!validator.isValid(jwtWithoutSignature, base64UrlEncodedDigest)) {
+            boolean valid = validator.isValid(jwtWithoutSignature, decoded.tokenized.getSignature());
+            JwtMetricsRecorder.record(metrics, Stage.SIGNATURE_VERIFICATION, t);
+
+            if (!valid) {
                 String msg = "JWT signature does not match locally computed signature. JWT validity cannot be " +
                     "asserted and should not be trusted.";
+                if (rejectedTokenCache != null) {
+                    rejectedTokenCache.put(decoded.cacheKey, msg, this.clock.now().getTime());
+                }
                 throw new SignatureException(msg);
             }
-        }
 
-        final boolean allowSkew = this.allowedClockSkewMillis > 0;
+            if (decoded.headerTemplate != null) {
+                Key reusableKey = decoded.keyReusable ? key : null;
+                headerCache.put(decoded.tokenized.getHeader(), new HeaderCache.Entry(decoded.headerTemplate,
+                    algorithm, decoded.compressionCodec, reusableKey));
+            }
+        }
 
         //since 0.3:
         if (claims != null) {
+            long t = JwtMetricsRecorder.mark(metrics);
+            validateClaims(header, claims, this.clock.now());
+            JwtMetricsRecorder.record(metrics, Stage.CLAIMS_VALIDATION, t);
+        }
+
+        Object body = claims != null ? claims : decoded.payload;
+
+        if (decoded.isSigned()) {
+            Jws<?> jws = new DefaultJws<>((JwsHeader) header, body, decoded.tokenized.getSignature());
+            if (verifiedTokenCache != null) {
+                //retain a private copy so callers modifying the returned instance do not affect later cache hits:
+                verifiedTokenCache.put(decoded.cacheKey, copyOf(jws), this.clock.now().getTime());
+            }
+            return jws;
+        } else {
+            return new DefaultJwt<>(header, body);
+        }
+    }
 
-            final Date now = this.clock.now();
-            long nowTime = now.getTime();
+    /**
+     * Asserts the {@code exp} and {@code nbf} claims against the specified time and then the
+     * {@link #validateExpectedClaims(Header, Claims) expected claims}.
+     *
+     * @since 0.11.0
+     */
+    private void validateClaims(Header header, Claims claims, Date now) {
 
-            //https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-30#section-4.1.4
-            //token MUST NOT be accepted on or after any specified exp time:
-            Date exp = claims.getExpiration();
-            if (exp != null) {
+        long nowTime = now.getTime();
 
-                long maxTime = nowTime - this.allowedClockSkewMillis;
-                Date max = allowSkew ? new Date(maxTime) : now;
-                if (max.after(exp)) {
-                    String expVal = DateFormats.formatIso8601(exp, false);
-                    String nowVal = DateFormats.formatIso8601(now, false);
+        //https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-30#section-4.1.4
+        //token MUST NOT be accepted on or after any specified exp time:
+        Date exp = claims.getExpiration();
+        if (exp != null) {
 
-                    long differenceMillis = maxTime - exp.getTime();
+            long maxTime = nowTime - this.allowedClockSkewMillis;
+            if (maxTime > exp.getTime()) {
+                String expVal = DateFormats.formatIso8601(exp, false);
+                String nowVal = DateFormats.formatIso8601(now, false);
 
-                    String msg = "JWT expired at " + expVal + ". Current time: " + nowVal + ", a difference of " +
-                        differenceMillis + " milliseconds.  Allowed clock skew: " +
-                        this.allowedClockSkewMillis + " milliseconds.";
-                    throw new ExpiredJwtException(header, claims, msg);
-                }
+                long differenceMillis = maxTime - exp.getTime();
+
+                String msg = "JWT expired at " + expVal + ". Current time: " + nowVal + ", a difference of " +
+                    differenceMillis + " milliseconds.  Allowed clock skew: " +
+                    this.allowedClockSkewMillis + " milliseconds.";
+                throw new ExpiredJwtException(header, claims, msg);
             }
+        }
 
-            //https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-30#section-4.1.5
-            //token MUST NOT be accepted before any specified nbf time:
-            Date nbf = claims.getNotBefore();
-            if (nbf != null) {
+        //https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-30#section-4.1.5
+        //token MUST NOT be accepted before any specified nbf time:
+        Date nbf = claims.getNotBefore();
+        if (nbf != null) {
 
-                long minTime = nowTime + this.allowedClockSkewMillis;
-                Date min = allowSkew ? new Date(minTime) : now;
-                if (min.before(nbf)) {
-                    String nbfVal = DateFormats.formatIso8601(nbf, false);
-                    String nowVal = DateFormats.formatIso8601(now, false);
+            long minTime = nowTime + this.allowedClockSkewMillis;
+            if (minTime < nbf.getTime()) {
+                String nbfVal = DateFormats.formatIso8601(nbf, false);
+                String nowVal = DateFormats.formatIso8601(now, false);
 
-                    long differenceMillis = nbf.getTime() - minTime;
+                long differenceMillis = nbf.getTime() - minTime;
 
-                    String msg = "JWT must not be accepted before " + nbfVal + ". Current time: " + nowVal +
-                        ", a difference of " +
-                        differenceMillis + " milliseconds.  Allowed clock skew: " +
-                        this.allowedClockSkewMillis + " milliseconds.";
-                    throw new PrematureJwtException(header, claims, msg);
-                }
+                String msg = "JWT must not be accepted before " + nbfVal + ". Current time: " + nowVal +
+                    ", a difference of " +
+                    differenceMillis + " milliseconds.  Allowed clock skew: " +
+                    this.allowedClockSkewMillis + " milliseconds.";
+                throw new PrematureJwtException(header, claims, msg);
             }
-
-            validateExpectedClaims(header, claims);
         }
 
-        Object body = claims != null ? claims : payload;
+        validateExpectedClaims(header, claims);
+    }
 
-        if (base64UrlEncodedDigest != null) {
-            return new DefaultJws<>((JwsHeader) header, body, base64UrlEncodedDigest);
-        } else {
-            return new DefaultJwt<>(header, body);
+    /**
+     * Returns the names of the claims that {@link LazyClaims} must extract so that validating a parsed JWT never
+     * requires its entire payload to be deserialized.
+     *
+     * @since 0.11.0
+     */
+    private Collection<String> getScannedClaimNames() {
+        if (expectedClaims.isEmpty()) {
+            return REGISTERED_CLAIM_NAMES;
         }
+        Set<String> names = new HashSet<>(REGISTERED_CLAIM_NAMES);
+        names.addAll(expectedClaims.keySet());
+        return names;
+    }
+
+    /**
+     * Returns a copy of the specified JWS whose header and claims maps may be modified without affecting the original.
+     *
+     * @since 0.11.0
+     */
+    private static Jws<?> copyOf(Jws<?> jws) {
+        JwsHeader header = copyOf(jws.getHeader());
+        Object body = jws.getBody();
+        if (body instanceof LazyClaims) {
+            body = ((LazyClaims) body).copy();
+        } else if (body instanceof Claims) {
+            body = new DefaultClaims((Claims) body);
+        }
+        return new DefaultJws<>(header, body, jws.getSignature());
+    }
+
+    /**
+     * Returns a copy of the specified header that may be modified without affecting the original.
+     *
+     * @since 0.11.0
+     */
+    static JwsHeader copyOf(JwsHeader header) {
+        return header instanceof LazyJwsHeader ? ((LazyJwsHeader) header).copy() : new DefaultJwsHeader(header);
     }
 
     /**
@@ -497,11 +931,38 @@ public class DefaultJwtParser implements JwtParser {
         }
     }
 
+    /**
+     * Asserts that the specified key may be used to verify signatures of the specified algorithm and returns a
+     * validator for it.
+     *
+     * @since 0.11.0
+     */
+    private JwtSignatureValidator createValidatorFor(SignatureAlgorithm algorithm, Key key) {
+        try {
+            algorithm.assertValidVerificationKey(key); //since 0.10.0: https://github.com/jwtk/jjwt/issues/334
+            return createSignatureValidator(algorithm, key);
+        } catch (WeakKeyException e) {
+            throw e;
+        } catch (InvalidKeyException | IllegalArgumentException e) {
+            String algName = algorithm.getValue();
+            String msg = "The parsed JWT indicates it was signed with the " + algName + " signature " +
+                "algorithm, but the specified signing key of type " + key.getClass().getName() +
+                " may not be used to validate " + algName + " signatures.  Because the specified " +
+                "signing key reflects a specific and expected algorithm, and the JWT does not reflect " +
+                "this algorithm, it is likely that the JWT was not expected and therefore should not be " +
+                "trusted.  Another possibility is that the parser was configured with the incorrect " +
+                "signing key, but this cannot be assumed for security reasons.";
+            throw new UnsupportedJwtException(msg, e);
+        }
+    }
+
     /*
      * @since 0.5 mostly to allow testing overrides
      */
     protected JwtSignatureValidator createSignatureValidator(SignatureAlgorithm alg, Key key) {
-        return new DefaultJwtSignatureValidator(alg, key, base64UrlDecoder);
+        SignatureValidatorFactory factory = cryptoEnginePooling ?
+            DefaultSignatureValidatorFactory.POOLED : DefaultSignatureValidatorFactory.INSTANCE;
+        return new DefaultJwtSignatureValidator(factory, alg, key, base64UrlDecoder);
     }
 
     @Override
@@ -510,8 +971,15 @@ public class DefaultJwtParser implements JwtParser {
         Assert.notNull(handler, "JwtHandler argument cannot be null.");
         Assert.hasText(compact, "JWT String argument cannot be null or empty.");
 
-        Jwt jwt = parse(compact);
+        return handle(parse(compact), handler);
+    }
 
+    /**
+     * Invokes the {@code handler} method matching the type of the specified parsed JWT.
+     *
+     * @since 0.11.0
+     */
+    private static <T> T handle(Jwt jwt, JwtHandler<T> handler) {
         if (jwt instanceof Jws) {
             Jws jws = (Jws) jwt;
             Object body = jws.getBody();
@@ -578,6 +1046,135 @@ public class DefaultJwtParser implements JwtParser {
         });
     }
 
+    @Override
+    public List<ParseResult<Jws<Claims>>> parseClaimsJws(Collection<String> claimsJwss, Executor executor)
+        throws InterruptedException {
+        Assert.notNull(claimsJwss, "JWS collection cannot be null.");
+        Assert.notNull(executor, "Executor cannot be null.");
+
+        //a private, fully resolved snapshot is safe to use from all executor threads.  Pooling lets each thread keep
+        //reusing the crypto engines initialized for the key of the group it is processing:
+        DefaultJwtParser parser = new DefaultJwtParser(this);
+        parser.cryptoEnginePooling = true;
+        parser.verifiedTokenCache = this.verifiedTokenCache;
+        parser.rejectedTokenCache = this.rejectedTokenCache;
+        parser.headerCache = this.headerCache;
+
+        return BatchParser.parseClaimsJws(parser, claimsJwss, executor);
+    }
+
+    @Override
+    public void parseAsync(String jwt, Callback<Jwt> resultCallback) {
+        Assert.notNull(resultCallback, "Callback argument cannot be null.");
+
+        final JwtMetricsRecorder metrics = metricsListener != null ? newMetricsRecorder(jwt) : null;
+        final Callback<Jwt> callback = metrics != null ?
+            new MetricsReportingCallback(metricsListener, metrics, resultCallback) : resultCallback;
+
+        final DecodedJwt decoded;
+        try {
+            decoded = decode(jwt, metrics);
+            if (decoded.cached == null && decoded.isSigned() && asyncSigningKeyResolver == null) {
+                long t = JwtMetricsRecorder.mark(metrics);
+                resolveKey(decoded);
+                JwtMetricsRecorder.record(metrics, Stage.KEY_RESOLUTION, t);
+            }
+        } catch (RuntimeException e) {
+            callback.onFailure(e);
+            return;
+        }
+
+        if (decoded.cached != null) {
+            callback.onSuccess(decoded.cached);
+        } else if (!decoded.isSigned() || asyncSigningKeyResolver == null) {
+            completeAsync(decoded, callback);
+        } else {
+            final long keyResolutionStart = JwtMetricsRecorder.mark(metrics);
+            // the resolver may complete on this thread, in which case exceptions thrown by the caller's callback
+            // propagate through resolveSigningKey: they must not complete the callback a second time.
+            final AtomicBoolean completed = new AtomicBoolean();
+            Callback<Key> keyCallback = new Callback<Key>() {
+                @Override
+                public void onSuccess(Key key) {
+                    if (completed.compareAndSet(false, true)) {
+                        JwtMetricsRecorder.record(metrics, Stage.KEY_RESOLUTION, keyResolutionStart);
+                        decoded.key = key;
+                        completeAsync(decoded, callback);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (completed.compareAndSet(false, true)) {
+                        callback.onFailure(t);
+                    }
+                }
+            };
+            try {
+                if (decoded.claims != null) {
+                    asyncSigningKeyResolver.resolveSigningKey(decoded.getJwsHeader(), decoded.claims, keyCallback);
+                } else {
+                    asyncSigningKeyResolver.resolveSigningKey(decoded.getJwsHeader(), decoded.payload, keyCallback);
+                }
+            } catch (RuntimeException e) {
+                if (!completed.compareAndSet(false, true)) {
+                    throw e; //thrown after completion, by the caller's callback
+                }
+                callback.onFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Verifies a decoded JWT whose key has been resolved and completes the callback with the outcome.
+     *
+     * @since 0.11.0
+     */
+    private void completeAsync(DecodedJwt decoded, Callback<Jwt> callback) {
+        Jwt jwt;
+        try {
+            jwt = verify(decoded);
+        } catch (RuntimeException e) {
+            callback.onFailure(e);
+            return;
+        }
+        callback.onSuccess(jwt);
+    }
+
+    @Override
+    public <T> void parseAsync(String jwt, final JwtHandler<T> handler, final Callback<T> callback) {
+        Assert.notNull(handler, "JwtHandler argument cannot be null.");
+        Assert.notNull(callback, "Callback argument cannot be null.");
+        parseAsync(jwt, new Callback<Jwt>() {
+            @Override
+            public void onSuccess(Jwt result) {
+                T value;
+                try {
+                    value = handle(result, handler);
+                } catch (RuntimeException e) {
+                    callback.onFailure(e);
+                    return;
+                }
+                callback.onSuccess(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                callback.onFailure(t);
+            }
+        });
+    }
+
+    @Override
+    public void parseClaimsJwsAsync(String claimsJws, Callback<Jws<Claims>> callback) {
+        parseAsync(claimsJws, new JwtHandlerAdapter<Jws<Claims>>() {
+            @Override
+            public Jws<Claims> onClaimsJws(Jws<Claims> jws) {
+                return jws;
+            }
+        }, callback);
+    }
+
     @SuppressWarnings("unchecked")
     protected Map<String, ?> readValue(String val) {
         try {
@@ -587,4 +1184,89 @@ public class DefaultJwtParser implements JwtParser {
             throw new MalformedJwtException("Unable to read JSON value: " + val, e);
         }
     }
+
+    /**
+     * Reports the metrics of an asynchronous parse to the listener before completing the caller's callback.
+     *
+     * @since 0.11.0
+     */
+    private static final class MetricsReportingCallback implements Callback<Jwt> {
+
+        private final JwtMetricsListener listener;
+
+        private final JwtMetricsRecorder metrics;
+
+        private final Callback<Jwt> delegate;
+
+        MetricsReportingCallback(JwtMetricsListener listener, JwtMetricsRecorder metrics, Callback<Jwt> delegate) {
+            this.listener = listener;
+            this.metrics = metrics;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSuccess(Jwt result) {
+            metrics.complete(null);
+            listener.onParse(metrics);
+            delegate.onSuccess(result);
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            metrics.complete(t);
+            listener.onParse(metrics);
+            delegate.onFailure(t);
+        }
+    }
+
+    /**
+     * The state of a JWT between decoding and verification.  Signed JWTs additionally need their key resolved
+     * before they can be {@link #verify(DecodedJwt) verified}.
+     *
+     * @since 0.11.0
+     */
+    private static final class DecodedJwt {
+
+        /**
+         * The result found in the verified token cache, in which case no other field is set.
+         */
+        private Jwt cached;
+
+        private Object cacheKey;
+
+        private TokenizedJwt tokenized;
+
+        private Header header;
+
+        private HeaderCache.Entry cachedHeader;
+
+        private JwsHeader headerTemplate;
+
+        private CompressionCodec compressionCodec;
+
+        private String payload;
+
+        private Claims claims;
+
+        private SignatureAlgorithm algorithm;
+
+        private Key key;
+
+        private boolean keyReusable;
+
+        private CachingSigningKeyResolver.Entry resolved;
+
+        /**
+         * The recorder of the parse operation's metrics, or {@code null} if nothing is measured.
+         */
+        private JwtMetricsRecorder metrics;
+
+        boolean isSigned() {
+            return tokenized.getSignature() != null;
+        }
+
+        JwsHeader getJwsHeader() {
+            return (JwsHeader) header;
+        }
+    }
 }
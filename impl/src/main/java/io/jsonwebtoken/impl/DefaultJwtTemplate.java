@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.JwtMetrics.Stage;
+import io.jsonwebtoken.JwtMetricsListener;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtTemplate;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.crypto.DefaultJwtSigner;
+import io.jsonwebtoken.impl.crypto.JwtSigner;
+import io.jsonwebtoken.io.BufferEncoder;
+import io.jsonwebtoken.io.Encoder;
+import io.jsonwebtoken.io.SerializationException;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.lang.Assert;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@link JwtTemplate} created by {@link DefaultJwtBuilder#toTemplate()}.  The header segment is encoded and the
+ * signer created when the template is created; {@link #compact(Map)} only serializes, compresses and encodes the
+ * payload and computes the signature.
+ *
+ * <p>The template's own claims are serialized once as well.  As long as the claims of a JWT do not name any of
+ * them, only the JWT's claims are serialized and the members of both JSON objects are spliced byte for byte into
+ * the payload.  Otherwise, or if the serializer does not produce a plain JSON object, all claims are serialized
+ * together so that the payload never contains duplicate names.</p>
+ *
+ * @since 0.11.0
+ */
+final class DefaultJwtTemplate implements JwtTemplate {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    private final Claims claims;
+
+    /**
+     * The serialized {@link #claims}, or {@code null} if they cannot be spliced.
+     */
+    private final JsonObjectMembers claimsJson;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final JwtSigner signer;
+
+    private final Serializer<Map<String, ?>> serializer;
+
+    private final Encoder<byte[], String> base64UrlEncoder;
+
+    private final CompressionCodec compressionCodec;
+
+    private final JwtMetricsListener metricsListener;
+
+    /**
+     * The base64url-encoded header.
+     */
+    private final String encodedHeader;
+
+    /**
+     * The US-ASCII bytes of {@link #encodedHeader} if the JWT can be assembled in a single buffer, {@code null}
+     * otherwise.
+     */
+    private final byte[] asciiHeader;
+
+    /**
+     * @param headerBytes      the serialized header
+     * @param claims           the claims of every JWT, may be {@code null}
+     * @param algorithm        the signature algorithm, {@link SignatureAlgorithm#NONE} for unsigned JWTs
+     * @param signer           the signer, or {@code null} for unsigned JWTs
+     * @param serializer       the serializer for the claims
+     * @param base64UrlEncoder the encoder for all segments
+     * @param compressionCodec the payload compression codec, or {@code null} to not compress
+     * @param metricsListener  the listener to report metrics to, or {@code null}
+     */
+    DefaultJwtTemplate(byte[] headerBytes, Map<String, Object> claims, SignatureAlgorithm algorithm, JwtSigner signer,
+                       Serializer<Map<String, ?>> serializer, Encoder<byte[], String> base64UrlEncoder,
+                       CompressionCodec compressionCodec, JwtMetricsListener metricsListener) {
+        Assert.notNull(headerBytes, "headerBytes cannot be null.");
+        Assert.notNull(algorithm, "SignatureAlgorithm cannot be null.");
+        Assert.notNull(serializer, "Serializer cannot be null.");
+        Assert.notNull(base64UrlEncoder, "base64UrlEncoder cannot be null.");
+        this.claims = claims != null ? new DefaultClaims(claims) : new DefaultClaims();
+        this.algorithm = algorithm;
+        this.signer = signer;
+        this.serializer = serializer;
+        this.base64UrlEncoder = base64UrlEncoder;
+        this.compressionCodec = compressionCodec;
+        this.metricsListener = metricsListener;
+        this.encodedHeader = base64UrlEncoder.encode(headerBytes);
+        // as in DefaultJwtBuilder, a DefaultJwtSigner subclass may override sign(String) and must not be bypassed
+        boolean singleBuffer = base64UrlEncoder instanceof BufferEncoder &&
+            (signer == null || signer.getClass() == DefaultJwtSigner.class);
+        this.asciiHeader = singleBuffer ? encodedHeader.getBytes(US_ASCII) : null;
+        this.claimsJson = JsonObjectMembers.of(serializeClaims(this.claims));
+    }
+
+    private byte[] serializeClaims(Map<String, ?> claims) {
+        try {
+            return serializer.serialize(claims);
+        } catch (SerializationException e) {
+            throw new IllegalArgumentException("Unable to serialize claims object to json: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Iterator<String> compactAll(Iterator<? extends Map<String, ?>> claims, Executor executor, int maxPending,
+                                       boolean ordered) {
+        Assert.notNull(claims, "claims Iterator cannot be null.");
+        Assert.notNull(executor, "Executor cannot be null.");
+        Assert.isTrue(maxPending > 0, "maxPending must be greater than zero.");
+        return new ConcurrentCompactIterator(this, claims, executor, maxPending, ordered);
+    }
+
+    @Override
+    public String compact(Map<String, ?> claims) {
+        JwtMetricsListener listener = this.metricsListener;
+        if (listener == null) {
+            return compact(claims, null);
+        }
+        JwtMetricsRecorder metrics = new JwtMetricsRecorder();
+        String jwt;
+        try {
+            jwt = compact(claims, metrics);
+        } catch (RuntimeException e) {
+            metrics.complete(e);
+            listener.onBuild(metrics);
+            throw e;
+        }
+        metrics.setTokenLength(jwt.length());
+        metrics.complete(null);
+        listener.onBuild(metrics);
+        return jwt;
+    }
+
+    private String compact(Map<String, ?> claims, JwtMetricsRecorder metrics) {
+
+        if (metrics != null) {
+            metrics.setAlgorithm(algorithm);
+        }
+
+        long t = JwtMetricsRecorder.mark(metrics);
+        byte[] bytes = serializePayload(claims);
+        JwtMetricsRecorder.record(metrics, Stage.SERIALIZE, t);
+
+        if (compressionCodec != null) {
+            t = JwtMetricsRecorder.mark(metrics);
+            bytes = compressionCodec.compress(bytes);
+            JwtMetricsRecorder.record(metrics, Stage.COMPRESS, t);
+        }
+
+        if (asciiHeader != null) {
+            return DefaultJwtBuilder.compact((BufferEncoder) base64UrlEncoder, asciiHeader, true, bytes,
+                (DefaultJwtSigner) signer, metrics);
+        }
+
+        t = JwtMetricsRecorder.mark(metrics);
+        String jwt = encodedHeader + JwtParser.SEPARATOR_CHAR + base64UrlEncoder.encode(bytes);
+        JwtMetricsRecorder.record(metrics, Stage.BASE64_ENCODE, t);
+
+        if (signer != null) {
+            t = JwtMetricsRecorder.mark(metrics);
+            String base64UrlSignature = signer.sign(jwt);
+            JwtMetricsRecorder.record(metrics, Stage.SIGNATURE_CREATION, t);
+            return jwt + JwtParser.SEPARATOR_CHAR + base64UrlSignature;
+        }
+
+        // no signature (plaintext), but must terminate w/ a period, see
+        // https://tools.ietf.org/html/draft-ietf-oauth-json-web-token-25#section-6.1
+        return jwt + JwtParser.SEPARATOR_CHAR;
+    }
+
+    /**
+     * Returns the JSON payload for the template's claims combined with the specified claims.
+     */
+    private byte[] serializePayload(Map<String, ?> claims) {
+
+        if (claimsJson != null && !namesTemplateClaim(claims)) {
+            Claims own = new DefaultClaims();
+            if (claims != null) {
+                own.putAll(claims);
+            }
+            if (own.isEmpty()) {
+                if (claimsJson.isEmpty()) {
+                    throw new IllegalStateException("Claims cannot be empty.");
+                }
+                return claimsJson.toObject();
+            }
+            JsonObjectMembers ownJson = JsonObjectMembers.of(serializeClaims(own));
+            if (ownJson != null) {
+                return claimsJson.concat(ownJson);
+            }
+        }
+
+        Claims combined = new DefaultClaims(this.claims);
+        if (claims != null) {
+            combined.putAll(claims);
+        }
+        if (combined.isEmpty()) {
+            throw new IllegalStateException("Claims cannot be empty.");
+        }
+        return serializeClaims(combined);
+    }
+
+    private boolean namesTemplateClaim(Map<String, ?> claims) {
+        if (claims != null && !this.claims.isEmpty()) {
+            for (String name : claims.keySet()) {
+                if (this.claims.containsKey(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
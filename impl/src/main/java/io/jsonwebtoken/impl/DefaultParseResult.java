@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.ParseResult;
+
+/**
+ * @since 0.11.0
+ */
+public class DefaultParseResult<T> implements ParseResult<T> {
+
+    private final String compact;
+    private final T value;
+    private final RuntimeException exception;
+
+    public DefaultParseResult(String compact, T value) {
+        this(compact, value, null);
+    }
+
+    public DefaultParseResult(String compact, RuntimeException exception) {
+        this(compact, null, exception);
+    }
+
+    private DefaultParseResult(String compact, T value, RuntimeException exception) {
+        this.compact = compact;
+        this.value = value;
+        this.exception = exception;
+    }
+
+    @Override
+    public String getCompact() {
+        return this.compact;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return this.exception == null;
+    }
+
+    @Override
+    public T getValue() {
+        return this.value;
+    }
+
+    @Override
+    public RuntimeException getException() {
+        return this.exception;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "value=" + value : "exception=" + exception;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.TokenCacheStats;
+import io.jsonwebtoken.lang.Assert;
+
+import java.security.Key;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe cache of parsed JWS headers indexed by their raw base64url-encoded header segment.  Tokens
+ * from a single issuer almost always share a byte-identical header segment, so a cache hit replaces decoding,
+ * deserializing and resolving the header with a single hash lookup.
+ *
+ * <p>Lookups are lock-free.  Because the number of distinct headers in use is usually tiny, the cache does not track
+ * usage order: once it holds {@code maxSize} entries, adding another one discards all existing entries first.</p>
+ *
+ * @since 0.11.0
+ */
+final class HeaderCache implements TokenCacheStats {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    HeaderCache(int maxSize) {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than zero.");
+        this.maxSize = maxSize;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    Entry get(String base64UrlEncodedHeader) {
+        Entry entry = entries.get(base64UrlEncodedHeader);
+        (entry != null ? hitCount : missCount).incrementAndGet();
+        return entry;
+    }
+
+    void put(String base64UrlEncodedHeader, Entry entry) {
+        Assert.notNull(entry, "entry cannot be null.");
+        if (entries.size() >= maxSize && !entries.containsKey(base64UrlEncodedHeader)) {
+            entries.clear();
+        }
+        entries.put(base64UrlEncodedHeader, entry);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * A parsed header together with everything the parser resolved from it.  The header is never handed out
+     * directly: callers receive a {@link #copyHeader() copy} they may modify.
+     */
+    static final class Entry {
+
+        private final JwsHeader header;
+        private final SignatureAlgorithm algorithm;
+        private final CompressionCodec compressionCodec;
+        private final Key key;
+
+        /**
+         * @param header           the parsed header, which must not be modified or handed out afterwards
+         * @param algorithm        the signature algorithm referenced by the header
+         * @param compressionCodec the codec resolved for the header, or {@code null} if the payload is not compressed
+         * @param key              the verification key, or {@code null} if the key must be resolved for each token
+         */
+        Entry(JwsHeader header, SignatureAlgorithm algorithm, CompressionCodec compressionCodec, Key key) {
+            this.header = header;
+            this.algorithm = algorithm;
+            this.compressionCodec = compressionCodec;
+            this.key = key;
+        }
+
+        JwsHeader copyHeader() {
+            return DefaultJwtParser.copyOf(header);
+        }
+
+        SignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        CompressionCodec getCompressionCodec() {
+            return compressionCodec;
+        }
+
+        Key getKey() {
+            return key;
+        }
+    }
+}
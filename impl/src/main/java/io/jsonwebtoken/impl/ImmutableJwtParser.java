@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.AsyncSigningKeyResolver;
+import io.jsonwebtoken.Callback;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.CompressionCodecResolver;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwt;
+import io.jsonwebtoken.JwtHandler;
+import io.jsonwebtoken.JwtMetricsListener;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.ParseResult;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.TokenCacheStats;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoder;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link JwtParser} whose configuration cannot change after construction and that may be shared across threads.
+ * Instances are obtained via {@link JwtParser#compile()}.
+ *
+ * <p>All parsing is delegated to a private snapshot of the originating {@link DefaultJwtParser} that has had its
+ * deserializer, key material and expected claims resolved exactly once.  Because the snapshot is only reachable
+ * through this class's {@code final} field, it is safely published to every thread that can see this instance.</p>
+ *
+ * @since 0.11.0
+ */
+final class ImmutableJwtParser implements JwtParser {
+
+    private static final String IMMUTABLE_MSG = "Cannot change the configuration of a compiled JwtParser.  " +
+        "Configure a new parser with Jwts.parser() and call compile() instead.";
+
+    private final DefaultJwtParser jwtParser;
+
+    ImmutableJwtParser(DefaultJwtParser jwtParser) {
+        this.jwtParser = new DefaultJwtParser(jwtParser);
+    }
+
+    private static IllegalStateException doNotMutate() {
+        return new IllegalStateException(IMMUTABLE_MSG);
+    }
+
+    @Override
+    public JwtParser requireId(String id) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireSubject(String subject) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireAudience(String audience) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireIssuer(String issuer) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireIssuedAt(Date issuedAt) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireExpiration(Date expiration) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser requireNotBefore(Date notBefore) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser require(String claimName, Object value) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setClock(Clock clock) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setAllowedClockSkewSeconds(long seconds) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setCryptoEnginePooling(boolean enabled) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setLazyDeserialization(boolean enabled) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setVerifiedTokenCache(int maxSize, long ttlSeconds) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setRejectedTokenCache(int maxSize, long ttlSeconds) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setAsyncSigningKeyResolver(AsyncSigningKeyResolver asyncSigningKeyResolver) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setHeaderCache(int maxSize) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public TokenCacheStats getHeaderCacheStats() {
+        return this.jwtParser.getHeaderCacheStats();
+    }
+
+    @Override
+    public TokenCacheStats getVerifiedTokenCacheStats() {
+        return this.jwtParser.getVerifiedTokenCacheStats();
+    }
+
+    @Override
+    public TokenCacheStats getRejectedTokenCacheStats() {
+        return this.jwtParser.getRejectedTokenCacheStats();
+    }
+
+    @Override
+    public JwtParser setMetricsListener(JwtMetricsListener listener) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setSigningKey(byte[] key) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setSigningKey(String base64EncodedSecretKey) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setSigningKey(Key key) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setSigningKeyResolver(SigningKeyResolver signingKeyResolver) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser setCompressionCodecResolver(CompressionCodecResolver compressionCodecResolver) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser base64UrlDecodeWith(Decoder<String, byte[]> base64UrlDecoder) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser deserializeJsonWith(Deserializer<Map<String, ?>> deserializer) {
+        throw doNotMutate();
+    }
+
+    @Override
+    public JwtParser compile() {
+        return this;
+    }
+
+    @Override
+    public boolean isSigned(String jwt) {
+        return this.jwtParser.isSigned(jwt);
+    }
+
+    @Override
+    public Jwt parse(String jwt) throws ExpiredJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parse(jwt);
+    }
+
+    @Override
+    public <T> T parse(String jwt, JwtHandler<T> handler) throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parse(jwt, handler);
+    }
+
+    @Override
+    public Jwt<Header, String> parsePlaintextJwt(String plaintextJwt) throws UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parsePlaintextJwt(plaintextJwt);
+    }
+
+    @Override
+    public Jwt<Header, Claims> parseClaimsJwt(String claimsJwt) throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parseClaimsJwt(claimsJwt);
+    }
+
+    @Override
+    public Jws<String> parsePlaintextJws(String plaintextJws) throws UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parsePlaintextJws(plaintextJws);
+    }
+
+    @Override
+    public Jws<Claims> parseClaimsJws(String claimsJws) throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parseClaimsJws(claimsJws);
+    }
+
+    @Override
+    public List<ParseResult<Jws<Claims>>> parseClaimsJws(Collection<String> claimsJwss, Executor executor)
+        throws InterruptedException {
+        return this.jwtParser.parseClaimsJws(claimsJwss, executor);
+    }
+
+    @Override
+    public void parseAsync(String jwt, Callback<Jwt> callback) {
+        this.jwtParser.parseAsync(jwt, callback);
+    }
+
+    @Override
+    public <T> void parseAsync(String jwt, JwtHandler<T> handler, Callback<T> callback) {
+        this.jwtParser.parseAsync(jwt, handler, callback);
+    }
+
+    @Override
+    public void parseClaimsJwsAsync(String claimsJws, Callback<Jws<Claims>> callback) {
+        this.jwtParser.parseClaimsJwsAsync(claimsJws, callback);
+    }
+}
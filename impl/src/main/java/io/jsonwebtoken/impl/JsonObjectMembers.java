@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+/**
+ * The members of a serialized JSON object: the bytes between its braces, without surrounding whitespace.  Members of
+ * two objects without common names can be concatenated into a single well-formed object without parsing them.
+ *
+ * @since 0.11.0
+ */
+final class JsonObjectMembers {
+
+    private final byte[] json;
+    private final int offset;
+    private final int length;
+
+    private JsonObjectMembers(byte[] json, int offset, int length) {
+        this.json = json;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the members of the specified serialized JSON object, or {@code null} if the bytes do not start and end
+     * with the braces of a JSON object, ignoring surrounding whitespace.
+     */
+    static JsonObjectMembers of(byte[] json) {
+        if (json == null) {
+            return null;
+        }
+        int start = 0;
+        int end = json.length;
+        while (start < end && isWhitespace(json[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(json[end - 1])) {
+            end--;
+        }
+        if (end - start < 2 || json[start] != '{' || json[end - 1] != '}') {
+            return null;
+        }
+        start++;
+        end--;
+        while (start < end && isWhitespace(json[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(json[end - 1])) {
+            end--;
+        }
+        return new JsonObjectMembers(json, start, end - start);
+    }
+
+    private static boolean isWhitespace(byte b) { // RFC 8259, section 2
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns a JSON object with only these members.
+     */
+    byte[] toObject() {
+        byte[] object = new byte[length + 2];
+        object[0] = '{';
+        System.arraycopy(json, offset, object, 1, length);
+        object[length + 1] = '}';
+        return object;
+    }
+
+    /**
+     * Returns a JSON object with these members followed by the specified members, whose names must all differ from
+     * these.
+     */
+    byte[] concat(JsonObjectMembers other) {
+        if (other.isEmpty()) {
+            return toObject();
+        }
+        if (isEmpty()) {
+            return other.toObject();
+        }
+        byte[] object = new byte[length + other.length + 3];
+        object[0] = '{';
+        System.arraycopy(json, offset, object, 1, length);
+        object[length + 1] = ',';
+        System.arraycopy(other.json, other.offset, object, length + 2, other.length);
+        object[object.length - 1] = '}';
+        return object;
+    }
+}
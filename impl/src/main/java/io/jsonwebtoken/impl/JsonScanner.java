@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.lang.Strings;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal, allocation-light scanner that walks the top level members of a UTF-8 encoded JSON object and extracts
+ * the values of selected members only.  Every other member value is skipped without being materialized.
+ *
+ * <p>Selected scalar values are returned as the types a JSON {@link io.jsonwebtoken.io.Deserializer Deserializer}
+ * would typically produce: {@code String}, {@code Boolean}, {@code Integer}, {@code Long}, {@code BigInteger} or
+ * {@code Double}.  Selected members with a JSON {@code null} value are omitted (exactly as {@link JwtMap} omits
+ * them) and selected members with an object or array value are mapped to {@link #COMPLEX}.  If a member appears more
+ * than once, the last value wins.</p>
+ *
+ * <p>The scanner only needs to be strict enough to never return a value a real deserializer would not: any input
+ * it does not understand, including input nested deeper than {@link #MAX_DEPTH}, is reported by returning
+ * {@code null}, in which case callers fall back to full deserialization.</p>
+ *
+ * @since 0.11.0
+ */
+final class JsonScanner {
+
+    /**
+     * Marker value for a selected member whose value is a JSON object or array.
+     */
+    static final Object COMPLEX = new Object();
+
+    private static final int MAX_DEPTH = 256;
+
+    private static final int MAX_INT_DIGITS = 9;
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final byte[] json;
+
+    private int pos;
+
+    private JsonScanner(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * Scans the specified JSON object and returns the values of the top level members named in {@code names}.
+     *
+     * @param json  the UTF-8 encoded JSON object
+     * @param names the names of the members to extract
+     * @return the extracted member values, or {@code null} if the input could not be scanned.
+     */
+    static Map<String, Object> scan(byte[] json, Collection<String> names) {
+        try {
+            return new JsonScanner(json).scanObject(names);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> scanObject(Collection<String> names) {
+        Map<String, Object> values = new HashMap<>();
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (names.contains(name)) {
+                    Object value = readValue();
+                    if (value == null) {
+                        values.remove(name);
+                    } else {
+                        values.put(name, value);
+                    }
+                } else {
+                    skipValue(1);
+                }
+                skipWhitespace();
+                byte b = json[pos++];
+                if (b == '}') {
+                    break;
+                } else if (b != ',') {
+                    throw malformed();
+                }
+            }
+        }
+        skipWhitespace();
+        if (pos != json.length) {
+            throw malformed();
+        }
+        return values;
+    }
+
+    private static IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed JSON");
+    }
+
+    private byte peek() {
+        return json[pos];
+    }
+
+    private void expect(char c) {
+        if (json[pos++] != c) {
+            throw malformed();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length) {
+            byte b = json[pos];
+            if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private Object readValue() {
+        byte b = peek();
+        switch (b) {
+            case '"':
+                pos++;
+                return readString();
+            case '{':
+            case '[':
+                skipValue(1);
+                return COMPLEX;
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    private void skipValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw malformed();
+        }
+        byte b = peek();
+        switch (b) {
+            case '"':
+                pos++;
+                skipString();
+                break;
+            case '{':
+                pos++;
+                skipContainer('}', true, depth);
+                break;
+            case '[':
+                pos++;
+                skipContainer(']', false, depth);
+                break;
+            case 't':
+                expectLiteral("true");
+                break;
+            case 'f':
+                expectLiteral("false");
+                break;
+            case 'n':
+                expectLiteral("null");
+                break;
+            default:
+                scanNumber();
+        }
+    }
+
+    private void skipContainer(char close, boolean object, int depth) {
+        skipWhitespace();
+        if (peek() == close) {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (object) {
+                expect('"');
+                skipString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+            }
+            skipValue(depth + 1);
+            skipWhitespace();
+            byte b = json[pos++];
+            if (b == close) {
+                return;
+            } else if (b != ',') {
+                throw malformed();
+            }
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    /**
+     * Reads the remainder of a string whose opening quote has already been consumed.
+     */
+    private String readString() {
+        int start = pos;
+        StringBuilder sb = null;
+        while (true) {
+            byte b = json[pos];
+            if (b == '"') {
+                String s = new String(json, start, pos - start, Strings.UTF_8);
+                pos++;
+                return sb != null ? sb.append(s).toString() : s;
+            } else if (b == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(new String(json, start, pos - start, Strings.UTF_8));
+                pos++;
+                sb.append(readEscape());
+                start = pos;
+            } else if (b >= 0 && b < 0x20) { //unescaped control characters are not allowed
+                throw malformed();
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    private char readEscape() {
+        byte b = json[pos++];
+        switch (b) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '/':
+                return '/';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int c = 0;
+                for (int i = 0; i < 4; i++) {
+                    c = (c << 4) | hexValue(json[pos++]);
+                }
+                return (char) c;
+            default:
+                throw malformed();
+        }
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        } else if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        } else if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        throw malformed();
+    }
+
+    private void skipString() {
+        while (true) {
+            byte b = json[pos++];
+            if (b == '"') {
+                return;
+            } else if (b == '\\') {
+                readEscape();
+            } else if (b >= 0 && b < 0x20) {
+                throw malformed();
+            }
+        }
+    }
+
+    /**
+     * Validates the number at the current position against the JSON grammar, advances past it and returns whether it
+     * is an integer (has neither a fraction nor an exponent).
+     */
+    private boolean scanNumber() {
+        boolean integer = true;
+        if (peek() == '-') {
+            pos++;
+        }
+        if (peek() == '0') {
+            pos++;
+        } else {
+            requireDigits();
+        }
+        if (pos < json.length && peek() == '.') {
+            integer = false;
+            pos++;
+            requireDigits();
+        }
+        if (pos < json.length && (peek() == 'e' || peek() == 'E')) {
+            integer = false;
+            pos++;
+            if (peek() == '+' || peek() == '-') {
+                pos++;
+            }
+            requireDigits();
+        }
+        return integer;
+    }
+
+    private void requireDigits() {
+        int start = pos;
+        while (pos < json.length && json[pos] >= '0' && json[pos] <= '9') {
+            pos++;
+        }
+        if (pos == start) {
+            throw malformed();
+        }
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean integer = scanNumber();
+        String s = new String(json, start, pos - start, Strings.UTF_8);
+        if (!integer) {
+            return Double.parseDouble(s);
+        }
+        int digits = s.charAt(0) == '-' ? s.length() - 1 : s.length();
+        if (digits <= MAX_INT_DIGITS) {
+            return Integer.parseInt(s);
+        }
+        if (digits <= MAX_LONG_DIGITS) {
+            long l = Long.parseLong(s);
+            return l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ? (Object) (int) l : (Object) l;
+        }
+        BigInteger bi = new BigInteger(s);
+        return bi.bitLength() < Long.SIZE ? (Object) bi.longValue() : bi;
+    }
+}
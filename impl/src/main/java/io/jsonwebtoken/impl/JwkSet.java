@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.crypto.EllipticCurveProvider;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.KeyException;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable set of signature verification keys parsed from a JSON JWK Set
+ * (<a href="https://tools.ietf.org/html/rfc7517#section-5">RFC 7517, Section 5</a>), indexed by {@code kid}.
+ *
+ * <p>RSA and Elliptic Curve public keys and symmetric ({@code oct}) keys are supported.  As recommended by the RFC,
+ * JWKs with an unsupported key type, JWKs not intended for signatures and JWKs that cannot be parsed are ignored, so
+ * that one bad entry does not invalidate the whole set.</p>
+ *
+ * @since 0.11.0
+ */
+final class JwkSet {
+
+    static final JwkSet EMPTY = new JwkSet(Collections.<String, Jwk>emptyMap(), null);
+
+    private static final String DEFAULT_HMAC_JCA_NAME = SignatureAlgorithm.HS256.getJcaName();
+
+    private static final Map<String, SignatureAlgorithm> CURVES;
+
+    static {
+        Map<String, SignatureAlgorithm> curves = new HashMap<>();
+        curves.put("P-256", SignatureAlgorithm.ES256);
+        curves.put("P-384", SignatureAlgorithm.ES384);
+        curves.put("P-521", SignatureAlgorithm.ES512);
+        CURVES = Collections.unmodifiableMap(curves);
+    }
+
+    private static final ConcurrentMap<String, ECParameterSpec> CURVE_PARAMS = new ConcurrentHashMap<>();
+
+    private final Map<String, Jwk> keysById;
+
+    private final Jwk single;
+
+    private JwkSet(Map<String, Jwk> keysById, Jwk single) {
+        this.keysById = keysById;
+        this.single = single;
+    }
+
+    /**
+     * Parses the specified deserialized JSON JWK Set.
+     *
+     * @param jwkSet the deserialized JWK Set
+     * @return the parsed keys.
+     * @throws KeyException if the JSON object is not a JWK Set.
+     */
+    static JwkSet parse(Map<String, ?> jwkSet) throws KeyException {
+        Object keys = jwkSet.get("keys");
+        if (!(keys instanceof Collection)) {
+            throw new KeyException("JWK Set does not contain a 'keys' array.");
+        }
+        Map<String, Jwk> keysById = new HashMap<>();
+        Jwk single = null;
+        int count = 0;
+        for (Object o : (Collection<?>) keys) {
+            if (!(o instanceof Map)) {
+                continue;
+            }
+            Jwk jwk = toJwk((Map<?, ?>) o);
+            if (jwk == null) {
+                continue;
+            }
+            count++;
+            single = jwk;
+            if (jwk.kid != null) {
+                keysById.put(jwk.kid, jwk);
+            }
+        }
+        return new JwkSet(Collections.unmodifiableMap(keysById), count == 1 ? single : null);
+    }
+
+    /**
+     * Returns the key with the specified id, or {@code null} if the set does not contain one.
+     */
+    Jwk get(String kid) {
+        return keysById.get(kid);
+    }
+
+    /**
+     * Returns the only key in the set, or {@code null} if the set does not contain exactly one key.
+     */
+    Jwk getSingle() {
+        return single;
+    }
+
+    Set<String> getKeyIds() {
+        return keysById.keySet();
+    }
+
+    private static Jwk toJwk(Map<?, ?> jwk) {
+        Object use = jwk.get("use");
+        if (use != null && !"sig".equals(use)) {
+            return null;
+        }
+        String kid = stringValue(jwk, "kid");
+        String alg = stringValue(jwk, "alg");
+        String kty = stringValue(jwk, "kty");
+        Key key;
+        try {
+            if ("RSA".equals(kty)) {
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(bigInteger(jwk, "n"), bigInteger(jwk, "e"));
+                key = KeyFactory.getInstance("RSA").generatePublic(spec);
+            } else if ("EC".equals(kty)) {
+                ECParameterSpec params = curveParams(stringValue(jwk, "crv"));
+                if (params == null) {
+                    return null;
+                }
+                ECPoint point = new ECPoint(bigInteger(jwk, "x"), bigInteger(jwk, "y"));
+                key = KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, params));
+            } else if ("oct".equals(kty)) {
+                byte[] k = Decoders.BASE64URL.decode(stringValue(jwk, "k"));
+                SignatureAlgorithm sigAlg = alg != null ? SignatureAlgorithm.forName(alg) : null;
+                String jcaName = sigAlg != null && sigAlg.isHmac() ? sigAlg.getJcaName() : DEFAULT_HMAC_JCA_NAME;
+                key = new SecretKeySpec(k, jcaName);
+            } else {
+                return null;
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return null;
+        }
+        return new Jwk(kid, alg, key);
+    }
+
+    private static String stringValue(Map<?, ?> jwk, String name) {
+        Object value = jwk.get(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static BigInteger bigInteger(Map<?, ?> jwk, String name) {
+        return new BigInteger(1, Decoders.BASE64URL.decode(stringValue(jwk, name)));
+    }
+
+    private static ECParameterSpec curveParams(String crv) {
+        SignatureAlgorithm alg = crv != null ? CURVES.get(crv) : null;
+        if (alg == null) {
+            return null;
+        }
+        ECParameterSpec params = CURVE_PARAMS.get(crv);
+        if (params == null) {
+            //the JCA has no portable way to look up named curve parameters on Java 7, so take them from a new key:
+            params = ((ECPublicKey) EllipticCurveProvider.generateKeyPair(alg).getPublic()).getParams();
+            CURVE_PARAMS.put(crv, params);
+        }
+        return params;
+    }
+
+    static final class Jwk {
+
+        private final String kid;
+        private final String alg;
+        private final Key key;
+
+        Jwk(String kid, String alg, Key key) {
+            this.kid = kid;
+            this.alg = alg;
+            this.key = key;
+        }
+
+        String getKeyId() {
+            return kid;
+        }
+
+        /**
+         * Returns the algorithm the key is restricted to, or {@code null} if it may be used with any algorithm
+         * matching its type.
+         */
+        String getAlgorithm() {
+            return alg;
+        }
+
+        Key getKey() {
+            return key;
+        }
+    }
+}
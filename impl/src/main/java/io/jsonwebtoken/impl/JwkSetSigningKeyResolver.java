@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.impl.io.InstanceLocator;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Classes;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.KeyException;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link SigningKeyResolver} that serves signature verification keys from a JWK Set
+ * (<a href="https://tools.ietf.org/html/rfc7517#section-5">RFC 7517, Section 5</a>), selecting the key by the JWS
+ * {@code kid} header parameter.  RSA and Elliptic Curve public keys and symmetric ({@code oct}) keys are supported.
+ *
+ * <p>The parsed keys are held in an immutable snapshot that is replaced as a whole whenever the set is
+ * {@link #refresh() refreshed} from its {@link JwkSetSource}, so resolving a key never blocks and never waits for a
+ * refresh.  Once {@link #start(ScheduledExecutorService, long, TimeUnit) started}, the set is refreshed periodically
+ * in the background, and a token with an unknown {@code kid} additionally triggers a background refresh (at most once
+ * per {@code minRefreshIntervalMillis}) so that newly published keys are picked up quickly.  If a refresh fails, the
+ * previous keys remain in use and the failure is available from {@link #getLastRefreshFailure()}.</p>
+ *
+ * <p>A JWS without a {@code kid} is only accepted if the set contains exactly one key.  If a JWK specifies an
+ * {@code alg}, it is only used to verify signatures of that algorithm.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ *
+ * @since 0.11.0
+ */
+public final class JwkSetSigningKeyResolver implements SigningKeyResolver {
+
+    private static final long DEFAULT_MIN_REFRESH_INTERVAL_MILLIS = 30000;
+
+    private final JwkSetSource source;
+
+    private final Deserializer<Map<String, ?>> deserializer;
+
+    private final Clock clock;
+
+    private final long minRefreshIntervalMillis;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile JwkSet keys = JwkSet.EMPTY;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    private volatile long lastRefreshMillis;
+
+    private volatile Exception lastRefreshFailure;
+
+    /**
+     * Creates a resolver for the JWK Set supplied by {@code source}, deserialized with the JSON {@link Deserializer}
+     * available at runtime.  The resolver holds no keys until it is {@link #refresh() refreshed} or
+     * {@link #start(ScheduledExecutorService, long, TimeUnit) started}.
+     *
+     * @param source the source of the JWK Set
+     */
+    public JwkSetSigningKeyResolver(JwkSetSource source) {
+        this(source, locateDeserializer(), DefaultClock.INSTANCE, DEFAULT_MIN_REFRESH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a resolver for the JWK Set supplied by {@code source}.  The resolver holds no keys until it is
+     * {@link #refresh() refreshed} or {@link #start(ScheduledExecutorService, long, TimeUnit) started}.
+     *
+     * @param source                   the source of the JWK Set
+     * @param deserializer             the deserializer used to parse the JWK Set JSON
+     * @param clock                    the clock used to rate limit refreshes triggered by unknown key ids
+     * @param minRefreshIntervalMillis the minimum number of milliseconds between two refreshes triggered by unknown
+     *                                 key ids
+     */
+    public JwkSetSigningKeyResolver(JwkSetSource source, Deserializer<Map<String, ?>> deserializer, Clock clock,
+                                    long minRefreshIntervalMillis) {
+        Assert.notNull(source, "JwkSetSource cannot be null.");
+        Assert.notNull(deserializer, "deserializer cannot be null.");
+        Assert.notNull(clock, "Clock cannot be null.");
+        Assert.isTrue(minRefreshIntervalMillis >= 0, "minRefreshIntervalMillis cannot be negative.");
+        this.source = source;
+        this.deserializer = deserializer;
+        this.clock = clock;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+    }
+
+    private static Deserializer<Map<String, ?>> locateDeserializer() {
+        InstanceLocator<Deserializer<Map<String, ?>>> locator =
+            Classes.newInstance("io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator");
+        return locator.getInstance();
+    }
+
+    /**
+     * Loads the JWK Set from the source and, if it can be parsed, replaces the current keys with it.  Lookups
+     * running concurrently continue to see the previous keys until the new ones are available.
+     *
+     * @throws KeyException if the JWK Set cannot be loaded or parsed, in which case the current keys are retained.
+     */
+    public void refresh() throws KeyException {
+        this.lastRefreshMillis = clock.now().getTime();
+        JwkSet keys;
+        try {
+            keys = JwkSet.parse(deserializer.deserialize(source.load()));
+        } catch (IOException | DeserializationException e) {
+            throw new KeyException("Unable to load JWK Set: " + e.getMessage(), e);
+        }
+        this.keys = keys;
+    }
+
+    /**
+     * Refreshes the JWK Set once on the calling thread and then schedules it to be refreshed every {@code period} on
+     * the specified scheduler.  The same scheduler is used for refreshes triggered by unknown key ids.  Stop the
+     * refreshes by shutting down the scheduler.
+     *
+     * @param scheduler the scheduler used to refresh the JWK Set in the background
+     * @param period    the time between the end of one refresh and the start of the next
+     * @param unit      the unit of {@code period}
+     * @throws KeyException if the initial refresh fails; the periodic refresh is scheduled regardless.
+     */
+    public void start(ScheduledExecutorService scheduler, long period, TimeUnit unit) throws KeyException {
+        Assert.notNull(scheduler, "scheduler cannot be null.");
+        Assert.notNull(unit, "TimeUnit cannot be null.");
+        Assert.isTrue(period > 0, "period must be greater than zero.");
+        this.scheduler = scheduler;
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                backgroundRefresh();
+            }
+        }, period, period, unit);
+        refresh();
+    }
+
+    /**
+     * Returns the exception that caused the most recent background refresh to fail, or {@code null} if it
+     * succeeded.
+     *
+     * @return the exception that caused the most recent background refresh to fail, or {@code null}.
+     */
+    public Exception getLastRefreshFailure() {
+        return lastRefreshFailure;
+    }
+
+    /**
+     * Returns the key ids of the keys currently available.
+     *
+     * @return the key ids of the keys currently available.
+     */
+    public Set<String> getKeyIds() {
+        return keys.getKeyIds();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolveSigningKey(header);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolveSigningKey(header);
+    }
+
+    private Key resolveSigningKey(JwsHeader header) {
+        JwkSet keys = this.keys;
+        String kid = header.getKeyId();
+        JwkSet.Jwk jwk = kid != null ? keys.get(kid) : keys.getSingle();
+        if (jwk == null) {
+            if (kid == null) {
+                throw new KeyException("The JWS does not specify a key id (kid) and the JWK Set does not contain " +
+                    "exactly one key.");
+            }
+            requestRefresh();
+            throw new KeyException("The JWK Set does not contain a key with id '" + kid + "'.");
+        }
+        String alg = header.getAlgorithm();
+        if (jwk.getAlgorithm() != null && !jwk.getAlgorithm().equals(alg)) {
+            throw new InvalidKeyException("JWK '" + jwk.getKeyId() + "' may only be used with the " +
+                jwk.getAlgorithm() + " algorithm and cannot verify a " + alg + " signature.");
+        }
+        return jwk.getKey();
+    }
+
+    /**
+     * Schedules a background refresh unless one is already pending or one ran too recently.
+     */
+    private void requestRefresh() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null || clock.now().getTime() - lastRefreshMillis < minRefreshIntervalMillis) {
+            return;
+        }
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            backgroundRefresh();
+                        } finally {
+                            refreshing.set(false);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) { //e.g. the scheduler was shut down
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private void backgroundRefresh() {
+        try {
+            refresh();
+            this.lastRefreshFailure = null;
+        } catch (RuntimeException e) {
+            //keep serving the current keys:
+            this.lastRefreshFailure = e;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import java.io.IOException;
+
+/**
+ * Supplies the current JSON representation of a JWK Set (<a href="https://tools.ietf.org/html/rfc7517#section-5">RFC
+ * 7517, Section 5</a>) to a {@link JwkSetSigningKeyResolver}.  Implementations may read a file or classpath resource
+ * (see {@link JwkSetSources}) or fetch the set from a remote endpoint.
+ *
+ * <p>Sources are only invoked when the resolver is {@link JwkSetSigningKeyResolver#refresh() refreshed}, never while
+ * resolving a key, so they may block.</p>
+ *
+ * @since 0.11.0
+ */
+public interface JwkSetSource {
+
+    /**
+     * Returns the UTF-8 encoded JSON JWK Set.
+     *
+     * @return the UTF-8 encoded JSON JWK Set.
+     * @throws IOException if the JWK Set cannot be obtained
+     */
+    byte[] load() throws IOException;
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Classes;
+import io.jsonwebtoken.lang.Objects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Factory methods for common {@link JwkSetSource}s.
+ *
+ * @since 0.11.0
+ */
+public final class JwkSetSources {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private JwkSetSources() {
+    } //prevent instantiation
+
+    /**
+     * Returns a source that reads the JWK Set from the specified file each time it is loaded.
+     *
+     * @param file the file containing the JSON JWK Set
+     * @return a source that reads the JWK Set from the specified file.
+     */
+    public static JwkSetSource file(final File file) {
+        Assert.notNull(file, "file cannot be null.");
+        return new JwkSetSource() {
+            @Override
+            public byte[] load() throws IOException {
+                return readFully(new FileInputStream(file));
+            }
+        };
+    }
+
+    /**
+     * Returns a source that reads the JWK Set from the specified classpath resource each time it is loaded.
+     *
+     * @param resourceName the name of the classpath resource containing the JSON JWK Set
+     * @return a source that reads the JWK Set from the specified classpath resource.
+     */
+    public static JwkSetSource classpath(final String resourceName) {
+        Assert.hasText(resourceName, "resourceName cannot be null or empty.");
+        return new JwkSetSource() {
+            @Override
+            public byte[] load() throws IOException {
+                InputStream is = Classes.getResourceAsStream(resourceName);
+                if (is == null) {
+                    throw new FileNotFoundException("Classpath resource '" + resourceName + "' does not exist.");
+                }
+                return readFully(is);
+            }
+        };
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            Objects.nullSafeClose(is);
+        }
+    }
+}
@@ -40,6 +40,31 @@ public class JwtMap implements Map<String, Object> {
         putAll(map);
     }
 
+    /**
+     * Invoked before every access to this map's entries.  Does nothing by default; subclasses whose entries are
+     * deserialized on first access override this method and {@link #populate(Map) populate} the map from it.
+     *
+     * @since 0.11.0
+     */
+    protected void materialize() {
+    }
+
+    /**
+     * Adds the specified (deserialized) entries directly to the backing map, without invoking {@link #materialize()}
+     * or any overridden {@code put} method.  {@code null} values are ignored, just as {@link #put(String, Object)}
+     * does not retain them.
+     *
+     * @param values the entries to add
+     * @since 0.11.0
+     */
+    protected final void populate(Map<String, ?> values) {
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (entry.getValue() != null) {
+                map.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     protected String getString(String name) {
         Object v = get(name);
         return v != null ? String.valueOf(v) : null;
@@ -102,6 +127,7 @@ public class JwtMap implements Map<String, Object> {
     }
 
     protected void setValue(String name, Object v) {
+        materialize();
         if (v == null) {
             map.remove(name);
         } else {
@@ -111,6 +137,7 @@ public class JwtMap implements Map<String, Object> {
 
     @Deprecated //remove just before 1.0.0
     protected void setDate(String name, Date d) {
+        materialize();
         if (d == null) {
             map.remove(name);
         } else {
@@ -120,6 +147,7 @@ public class JwtMap implements Map<String, Object> {
     }
 
     protected Object setDateAsSeconds(String name, Date d) {
+        materialize();
         if (d == null) {
             return map.remove(name);
         } else {
@@ -130,31 +158,37 @@ public class JwtMap implements Map<String, Object> {
 
     @Override
     public int size() {
+        materialize();
         return map.size();
     }
 
     @Override
     public boolean isEmpty() {
+        materialize();
         return map.isEmpty();
     }
 
     @Override
     public boolean containsKey(Object o) {
+        materialize();
         return map.containsKey(o);
     }
 
     @Override
     public boolean containsValue(Object o) {
+        materialize();
         return map.containsValue(o);
     }
 
     @Override
     public Object get(Object o) {
+        materialize();
         return map.get(o);
     }
 
     @Override
     public Object put(String s, Object o) {
+        materialize();
         if (o == null) {
             return map.remove(s);
         } else {
@@ -164,6 +198,7 @@ public class JwtMap implements Map<String, Object> {
 
     @Override
     public Object remove(Object o) {
+        materialize();
         return map.remove(o);
     }
 
@@ -180,36 +215,43 @@ public class JwtMap implements Map<String, Object> {
 
     @Override
     public void clear() {
+        materialize();
         map.clear();
     }
 
     @Override
     public Set<String> keySet() {
+        materialize();
         return map.keySet();
     }
 
     @Override
     public Collection<Object> values() {
+        materialize();
         return map.values();
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
+        materialize();
         return map.entrySet();
     }
 
     @Override
     public String toString() {
+        materialize();
         return map.toString();
     }
 
     @Override
     public int hashCode() {
+        materialize();
         return map.hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
+        materialize();
         return map.equals(obj);
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.io.Deserializer;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * {@link Claims} that retain the decoded JSON payload and only deserialize it into a map the first time a claim
+ * other than a scanned one is accessed, or the claims are modified.
+ *
+ * <p>At construction, the top level values of the claims named by the parser (the registered claims and any
+ * expected claims) are {@link ScannedJson scanned}.  Reading one of those claims, as the parser does to validate
+ * {@code exp}, {@code nbf} and expected claims, is served from the scanned values without deserializing the
+ * remaining payload.  Any other access deserializes the payload exactly once with the parser's
+ * {@link Deserializer}, after which these claims behave exactly like {@link DefaultClaims}.</p>
+ *
+ * <p>Deserialization on first access is thread-safe, so instances may be read concurrently just like
+ * {@code DefaultClaims}.</p>
+ *
+ * @since 0.11.0
+ */
+final class LazyClaims extends DefaultClaims {
+
+    private final ScannedJson json;
+
+    private volatile boolean loaded;
+
+    private LazyClaims(ScannedJson json) {
+        this.json = json;
+    }
+
+    /**
+     * Returns lazy claims for the specified JSON object, or {@code null} if the JSON cannot be scanned and must be
+     * deserialized eagerly.
+     *
+     * @param json         the UTF-8 encoded JSON object
+     * @param deserializer the deserializer to use when the claims are first accessed
+     * @param scannedNames the names of the claims to extract up front
+     * @return lazy claims for the specified JSON object, or {@code null} if the JSON cannot be scanned.
+     */
+    static LazyClaims scan(byte[] json, Deserializer<Map<String, ?>> deserializer, Collection<String> scannedNames) {
+        ScannedJson scanned = ScannedJson.scan(json, deserializer, scannedNames);
+        return scanned != null ? new LazyClaims(scanned) : null;
+    }
+
+    /**
+     * Returns a copy of these claims that may be modified independently.  The copy remains lazy if these claims have
+     * not been loaded yet.
+     *
+     * @return a copy of these claims that may be modified independently.
+     */
+    Claims copy() {
+        if (loaded) {
+            return new DefaultClaims(this);
+        }
+        return new LazyClaims(json);
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    protected void materialize() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                populate(json.deserialize());
+                loaded = true;
+            }
+        }
+    }
+
+    @Override
+    public Object get(Object o) {
+        if (!loaded && json.isScanned(o)) {
+            Object value = json.get(o);
+            if (value != JsonScanner.COMPLEX) {
+                return value;
+            }
+        }
+        return super.get(o);
+    }
+
+    @Override
+    public boolean containsKey(Object o) {
+        if (!loaded && json.isScanned(o)) {
+            return json.containsKey(o);
+        }
+        return super.containsKey(o);
+    }
+}
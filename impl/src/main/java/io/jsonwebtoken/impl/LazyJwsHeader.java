@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.io.Deserializer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link JwsHeader} whose standard parameters ({@code alg}, {@code kid}, {@code typ}, {@code cty} and
+ * {@code zip}) are {@link ScannedJson scanned} from the decoded header JSON and that is only deserialized into a map
+ * the first time any other parameter is accessed, or the header is modified.  The parser itself only reads the
+ * scanned parameters, as do typical {@link io.jsonwebtoken.SigningKeyResolver SigningKeyResolver}s, so for most
+ * tokens the header map is never built.
+ *
+ * @see LazyClaims
+ * @since 0.11.0
+ */
+final class LazyJwsHeader extends DefaultJwsHeader {
+
+    @SuppressWarnings("deprecation")
+    static final Set<String> SCANNED_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        JwsHeader.ALGORITHM, JwsHeader.KEY_ID, JwsHeader.TYPE, JwsHeader.CONTENT_TYPE,
+        JwsHeader.COMPRESSION_ALGORITHM, JwsHeader.DEPRECATED_COMPRESSION_ALGORITHM)));
+
+    private final ScannedJson json;
+
+    private volatile boolean loaded;
+
+    private LazyJwsHeader(ScannedJson json) {
+        this.json = json;
+    }
+
+    /**
+     * Returns a lazy header for the specified JSON object, or {@code null} if the JSON cannot be scanned and must be
+     * deserialized eagerly.
+     *
+     * @param json         the UTF-8 encoded JSON object
+     * @param deserializer the deserializer to use when the header is first accessed
+     * @return a lazy header for the specified JSON object, or {@code null} if the JSON cannot be scanned.
+     */
+    static LazyJwsHeader scan(byte[] json, Deserializer<Map<String, ?>> deserializer) {
+        ScannedJson scanned = ScannedJson.scan(json, deserializer, SCANNED_NAMES);
+        return scanned != null ? new LazyJwsHeader(scanned) : null;
+    }
+
+    /**
+     * Returns a copy of this header that may be modified independently.  The copy remains lazy if this header has not
+     * been loaded yet.
+     *
+     * @return a copy of this header that may be modified independently.
+     */
+    JwsHeader copy() {
+        if (loaded) {
+            return new DefaultJwsHeader(this);
+        }
+        return new LazyJwsHeader(json);
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    protected void materialize() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                populate(json.deserialize());
+                loaded = true;
+            }
+        }
+    }
+
+    @Override
+    public Object get(Object o) {
+        if (!loaded && json.isScanned(o)) {
+            Object value = json.get(o);
+            if (value != JsonScanner.COMPLEX) {
+                return value;
+            }
+        }
+        return super.get(o);
+    }
+
+    @Override
+    public boolean containsKey(Object o) {
+        if (!loaded && json.isScanned(o)) {
+            return json.containsKey(o);
+        }
+        return super.containsKey(o);
+    }
+}
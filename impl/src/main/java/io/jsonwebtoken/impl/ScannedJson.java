@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.FieldDeserializer;
+import io.jsonwebtoken.lang.Strings;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The decoded bytes of a JSON object together with the values of a few of its top level members, extracted up front
+ * so that they can be read without deserializing the entire object.  Shared by {@link LazyClaims} and
+ * {@link LazyJwsHeader}.
+ *
+ * <p>Members are extracted with the parser's deserializer if it is a {@link FieldDeserializer} and with the built-in
+ * {@link JsonScanner} otherwise.  Instances are immutable and may be shared between copies of lazy maps.</p>
+ *
+ * @since 0.11.0
+ */
+final class ScannedJson {
+
+    private final byte[] json;
+
+    private final Deserializer<Map<String, ?>> deserializer;
+
+    private final Collection<String> names;
+
+    private final Map<String, Object> values;
+
+    private ScannedJson(byte[] json, Deserializer<Map<String, ?>> deserializer, Collection<String> names,
+                        Map<String, Object> values) {
+        this.json = json;
+        this.deserializer = deserializer;
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Extracts the specified members from the specified JSON object.
+     *
+     * @param json         the UTF-8 encoded JSON object
+     * @param deserializer the deserializer to use for field extraction (if supported) and full deserialization
+     * @param names        the names of the members to extract
+     * @return the scanned JSON, or {@code null} if the members could not be extracted and the JSON must be
+     * deserialized eagerly.
+     */
+    static ScannedJson scan(byte[] json, Deserializer<Map<String, ?>> deserializer, Collection<String> names) {
+        Map<String, Object> values;
+        if (deserializer instanceof FieldDeserializer) {
+            final Map<String, Object> extracted = new HashMap<>();
+            try {
+                ((FieldDeserializer) deserializer).deserializeFields(json, names, new FieldDeserializer.FieldHandler() {
+                    @Override
+                    public void onField(String name, Object value) {
+                        if (value == null) {
+                            extracted.remove(name);
+                        } else {
+                            extracted.put(name, value);
+                        }
+                    }
+                });
+                values = extracted;
+            } catch (DeserializationException e) {
+                //let eager deserialization report the problem exactly as it always has:
+                values = null;
+            }
+        } else {
+            values = JsonScanner.scan(json, names);
+        }
+        return values != null ? new ScannedJson(json, deserializer, names, values) : null;
+    }
+
+    /**
+     * Returns {@code true} if the specified member name was scanned, in which case {@link #containsKey(Object)} is
+     * authoritative and {@link #get(Object)} is authoritative unless it returns {@link JsonScanner#COMPLEX}.
+     */
+    boolean isScanned(Object name) {
+        return names.contains(name);
+    }
+
+    boolean containsKey(Object name) {
+        return values.containsKey(name);
+    }
+
+    Object get(Object name) {
+        return values.get(name);
+    }
+
+    /**
+     * Deserializes the entire JSON object.
+     *
+     * @return the deserialized JSON object.
+     * @throws MalformedJwtException if the JSON cannot be deserialized.
+     */
+    Map<String, ?> deserialize() throws MalformedJwtException {
+        try {
+            return deserializer.deserialize(json);
+        } catch (DeserializationException e) {
+            throw new MalformedJwtException("Unable to read JSON value: " + new String(json, Strings.UTF_8), e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.TokenCacheStats;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe cache of values associated with compact JWT strings, indexed by the SHA-256 digest of the
+ * entire token (including its signature).  Only the 32 byte digest is retained, never the token itself.
+ *
+ * <p>Entries expire {@code ttlMillis} after they were added and the least recently used entry is evicted once the
+ * cache is full.  To limit lock contention the cache is split into up to 16 independently locked LRU segments,
+ * selected by digest, so eviction order is only approximately LRU across the whole cache.  Small caches use fewer
+ * segments so that each holds at least {@value #MIN_SEGMENT_SIZE} entries, and the segment capacities always add up
+ * to {@code maxSize}.</p>
+ *
+ * <p>Callers compute the {@link #keyFor(String) key} once and use it for both the lookup and (on a miss) the
+ * subsequent {@link #put(Object, Object, long) put}.  Timestamps are supplied by the caller, which allows the
+ * parser to use its configured {@link io.jsonwebtoken.Clock}.</p>
+ *
+ * @param <V> the type of cached value
+ * @since 0.11.0
+ */
+final class TokenCache<V> implements TokenCacheStats {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final int MIN_SEGMENT_SIZE = 8;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Segment<V>[] segments;
+
+    private final long ttlMillis;
+
+    private final int maxSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    TokenCache(int maxSize, long ttlMillis) {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than zero.");
+        Assert.isTrue(ttlMillis > 0, "ttlMillis must be greater than zero.");
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+        this.segments = new Segment[segmentCount];
+        int remainder = maxSize % segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            // the first segments absorb the remainder, so that the total capacity is exactly maxSize:
+            this.segments[i] = new Segment<>(maxSize / segmentCount + (i < remainder ? 1 : 0));
+        }
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Returns the cache key for the specified compact JWT string.  Keys are interchangeable between caches.
+     *
+     * @param jwt the compact JWT string
+     * @return the cache key for the specified compact JWT string.
+     */
+    static Object keyFor(String jwt) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            //every Java platform is required to support SHA-256:
+            throw new IllegalStateException("Unable to obtain " + DIGEST_ALGORITHM + " MessageDigest instance.", e);
+        }
+        return new Digest(md.digest(jwt.getBytes(Strings.UTF_8)));
+    }
+
+    /**
+     * Returns the value cached for the specified key, or {@code null} if there is no entry or it expired at or before
+     * {@code nowMillis}.
+     */
+    V get(Object key, long nowMillis) {
+        V value = segmentFor(key).get(key, nowMillis);
+        (value != null ? hitCount : missCount).incrementAndGet();
+        return value;
+    }
+
+    void put(Object key, V value, long nowMillis) {
+        Assert.notNull(value, "value cannot be null.");
+        segmentFor(key).put(key, value, nowMillis + ttlMillis);
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(Object key) {
+        int h = key.hashCode();
+        return segments[((h ^ (h >>> 16)) & 0x7fffffff) % segments.length];
+    }
+
+    private static final class Digest {
+
+        private final byte[] bytes;
+        private final int hashCode;
+
+        Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || (o instanceof Digest && Arrays.equals(bytes, ((Digest) o).bytes));
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final Map<Object, Entry<V>> entries;
+
+        Segment(final int capacity) {
+            this.entries = new LinkedHashMap<Object, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized V get(Object key, long nowMillis) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (nowMillis >= entry.expiresAt) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(Object key, V value, long expiresAt) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
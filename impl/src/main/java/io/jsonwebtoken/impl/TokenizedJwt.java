@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.BufferDecoder;
+import io.jsonwebtoken.io.Decoder;
+import io.jsonwebtoken.lang.Assert;
+
+/**
+ * The location of the three segments of a compact JWT string, found with two {@link String#indexOf(int, int)}
+ * scans.  No characters are copied during tokenization; segments are only materialized (once) when a caller asks
+ * for them.
+ *
+ * <p>The header and payload segments have leading and trailing whitespace excluded and are reported as
+ * {@code null} if empty, exactly as if they had been passed to {@link io.jsonwebtoken.lang.Strings#clean(String)}.
+ * The signature segment is taken as is: it is {@code null} only if nothing follows the second separator, so that a
+ * whitespace-only signature still makes the JWT a JWS and fails verification.</p>
+ *
+ * @since 0.11.0
+ */
+final class TokenizedJwt {
+
+    private static final char SEPARATOR_CHAR = JwtParser.SEPARATOR_CHAR;
+
+    private final String jwt;
+
+    private final int headerStart;
+    private final int headerEnd;
+    private final int payloadStart;
+    private final int payloadEnd;
+    private final int signatureStart;
+    private final int signatureEnd;
+
+    private TokenizedJwt(String jwt, int firstSeparator, int secondSeparator) {
+        this.jwt = jwt;
+
+        int length = jwt.length();
+
+        int start = trimStart(jwt, 0, firstSeparator);
+        this.headerStart = start;
+        this.headerEnd = trimEnd(jwt, start, firstSeparator);
+
+        start = trimStart(jwt, firstSeparator + 1, secondSeparator);
+        this.payloadStart = start;
+        this.payloadEnd = trimEnd(jwt, start, secondSeparator);
+
+        this.signatureStart = secondSeparator + 1;
+        this.signatureEnd = length;
+    }
+
+    /**
+     * Locates the header, payload and signature segments of the specified compact JWT.
+     *
+     * @param jwt the compact JWT string to tokenize
+     * @return the tokenized JWT
+     * @throws MalformedJwtException if the string does not contain exactly two separator characters
+     */
+    static TokenizedJwt tokenize(String jwt) throws MalformedJwtException {
+        Assert.notNull(jwt, "JWT String argument cannot be null.");
+
+        int first = jwt.indexOf(SEPARATOR_CHAR);
+        int second = first < 0 ? -1 : jwt.indexOf(SEPARATOR_CHAR, first + 1);
+
+        if (second < 0 || jwt.indexOf(SEPARATOR_CHAR, second + 1) >= 0) {
+            String msg = "JWT strings must contain exactly 2 period characters. Found: " + countSeparators(jwt);
+            throw new MalformedJwtException(msg);
+        }
+
+        return new TokenizedJwt(jwt, first, second);
+    }
+
+    private static int countSeparators(String jwt) {
+        int count = 0;
+        for (int i = jwt.indexOf(SEPARATOR_CHAR); i >= 0; i = jwt.indexOf(SEPARATOR_CHAR, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int trimStart(String s, int start, int end) {
+        while (start < end && Character.isWhitespace(s.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String s, int start, int end) {
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private String segment(int start, int end) {
+        return start < end ? jwt.substring(start, end) : null;
+    }
+
+    String getJwt() {
+        return jwt;
+    }
+
+    boolean hasHeader() {
+        return headerStart < headerEnd;
+    }
+
+    boolean hasPayload() {
+        return payloadStart < payloadEnd;
+    }
+
+    boolean hasSignature() {
+        return signatureStart < signatureEnd;
+    }
+
+    /**
+     * @return the base64url-encoded header, or {@code null} if the header segment is empty.
+     */
+    String getHeader() {
+        return segment(headerStart, headerEnd);
+    }
+
+    /**
+     * @return the base64url-encoded payload, or {@code null} if the payload segment is empty.
+     */
+    String getPayload() {
+        return segment(payloadStart, payloadEnd);
+    }
+
+    /**
+     * @return the base64url-encoded signature, or {@code null} if the signature segment is empty.
+     */
+    String getSignature() {
+        return segment(signatureStart, signatureEnd);
+    }
+
+    /**
+     * Decodes the header segment with the specified decoder.  If the decoder is a {@link BufferDecoder}, the segment
+     * is decoded in place from the original JWT string without being copied first.
+     *
+     * @param decoder the base64url decoder to use
+     * @return the decoded header, or {@code null} if the header segment is empty.
+     */
+    byte[] decodeHeader(Decoder<String, byte[]> decoder) {
+        return decode(decoder, headerStart, headerEnd);
+    }
+
+    /**
+     * Decodes the payload segment with the specified decoder.  If the decoder is a {@link BufferDecoder}, the segment
+     * is decoded in place from the original JWT string without being copied first.
+     *
+     * @param decoder the base64url decoder to use
+     * @return the decoded payload, or {@code null} if the payload segment is empty.
+     */
+    byte[] decodePayload(Decoder<String, byte[]> decoder) {
+        return decode(decoder, payloadStart, payloadEnd);
+    }
+
+    private byte[] decode(Decoder<String, byte[]> decoder, int start, int end) {
+        if (start >= end) {
+            return null;
+        }
+        if (decoder instanceof BufferDecoder) {
+            BufferDecoder bufferDecoder = (BufferDecoder) decoder;
+            int length = end - start;
+            byte[] bytes = new byte[bufferDecoder.getDecodedLength(jwt, start, length)];
+            bufferDecoder.decode(jwt, start, length, bytes, 0);
+            return bytes;
+        }
+        return decoder.decode(jwt.substring(start, end));
+    }
+
+    private boolean isSigningInputContiguous() {
+        int separator = jwt.indexOf(SEPARATOR_CHAR, headerEnd);
+        return separator == headerEnd && payloadStart == separator + 1;
+    }
+
+    /**
+     * Returns the JWS Signing Input ({@code header.payload}) that must be used when verifying the signature.  For
+     * well-formed tokens (no whitespace around segments) this is a single substring of the original JWT.
+     *
+     * @return the JWS Signing Input.
+     */
+    String getSigningInput() {
+        if (isSigningInputContiguous()) {
+            return jwt.substring(headerStart, payloadEnd);
+        }
+        //whitespace was trimmed between segments, so the signed content must be reassembled:
+        return getHeader() + SEPARATOR_CHAR + getPayload();
+    }
+
+    /**
+     * Returns the US-ASCII bytes of the {@link #getSigningInput() JWS Signing Input}.  For well-formed tokens the
+     * bytes are encoded directly from the original JWT string without creating an intermediate String.
+     *
+     * @return the US-ASCII bytes of the JWS Signing Input.
+     */
+    byte[] getSigningInputBytes() {
+        if (isSigningInputContiguous()) {
+            return toAscii(jwt, headerStart, payloadEnd);
+        }
+        String signingInput = getSigningInput();
+        return toAscii(signingInput, 0, signingInput.length());
+    }
+
+    /**
+     * Equivalent to {@code s.substring(start, end).getBytes("US-ASCII")} without the intermediate String or
+     * CharsetEncoder.  Non-ASCII characters (which cannot appear in a valid token) are replaced with {@code '?'}.
+     */
+    private static byte[] toAscii(String s, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start, j = 0; i < end; i++, j++) {
+            char c = s.charAt(i);
+            bytes[j] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return bytes;
+    }
+}
@@ -56,8 +56,14 @@ public class DefaultJwtSignatureValidator implements JwtSignatureValidator {
 
         byte[] data = jwtWithoutSignature.getBytes(US_ASCII);
 
+        return isValid(data, base64UrlEncodedSignature);
+    }
+
+    @Override
+    public boolean isValid(byte[] jwtWithoutSignature, String base64UrlEncodedSignature) {
+
         byte[] signature = base64UrlDecoder.decode(base64UrlEncodedSignature);
 
-        return this.signatureValidator.isValid(data, signature);
+        return this.signatureValidator.isValid(jwtWithoutSignature, signature);
     }
 }
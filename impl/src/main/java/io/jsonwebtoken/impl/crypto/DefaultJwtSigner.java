@@ -56,8 +56,21 @@ public class DefaultJwtSigner implements JwtSigner {
 
         byte[] bytesToSign = jwtWithoutSignature.getBytes(US_ASCII);
 
-        byte[] signature = signer.sign(bytesToSign);
+        byte[] signature = computeSignature(bytesToSign);
 
         return base64UrlEncoder.encode(signature);
     }
+
+    /**
+     * Returns the raw signature of the specified US-ASCII bytes of a compact JWT without its signature, allowing a
+     * caller that already holds those bytes to avoid converting them to and from a <code>String</code>.
+     *
+     * @param jwtWithoutSignature the US-ASCII bytes of the base64url-encoded header, a period and the
+     *                            base64url-encoded payload
+     * @return the raw signature bytes
+     * @since 0.11.0
+     */
+    public byte[] computeSignature(byte[] jwtWithoutSignature) {
+        return signer.sign(jwtWithoutSignature);
+    }
 }
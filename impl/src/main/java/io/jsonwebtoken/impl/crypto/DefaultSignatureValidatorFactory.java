@@ -24,6 +24,24 @@ public class DefaultSignatureValidatorFactory implements SignatureValidatorFacto
 
     public static final SignatureValidatorFactory INSTANCE = new DefaultSignatureValidatorFactory();
 
+    /**
+     * A factory whose instances borrow already-initialized JCA engines from a shared, bounded pool instead of
+     * obtaining and initializing a new engine for every operation.
+     *
+     * @since 0.11.0
+     */
+    public static final SignatureValidatorFactory POOLED = new DefaultSignatureValidatorFactory(EnginePool.INSTANCE);
+
+    private final EnginePool enginePool;
+
+    public DefaultSignatureValidatorFactory() {
+        this(null);
+    }
+
+    private DefaultSignatureValidatorFactory(EnginePool enginePool) {
+        this.enginePool = enginePool;
+    }
+
     @Override
     public SignatureValidator createSignatureValidator(SignatureAlgorithm alg, Key key) {
         Assert.notNull(alg, "SignatureAlgorithm cannot be null.");
@@ -33,18 +51,18 @@ public class DefaultSignatureValidatorFactory implements SignatureValidatorFacto
             case HS256:
             case HS384:
             case HS512:
-                return new MacValidator(alg, key);
+                return new MacValidator(alg, key, enginePool);
             case RS256:
             case RS384:
             case RS512:
             case PS256:
             case PS384:
             case PS512:
-                return new RsaSignatureValidator(alg, key);
+                return new RsaSignatureValidator(alg, key, enginePool);
             case ES256:
             case ES384:
             case ES512:
-                return new EllipticCurveSignatureValidator(alg, key);
+                return new EllipticCurveSignatureValidator(alg, key, enginePool);
             default:
                 throw new IllegalArgumentException("The '" + alg.name() + "' algorithm cannot be used for signing.");
         }
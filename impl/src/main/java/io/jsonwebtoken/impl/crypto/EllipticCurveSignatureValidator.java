@@ -24,20 +24,41 @@ import java.security.Key;
 import java.security.PublicKey;
 import java.security.Signature;
 import java.security.interfaces.ECPublicKey;
+import java.util.Queue;
 
 public class EllipticCurveSignatureValidator extends EllipticCurveProvider implements SignatureValidator {
 
     private static final String EC_PUBLIC_KEY_REQD_MSG =
         "Elliptic Curve signature validation requires an ECPublicKey instance.";
 
+    /**
+     * Idle Signature instances already initialized for verification with this validator's public key, or
+     * {@code null} if pooling is disabled.
+     *
+     * @since 0.11.0
+     */
+    private final Queue<Signature> idleSignatures;
+
     public EllipticCurveSignatureValidator(SignatureAlgorithm alg, Key key) {
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    EllipticCurveSignatureValidator(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
         super(alg, key);
         Assert.isTrue(key instanceof ECPublicKey, EC_PUBLIC_KEY_REQD_MSG);
+        this.idleSignatures = enginePool != null ? enginePool.<Signature>getIdleEngines(alg, key) : null;
     }
 
     @Override
     public boolean isValid(byte[] data, byte[] signature) {
-        Signature sig = createSignatureInstance();
+        Signature sig = idleSignatures != null ? idleSignatures.poll() : null;
+        boolean initialized = sig != null;
+        if (!initialized) {
+            sig = createSignatureInstance();
+        }
         PublicKey publicKey = (PublicKey) key;
         try {
             int expectedSize = getSignatureByteArrayLength(alg);
@@ -49,7 +70,18 @@ public class EllipticCurveSignatureValidator extends EllipticCurveProvider imple
              *
              * **/
             byte[] derSignature = expectedSize != signature.length && signature[0] == 0x30 ? signature : EllipticCurveProvider.transcodeSignatureToDER(signature);
-            return doVerify(sig, publicKey, data, derSignature);
+            boolean valid;
+            if (initialized) {
+                sig.update(data);
+                valid = sig.verify(derSignature);
+            } else {
+                valid = doVerify(sig, publicKey, data, derSignature);
+            }
+            if (idleSignatures != null) {
+                //verify() resets the Signature to its initialized-for-verification state, so it can be reused:
+                idleSignatures.offer(sig);
+            }
+            return valid;
         } catch (Exception e) {
             String msg = "Unable to verify Elliptic Curve signature using configured ECPublicKey. " + e.getMessage();
             throw new SignatureException(msg, e);
@@ -24,22 +24,39 @@ import java.security.Key;
 import java.security.PrivateKey;
 import java.security.Signature;
 import java.security.interfaces.ECKey;
+import java.util.Queue;
 
 public class EllipticCurveSigner extends EllipticCurveProvider implements Signer {
 
+    /**
+     * Idle Signature instances already initialized for signing with this signer's private key, or {@code null} if
+     * pooling is disabled.
+     *
+     * @since 0.11.0
+     */
+    private final Queue<Signature> idleSignatures;
+
     public EllipticCurveSigner(SignatureAlgorithm alg, Key key) {
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    EllipticCurveSigner(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
         super(alg, key);
         if (!(key instanceof PrivateKey && key instanceof ECKey)) {
             String msg = "Elliptic Curve signatures must be computed using an EC PrivateKey.  The specified key of " +
                          "type " + key.getClass().getName() + " is not an EC PrivateKey.";
             throw new IllegalArgumentException(msg);
         }
+        this.idleSignatures = enginePool != null ? enginePool.<Signature>getIdleEngines(alg, key) : null;
     }
 
     @Override
     public byte[] sign(byte[] data) {
         try {
-            return doSign(data);
+            return idleSignatures != null ? doSignPooled(data) : doSign(data);
         } catch (InvalidKeyException e) {
             throw new SignatureException("Invalid Elliptic Curve PrivateKey. " + e.getMessage(), e);
         } catch (java.security.SignatureException e) {
@@ -56,4 +73,17 @@ public class EllipticCurveSigner extends EllipticCurveProvider implements Signer
         sig.update(data);
         return transcodeSignatureToConcat(sig.sign(), getSignatureByteArrayLength(alg));
     }
+
+    private byte[] doSignPooled(byte[] data) throws InvalidKeyException, java.security.SignatureException,
+        JwtException {
+        Signature sig = idleSignatures.poll();
+        if (sig == null) {
+            sig = createSignatureInstance();
+            sig.initSign((PrivateKey) key);
+        }
+        sig.update(data);
+        byte[] der = sig.sign(); //sign() resets the Signature to its initialized-for-signing state
+        idleSignatures.offer(sig);
+        return transcodeSignatureToConcat(der, getSignatureByteArrayLength(alg));
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.crypto;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.lang.Assert;
+
+import java.security.Key;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, thread-safe cache of idle JCA engine instances ({@link javax.crypto.Mac} or
+ * {@link java.security.Signature}) that have already been looked up and initialized for a specific
+ * algorithm and key.
+ *
+ * <p>Obtaining a JCA engine requires a provider lookup and initializing it with a key requires computing the key
+ * schedule.  For small tokens that setup dominates the cost of the actual MAC or signature computation.  Engines are
+ * reusable once an operation completes ({@code Mac.doFinal}, {@code Signature.sign} and {@code Signature.verify}
+ * all reset the engine to its initialized state), so signers and validators borrow an engine from the idle queue for
+ * their algorithm and key, use it, and return it for the next caller.</p>
+ *
+ * <p>Both dimensions are bounded: at most {@code maxIdle} engines are retained per algorithm and key, and
+ * at most {@code maxKeys} distinct algorithm/key combinations are tracked.  When the latter limit is reached, an
+ * arbitrary existing entry is evicted.  Engines that are not returned (for example, because an operation failed) are
+ * simply garbage collected.</p>
+ *
+ * @since 0.11.0
+ */
+final class EnginePool {
+
+    private static final int DEFAULT_MAX_KEYS = 256;
+
+    private static final int DEFAULT_MAX_IDLE = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    static final EnginePool INSTANCE = new EnginePool(DEFAULT_MAX_KEYS, DEFAULT_MAX_IDLE);
+
+    private final ConcurrentMap<PoolKey, Queue<Object>> pools;
+
+    private final int maxKeys;
+
+    private final int maxIdle;
+
+    EnginePool(int maxKeys, int maxIdle) {
+        Assert.isTrue(maxKeys > 0, "maxKeys must be greater than zero.");
+        Assert.isTrue(maxIdle > 0, "maxIdle must be greater than zero.");
+        this.maxKeys = maxKeys;
+        this.maxIdle = maxIdle;
+        this.pools = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the queue of idle engines for the specified algorithm and key, creating it if necessary.  Callers
+     * should retain the returned queue for as long as they use the same algorithm and key: {@code poll()} an engine
+     * before each operation (creating a new one if {@code null}) and {@code offer(engine)} it back after the operation
+     * completed successfully.
+     *
+     * @param alg the signature algorithm the engines are initialized for
+     * @param key the key the engines are initialized with
+     * @param <T> the engine type, implied by the algorithm: {@code Mac} for HMAC algorithms, {@code Signature}
+     *            otherwise
+     * @return the queue of idle engines for the specified algorithm and key.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Queue<T> getIdleEngines(SignatureAlgorithm alg, Key key) {
+        PoolKey poolKey = new PoolKey(alg, key);
+        Queue<Object> idle = pools.get(poolKey);
+        if (idle == null) {
+            if (pools.size() >= maxKeys) {
+                evictOne();
+            }
+            Queue<Object> created = new ArrayBlockingQueue<>(maxIdle);
+            idle = pools.putIfAbsent(poolKey, created);
+            if (idle == null) {
+                idle = created;
+            }
+        }
+        return (Queue<T>) idle;
+    }
+
+    private void evictOne() {
+        Iterator<PoolKey> i = pools.keySet().iterator();
+        if (i.hasNext()) {
+            i.next();
+            i.remove();
+        }
+    }
+
+    int size() {
+        return pools.size();
+    }
+
+    private static final class PoolKey {
+
+        private final SignatureAlgorithm alg;
+        private final Key key;
+        private final int hashCode;
+
+        PoolKey(SignatureAlgorithm alg, Key key) {
+            Assert.notNull(alg, "SignatureAlgorithm cannot be null.");
+            Assert.notNull(key, "Key cannot be null.");
+            this.alg = alg;
+            this.key = key;
+            this.hashCode = 31 * alg.hashCode() + key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return alg == other.alg && key.equals(other.key);
+        }
+    }
+}
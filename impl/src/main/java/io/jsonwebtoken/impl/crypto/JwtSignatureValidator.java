@@ -18,4 +18,16 @@ package io.jsonwebtoken.impl.crypto;
 public interface JwtSignatureValidator {
 
     boolean isValid(String jwtWithoutSignature, String base64UrlEncodedSignature);
+
+    /**
+     * Returns {@code true} if the specified signature is valid for the given US-ASCII bytes of the JWS Signing
+     * Input ({@code base64UrlHeader.base64UrlPayload}), {@code false} otherwise.  Callers that already hold the signing
+     * input as bytes should prefer this method to avoid creating an intermediate String.
+     *
+     * @param jwtWithoutSignature       the US-ASCII bytes of the JWS Signing Input
+     * @param base64UrlEncodedSignature the base64url-encoded signature to verify
+     * @return {@code true} if the signature is valid, {@code false} otherwise.
+     * @since 0.11.0
+     */
+    boolean isValid(byte[] jwtWithoutSignature, String base64UrlEncodedSignature);
 }
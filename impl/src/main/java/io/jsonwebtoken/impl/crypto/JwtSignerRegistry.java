@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.crypto;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoder;
+import io.jsonwebtoken.lang.Assert;
+
+import java.security.Key;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, thread-safe registry of {@link DefaultJwtSigner}s indexed by signature algorithm, key and base64url
+ * encoder.  A {@code JwtBuilder} otherwise creates a new {@code JwtSigner} and {@link Signer} for every token it
+ * signs, asserting the key's suitability for the algorithm each time.  With a registry, that work is done once per
+ * algorithm and key, and the returned signer is shared by all callers.
+ *
+ * <p>Keys are compared using their {@code equals} method, base64url encoders by identity.  The registry does not
+ * track usage order: once it holds {@code maxSize} signers, registering another one discards all existing signers
+ * first.</p>
+ *
+ * <p>{@link #POOLED} creates its signers with {@link DefaultSignerFactory#POOLED}, so the shared signers also reuse
+ * initialized JCA engines instead of obtaining them for every signature.</p>
+ *
+ * @since 0.11.0
+ */
+public final class JwtSignerRegistry {
+
+    private static final int DEFAULT_MAX_SIZE = 256;
+
+    /**
+     * A registry shared by all builders that enable crypto engine pooling.
+     */
+    public static final JwtSignerRegistry POOLED = new JwtSignerRegistry(DefaultSignerFactory.POOLED, DEFAULT_MAX_SIZE);
+
+    private final ConcurrentMap<RegistryKey, DefaultJwtSigner> signers = new ConcurrentHashMap<>();
+
+    private final SignerFactory signerFactory;
+
+    private final int maxSize;
+
+    /**
+     * Creates a registry retaining up to {@code maxSize} signers created with the specified factory.
+     *
+     * @param signerFactory the factory used to create the {@link Signer} of each registered signer
+     * @param maxSize       the maximum number of signers to retain
+     */
+    public JwtSignerRegistry(SignerFactory signerFactory, int maxSize) {
+        Assert.notNull(signerFactory, "SignerFactory cannot be null.");
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than zero.");
+        this.signerFactory = signerFactory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the signer for the specified algorithm, key and encoder, creating and registering it first if
+     * necessary.
+     *
+     * @param alg              the signature algorithm
+     * @param key              the signing key
+     * @param base64UrlEncoder the encoder used to encode signatures
+     * @return the shared signer for the specified algorithm, key and encoder.
+     */
+    public DefaultJwtSigner getSigner(SignatureAlgorithm alg, Key key, Encoder<byte[], String> base64UrlEncoder) {
+        RegistryKey registryKey = new RegistryKey(alg, key, base64UrlEncoder);
+        DefaultJwtSigner signer = signers.get(registryKey);
+        if (signer == null) {
+            signer = new DefaultJwtSigner(signerFactory, alg, key, base64UrlEncoder);
+            if (signers.size() >= maxSize) {
+                signers.clear();
+            }
+            DefaultJwtSigner existing = signers.putIfAbsent(registryKey, signer);
+            if (existing != null) {
+                signer = existing;
+            }
+        }
+        return signer;
+    }
+
+    /**
+     * Discards all registered signers.
+     */
+    public void clear() {
+        signers.clear();
+    }
+
+    int size() {
+        return signers.size();
+    }
+
+    private static final class RegistryKey {
+
+        private final SignatureAlgorithm alg;
+        private final Key key;
+        private final Encoder<byte[], String> encoder;
+        private final int hashCode;
+
+        RegistryKey(SignatureAlgorithm alg, Key key, Encoder<byte[], String> encoder) {
+            Assert.notNull(alg, "SignatureAlgorithm cannot be null.");
+            Assert.notNull(key, "Signing Key cannot be null.");
+            Assert.notNull(encoder, "Base64Url Encoder cannot be null.");
+            this.alg = alg;
+            this.key = key;
+            this.encoder = encoder;
+            this.hashCode = 31 * (31 * alg.hashCode() + key.hashCode()) + System.identityHashCode(encoder);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RegistryKey)) {
+                return false;
+            }
+            RegistryKey other = (RegistryKey) o;
+            return alg == other.alg && encoder == other.encoder && key.equals(other.key);
+        }
+    }
+}
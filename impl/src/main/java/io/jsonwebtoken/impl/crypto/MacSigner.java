@@ -25,14 +25,30 @@ import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
 
 public class MacSigner extends MacProvider implements Signer {
 
+    /**
+     * Idle, already-initialized Mac instances for this signer's algorithm and key, or {@code null} if pooling is
+     * disabled.
+     *
+     * @since 0.11.0
+     */
+    private final Queue<Mac> idleMacs;
+
     public MacSigner(SignatureAlgorithm alg, byte[] key) {
         this(alg, new SecretKeySpec(key, alg.getJcaName()));
     }
 
     public MacSigner(SignatureAlgorithm alg, Key key) {
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    MacSigner(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
         super(alg, key);
         Assert.isTrue(alg.isHmac(), "The MacSigner only supports HMAC signature algorithms.");
         if (!(key instanceof SecretKey)) {
@@ -40,12 +56,23 @@ public class MacSigner extends MacProvider implements Signer {
                          "type " + key.getClass().getName() + " is not a SecretKey.";
             throw new IllegalArgumentException(msg);
         }
+        this.idleMacs = enginePool != null ? enginePool.<Mac>getIdleEngines(alg, key) : null;
     }
 
     @Override
     public byte[] sign(byte[] data) {
-        Mac mac = getMacInstance();
-        return mac.doFinal(data);
+        if (idleMacs == null) {
+            Mac mac = getMacInstance();
+            return mac.doFinal(data);
+        }
+
+        Mac mac = idleMacs.poll();
+        if (mac == null) {
+            mac = getMacInstance();
+        }
+        byte[] result = mac.doFinal(data); //doFinal resets the Mac, so it can be reused with the same key
+        idleMacs.offer(mac);
+        return result;
     }
 
     protected Mac getMacInstance() throws SignatureException {
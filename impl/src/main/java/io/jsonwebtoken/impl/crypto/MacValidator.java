@@ -25,7 +25,14 @@ public class MacValidator implements SignatureValidator {
     private final MacSigner signer;
 
     public MacValidator(SignatureAlgorithm alg, Key key) {
-        this.signer = new MacSigner(alg, key);
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    MacValidator(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
+        this.signer = new MacSigner(alg, key, enginePool);
     }
 
     @Override
@@ -26,25 +26,58 @@ import java.security.Signature;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
+import java.util.Queue;
 
 public class RsaSignatureValidator extends RsaProvider implements SignatureValidator {
 
     private final RsaSigner SIGNER;
 
+    /**
+     * Idle Signature instances already initialized for verification with this validator's public key, or
+     * {@code null} if pooling is disabled.
+     *
+     * @since 0.11.0
+     */
+    private final Queue<Signature> idleSignatures;
+
     public RsaSignatureValidator(SignatureAlgorithm alg, Key key) {
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    RsaSignatureValidator(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
         super(alg, key);
         Assert.isTrue(key instanceof RSAPrivateKey || key instanceof RSAPublicKey,
                       "RSA Signature validation requires either a RSAPublicKey or RSAPrivateKey instance.");
         this.SIGNER = key instanceof RSAPrivateKey ? new RsaSigner(alg, key) : null;
+        this.idleSignatures = enginePool != null && key instanceof PublicKey ?
+            enginePool.<Signature>getIdleEngines(alg, key) : null;
     }
 
     @Override
     public boolean isValid(byte[] data, byte[] signature) {
         if (key instanceof PublicKey) {
-            Signature sig = createSignatureInstance();
+            Signature sig = idleSignatures != null ? idleSignatures.poll() : null;
+            boolean initialized = sig != null;
+            if (!initialized) {
+                sig = createSignatureInstance();
+            }
             PublicKey publicKey = (PublicKey) key;
             try {
-                return doVerify(sig, publicKey, data, signature);
+                boolean valid;
+                if (initialized) {
+                    sig.update(data);
+                    valid = sig.verify(signature);
+                } else {
+                    valid = doVerify(sig, publicKey, data, signature);
+                }
+                if (idleSignatures != null) {
+                    //verify() resets the Signature to its initialized-for-verification state, so it can be reused:
+                    idleSignatures.offer(sig);
+                }
+                return valid;
             } catch (Exception e) {
                 String msg = "Unable to verify RSA signature using configured PublicKey. " + e.getMessage();
                 throw new SignatureException(msg, e);
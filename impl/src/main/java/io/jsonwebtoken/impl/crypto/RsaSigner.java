@@ -23,10 +23,26 @@ import java.security.Key;
 import java.security.PrivateKey;
 import java.security.Signature;
 import java.security.interfaces.RSAKey;
+import java.util.Queue;
 
 public class RsaSigner extends RsaProvider implements Signer {
 
+    /**
+     * Idle Signature instances already initialized for signing with this signer's private key, or {@code null} if
+     * pooling is disabled.
+     *
+     * @since 0.11.0
+     */
+    private final Queue<Signature> idleSignatures;
+
     public RsaSigner(SignatureAlgorithm alg, Key key) {
+        this(alg, key, null);
+    }
+
+    /**
+     * @since 0.11.0
+     */
+    RsaSigner(SignatureAlgorithm alg, Key key, EnginePool enginePool) {
         super(alg, key);
         // https://github.com/jwtk/jjwt/issues/68
         // Instead of checking for an instance of RSAPrivateKey, check for PrivateKey and RSAKey:
@@ -35,12 +51,13 @@ public class RsaSigner extends RsaProvider implements Signer {
                          key.getClass().getName() + " is not an RSA PrivateKey.";
             throw new IllegalArgumentException(msg);
         }
+        this.idleSignatures = enginePool != null ? enginePool.<Signature>getIdleEngines(alg, key) : null;
     }
 
     @Override
     public byte[] sign(byte[] data) {
         try {
-            return doSign(data);
+            return idleSignatures != null ? doSignPooled(data) : doSign(data);
         } catch (InvalidKeyException e) {
             throw new SignatureException("Invalid RSA PrivateKey. " + e.getMessage(), e);
         } catch (java.security.SignatureException e) {
@@ -56,4 +73,16 @@ public class RsaSigner extends RsaProvider implements Signer {
         return sig.sign();
     }
 
+    private byte[] doSignPooled(byte[] data) throws InvalidKeyException, java.security.SignatureException {
+        Signature sig = idleSignatures.poll();
+        if (sig == null) {
+            sig = createSignatureInstance();
+            sig.initSign((PrivateKey) key);
+        }
+        sig.update(data);
+        byte[] signature = sig.sign(); //sign() resets the Signature to its initialized-for-signing state
+        idleSignatures.offer(sig);
+        return signature;
+    }
+
 }
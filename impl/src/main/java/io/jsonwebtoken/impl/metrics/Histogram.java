@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.metrics;
+
+import io.jsonwebtoken.lang.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative {@code long} values with power-of-two buckets, suitable for recording
+ * latencies and sizes from many threads concurrently.
+ *
+ * <p>Bucket {@code 0} counts the value {@code 0} and bucket {@code n} counts the values from {@code 2^(n-1)} to
+ * {@code 2^n - 1}, so {@link #getValueAtPercentile(double) percentiles} are accurate to within a factor of two while
+ * recording a value is a few atomic increments.  Negative values are recorded as {@code 0}.</p>
+ *
+ * <p>The counters are updated independently, so the values read while other threads are recording may be
+ * momentarily inconsistent with each other, for example the sum may already include a value the count does not.</p>
+ *
+ * @since 0.11.0
+ */
+public final class Histogram {
+
+    /**
+     * The number of buckets of every histogram.
+     */
+    public static final int BUCKET_COUNT = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Returns the index of the bucket counting the specified value.
+     *
+     * @param value the value to return the bucket index for
+     * @return the index of the bucket counting the specified value.
+     */
+    public static int getBucketIndex(long value) {
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Returns the largest value counted by the specified bucket.
+     *
+     * @param index the index of the bucket
+     * @return the largest value counted by the specified bucket.
+     */
+    public static long getBucketUpperBound(int index) {
+        Assert.isTrue(index >= 0 && index < BUCKET_COUNT, "bucket index must be between 0 and " + (BUCKET_COUNT - 1));
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << index) - 1;
+    }
+
+    /**
+     * Records the specified value.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(getBucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the sum of all recorded values.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the largest recorded value, or {@code 0} if no value was recorded.
+     *
+     * @return the largest recorded value, or {@code 0} if no value was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the arithmetic mean of all recorded values, or {@code 0} if no value was recorded.
+     *
+     * @return the arithmetic mean of all recorded values, or {@code 0} if no value was recorded.
+     */
+    public double getMean() {
+        long n = count.get();
+        return n > 0 ? (double) sum.get() / n : 0;
+    }
+
+    /**
+     * Returns the number of recorded values counted by the specified bucket.
+     *
+     * @param index the index of the bucket
+     * @return the number of recorded values counted by the specified bucket.
+     * @see #getBucketUpperBound(int)
+     */
+    public long getBucketCount(int index) {
+        Assert.isTrue(index >= 0 && index < BUCKET_COUNT, "bucket index must be between 0 and " + (BUCKET_COUNT - 1));
+        return buckets.get(index);
+    }
+
+    /**
+     * Returns an upper bound of the value below which the specified percentage of recorded values fall: the upper
+     * bound of the bucket containing that value, but never more than the {@link #getMax() largest} recorded value.
+     *
+     * @param percentile the percentage of recorded values, between {@code 0} and {@code 100}
+     * @return an upper bound of the value at the specified percentile, or {@code 0} if no value was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        Assert.isTrue(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100.");
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        int index = 0;
+        for (; index < BUCKET_COUNT - 1; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return Math.min(getBucketUpperBound(index), max.get());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2019 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.metrics;
+
+import io.jsonwebtoken.JwtMetrics;
+import io.jsonwebtoken.JwtMetrics.Failure;
+import io.jsonwebtoken.JwtMetrics.Stage;
+import io.jsonwebtoken.JwtMetricsListener;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.lang.Assert;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link JwtMetricsListener} that aggregates the metrics of all parse and build operations into lock-free
+ * {@link Histogram histograms} and counters, to be read periodically and exported to a monitoring system:
+ *
+ * <pre>
+ * HistogramMetricsListener metrics = new HistogramMetricsListener();
+ * JwtParser parser = Jwts.parser().setSigningKey(key).setMetricsListener(metrics).compile();
+ * ...
+ * long p99 = metrics.getParseNanos().getValueAtPercentile(99);
+ * long expired = metrics.getParseFailureCount(JwtMetrics.Failure.EXPIRED);</pre>
+ *
+ * <p>Recording never blocks, so a single instance may be shared by any number of parsers and builders used
+ * concurrently.  Values are cumulative for the lifetime of the instance.</p>
+ *
+ * @since 0.11.0
+ */
+public final class HistogramMetricsListener implements JwtMetricsListener {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final Histogram parseNanos = new Histogram();
+
+    private final Histogram buildNanos = new Histogram();
+
+    private final Histogram parsedTokenLength = new Histogram();
+
+    private final Histogram builtTokenLength = new Histogram();
+
+    private final Map<Stage, Histogram> stageNanos = newHistograms(Stage.class);
+
+    private final Map<SignatureAlgorithm, Histogram> parseNanosByAlgorithm = newHistograms(SignatureAlgorithm.class);
+
+    private final Map<SignatureAlgorithm, Histogram> buildNanosByAlgorithm = newHistograms(SignatureAlgorithm.class);
+
+    private final AtomicLongArray parseFailures = new AtomicLongArray(Failure.values().length);
+
+    private final AtomicLongArray buildFailures = new AtomicLongArray(Failure.values().length);
+
+    private final AtomicLong cachedParseCount = new AtomicLong();
+
+    /**
+     * Returns an unmodifiable map with a histogram for every constant of the specified enum, so that recording
+     * only ever reads the map.
+     */
+    private static <E extends Enum<E>> Map<E, Histogram> newHistograms(Class<E> type) {
+        Map<E, Histogram> histograms = new EnumMap<>(type);
+        for (E e : type.getEnumConstants()) {
+            histograms.put(e, new Histogram());
+        }
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    @Override
+    public void onParse(JwtMetrics metrics) {
+        record(metrics, parseNanos, parseNanosByAlgorithm, parsedTokenLength, parseFailures);
+        if (metrics.isCached()) {
+            cachedParseCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onBuild(JwtMetrics metrics) {
+        record(metrics, buildNanos, buildNanosByAlgorithm, builtTokenLength, buildFailures);
+    }
+
+    private void record(JwtMetrics metrics, Histogram totalNanos, Map<SignatureAlgorithm, Histogram> nanosByAlgorithm,
+                        Histogram tokenLength, AtomicLongArray failures) {
+        totalNanos.record(metrics.getTotalNanos());
+        if (metrics.getAlgorithm() != null) {
+            nanosByAlgorithm.get(metrics.getAlgorithm()).record(metrics.getTotalNanos());
+        }
+        if (metrics.getTokenLength() > 0) {
+            tokenLength.record(metrics.getTokenLength());
+        }
+        for (Stage stage : STAGES) {
+            long nanos = metrics.getStageNanos(stage);
+            if (nanos >= 0) {
+                stageNanos.get(stage).record(nanos);
+            }
+        }
+        if (metrics.getFailure() != null) {
+            failures.incrementAndGet(metrics.getFailure().ordinal());
+        }
+    }
+
+    /**
+     * Returns the total durations of all parse operations, successful or not, in nanoseconds.
+     *
+     * @return the total durations of all parse operations in nanoseconds.
+     */
+    public Histogram getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Returns the total durations of the parse operations of JWTs with the specified signature algorithm, in
+     * nanoseconds.  Operations that failed before the algorithm was determined are not included.
+     *
+     * @param algorithm the signature algorithm, or {@link SignatureAlgorithm#NONE} for unsecured JWTs
+     * @return the total durations of the parse operations with the specified algorithm in nanoseconds.
+     */
+    public Histogram getParseNanos(SignatureAlgorithm algorithm) {
+        Assert.notNull(algorithm, "SignatureAlgorithm cannot be null.");
+        return parseNanosByAlgorithm.get(algorithm);
+    }
+
+    /**
+     * Returns the total durations of all build operations, successful or not, in nanoseconds.
+     *
+     * @return the total durations of all build operations in nanoseconds.
+     */
+    public Histogram getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Returns the total durations of the build operations of JWTs with the specified signature algorithm, in
+     * nanoseconds.
+     *
+     * @param algorithm the signature algorithm, or {@link SignatureAlgorithm#NONE} for unsecured JWTs
+     * @return the total durations of the build operations with the specified algorithm in nanoseconds.
+     */
+    public Histogram getBuildNanos(SignatureAlgorithm algorithm) {
+        Assert.notNull(algorithm, "SignatureAlgorithm cannot be null.");
+        return buildNanosByAlgorithm.get(algorithm);
+    }
+
+    /**
+     * Returns the durations of the specified stage, in nanoseconds, of all operations that performed it.
+     *
+     * @param stage the parse or build stage
+     * @return the durations of the specified stage in nanoseconds.
+     */
+    public Histogram getStageNanos(Stage stage) {
+        Assert.notNull(stage, "Stage cannot be null.");
+        return stageNanos.get(stage);
+    }
+
+    /**
+     * Returns the lengths of all parsed compact JWTs, in characters.
+     *
+     * @return the lengths of all parsed compact JWTs.
+     */
+    public Histogram getParsedTokenLength() {
+        return parsedTokenLength;
+    }
+
+    /**
+     * Returns the lengths of all successfully built compact JWTs, in characters.
+     *
+     * @return the lengths of all successfully built compact JWTs.
+     */
+    public Histogram getBuiltTokenLength() {
+        return builtTokenLength;
+    }
+
+    /**
+     * Returns the number of parse operations that failed for the specified reason.
+     *
+     * @param failure the reason of the failure
+     * @return the number of parse operations that failed for the specified reason.
+     */
+    public long getParseFailureCount(Failure failure) {
+        Assert.notNull(failure, "Failure cannot be null.");
+        return parseFailures.get(failure.ordinal());
+    }
+
+    /**
+     * Returns the number of build operations that failed for the specified reason.
+     *
+     * @param failure the reason of the failure
+     * @return the number of build operations that failed for the specified reason.
+     */
+    public long getBuildFailureCount(Failure failure) {
+        Assert.notNull(failure, "Failure cannot be null.");
+        return buildFailures.get(failure.ordinal());
+    }
+
+    /**
+     * Returns the number of parse operations whose result or rejection was found in one of the parser's token
+     * caches.
+     *
+     * @return the number of parse operations served from a token cache.
+     */
+    public long getCachedParseCount() {
+        return cachedParseCount.get();
+    }
+}
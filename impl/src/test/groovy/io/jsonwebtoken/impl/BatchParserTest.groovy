@@ -0,0 +1,116 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.ExpiredJwtException
+import io.jsonwebtoken.Jws
+import io.jsonwebtoken.JwsHeader
+import io.jsonwebtoken.JwtParser
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.MalformedJwtException
+import io.jsonwebtoken.ParseResult
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.SigningKeyResolverAdapter
+import io.jsonwebtoken.security.Keys
+import io.jsonwebtoken.security.SignatureException
+import org.junit.Test
+
+import java.security.Key
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+
+import static org.junit.Assert.*
+
+class BatchParserTest {
+
+    private static final Executor SAME_THREAD = new Executor() {
+        @Override
+        void execute(Runnable command) {
+            command.run()
+        }
+    }
+
+    @Test
+    void testParseClaimsJwsBatch() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def otherKey = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+
+        List<String> jwss = []
+        for (int i = 0; i < 1000; i++) {
+            jwss.add(Jwts.builder().setSubject('subject' + i).signWith(i % 100 == 0 ? otherKey : key).compact())
+        }
+        jwss.add(Jwts.builder().setExpiration(new Date(System.currentTimeMillis() - 60000)).signWith(key).compact())
+        jwss.add('not.a.jws')
+
+        def executor = Executors.newFixedThreadPool(4)
+        List<ParseResult<Jws<Claims>>> results
+        try {
+            results = Jwts.parser().setSigningKey(key).parseClaimsJws(jwss, executor)
+        } finally {
+            executor.shutdown()
+        }
+
+        assertEquals jwss.size(), results.size()
+        for (int i = 0; i < 1000; i++) {
+            ParseResult<Jws<Claims>> result = results[i]
+            assertEquals jwss[i], result.getCompact()
+            if (i % 100 == 0) {
+                assertFalse result.isSuccess()
+                assertNull result.getValue()
+                assertTrue result.getException() instanceof SignatureException
+            } else {
+                assertTrue result.isSuccess()
+                assertNull result.getException()
+                assertEquals 'subject' + i, result.getValue().body.getSubject()
+            }
+        }
+        assertTrue results[1000].getException() instanceof ExpiredJwtException
+        assertTrue results[1001].getException() instanceof MalformedJwtException
+    }
+
+    @Test
+    void testParseClaimsJwsBatchWithKeyResolver() {
+        def keys = [a: Keys.secretKeyFor(SignatureAlgorithm.HS256), b: Keys.secretKeyFor(SignatureAlgorithm.HS384)]
+        def resolver = new SigningKeyResolverAdapter() {
+            @Override
+            Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return keys[header.getKeyId()]
+            }
+        }
+
+        List<String> jwss = []
+        for (int i = 0; i < 50; i++) {
+            String kid = i % 2 == 0 ? 'a' : 'b'
+            jwss.add(Jwts.builder().setHeaderParam('kid', kid).setSubject(kid + i).signWith(keys[kid]).compact())
+        }
+
+        JwtParser parser = Jwts.parser().setSigningKeyResolver(resolver).compile()
+        def results = parser.parseClaimsJws(jwss, SAME_THREAD)
+        for (int i = 0; i < 50; i++) {
+            assertEquals((i % 2 == 0 ? 'a' : 'b') + i, results[i].getValue().body.getSubject())
+        }
+    }
+
+    @Test
+    void testParseEmptyBatch() {
+        assertTrue Jwts.parser().parseClaimsJws([], SAME_THREAD).isEmpty()
+    }
+
+    @Test(expected = IllegalStateException)
+    void testParseBatchWithInvalidConfiguration() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        Jwts.parser().setSigningKey(key).setSigningKey(key.getEncoded()).parseClaimsJws(['a.b.c'], SAME_THREAD)
+    }
+
+    @Test
+    void testGroupByHeader() {
+        assertArrayEquals([0, 2, 4, 1, 3, 5] as int[], BatchParser.groupByHeader(['a.1.x', 'b.1.x', 'a.2.x', 'b.2.x', 'a.3.x', null]))
+    }
+
+    @Test
+    void testChunkSize() {
+        assertEquals 1, BatchParser.chunkSize(0, 4)
+        assertEquals 1, BatchParser.chunkSize(10, 4)
+        assertEquals 7, BatchParser.chunkSize(100, 4)
+        assertEquals 256, BatchParser.chunkSize(1000000, 4)
+    }
+}
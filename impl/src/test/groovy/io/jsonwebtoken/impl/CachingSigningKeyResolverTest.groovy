@@ -0,0 +1,184 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.Clock
+import io.jsonwebtoken.JwsHeader
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.SigningKeyResolverAdapter
+import io.jsonwebtoken.impl.crypto.JwtSignatureValidator
+import io.jsonwebtoken.security.Keys
+import io.jsonwebtoken.security.SignatureException
+import io.jsonwebtoken.security.WeakKeyException
+import org.junit.Test
+
+import javax.crypto.SecretKey
+import java.security.Key
+
+import static org.junit.Assert.*
+
+class CachingSigningKeyResolverTest {
+
+    private static SigningKeyResolverAdapter countingResolver(final Key key, final int[] resolutions) {
+        return new SigningKeyResolverAdapter() {
+            @Override
+            Key resolveSigningKey(JwsHeader header, Claims claims) {
+                resolutions[0]++
+                return key
+            }
+
+            @Override
+            Key resolveSigningKey(JwsHeader header, String plaintext) {
+                resolutions[0]++
+                return key
+            }
+        }
+    }
+
+    private static JwsHeader header(String kid, String alg) {
+        def header = new DefaultJwsHeader()
+        header.setKeyId(kid)
+        header.setAlgorithm(alg)
+        return header
+    }
+
+    @Test
+    void testKeysAreCachedByKidAndAlg() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        int[] resolutions = [0]
+        def resolver = new CachingSigningKeyResolver(countingResolver(key, resolutions), 10, 60)
+
+        assertSame key, resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        assertSame key, resolver.resolveSigningKey(header('k1', 'HS256'), 'plaintext')
+        assertEquals 1, resolutions[0]
+
+        resolver.resolveSigningKey(header('k1', 'HS384'), new DefaultClaims())
+        resolver.resolveSigningKey(header('k2', 'HS256'), new DefaultClaims())
+        assertEquals 3, resolutions[0]
+        assertEquals 3, resolver.getSize()
+        assertEquals 1, resolver.getHitCount()
+        assertEquals 3, resolver.getMissCount()
+    }
+
+    @Test
+    void testKeysWithoutKidAreNotCached() {
+        int[] resolutions = [0]
+        def resolver = new CachingSigningKeyResolver(countingResolver(Keys.secretKeyFor(SignatureAlgorithm.HS256),
+            resolutions), 10, 60)
+        resolver.resolveSigningKey(header(null, 'HS256'), new DefaultClaims())
+        resolver.resolveSigningKey(header(null, 'HS256'), new DefaultClaims())
+        assertEquals 2, resolutions[0]
+        assertEquals 0, resolver.getSize()
+    }
+
+    @Test
+    void testNullKeysAreNotCached() {
+        int[] resolutions = [0]
+        def resolver = new CachingSigningKeyResolver(countingResolver(null, resolutions), 10, 60)
+        assertNull resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        assertNull resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        assertEquals 2, resolutions[0]
+    }
+
+    @Test
+    void testKeysExpire() {
+        final long[] now = [0]
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(now[0])
+            }
+        }
+        int[] resolutions = [0]
+        def resolver = new CachingSigningKeyResolver(countingResolver(Keys.secretKeyFor(SignatureAlgorithm.HS256),
+            resolutions), 10, 60, clock)
+        resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        now[0] = 59999
+        resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        assertEquals 1, resolutions[0]
+        now[0] = 60000
+        resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        assertEquals 2, resolutions[0]
+    }
+
+    @Test
+    void testInvalidate() {
+        int[] resolutions = [0]
+        def resolver = new CachingSigningKeyResolver(countingResolver(Keys.secretKeyFor(SignatureAlgorithm.HS256),
+            resolutions), 10, 60)
+        resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        resolver.resolveSigningKey(header('k1', 'HS384'), new DefaultClaims())
+        resolver.resolveSigningKey(header('k2', 'HS256'), new DefaultClaims())
+
+        resolver.invalidate('k1')
+        assertEquals 1, resolver.getSize()
+        resolver.invalidateAll()
+        assertEquals 0, resolver.getSize()
+    }
+
+    @Test
+    void testFullCacheIsDiscarded() {
+        def resolver = new CachingSigningKeyResolver(countingResolver(Keys.secretKeyFor(SignatureAlgorithm.HS256),
+            [0] as int[]), 2, 60)
+        resolver.resolveSigningKey(header('k1', 'HS256'), new DefaultClaims())
+        resolver.resolveSigningKey(header('k2', 'HS256'), new DefaultClaims())
+        resolver.resolveSigningKey(header('k3', 'HS256'), new DefaultClaims())
+        assertEquals 1, resolver.getSize()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidTtl() {
+        new CachingSigningKeyResolver(new SigningKeyResolverAdapter(), 10, 0)
+    }
+
+    @Test
+    void testParserReusesValidator() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        int[] resolutions = [0]
+        int[] validators = [0]
+        def parser = new DefaultJwtParser() {
+            @Override
+            protected JwtSignatureValidator createSignatureValidator(SignatureAlgorithm alg, Key k) {
+                validators[0]++
+                return super.createSignatureValidator(alg, k)
+            }
+        }.setSigningKeyResolver(new CachingSigningKeyResolver(countingResolver(key, resolutions), 10, 60))
+
+        for (int i = 0; i < 3; i++) {
+            String jws = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe' + i).signWith(key).compact()
+            assertEquals 'joe' + i, parser.parseClaimsJws(jws).body.getSubject()
+        }
+        assertEquals 1, resolutions[0]
+        assertEquals 1, validators[0]
+
+        //the cached validator still rejects forged tokens:
+        String forged = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe')
+            .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        try {
+            parser.parseClaimsJws(forged)
+            fail()
+        } catch (SignatureException expected) {
+        }
+
+        //a parser with a different configuration does not reuse the validator:
+        parser.setCryptoEnginePooling(true)
+        parser.parseClaimsJws(Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe').signWith(key).compact())
+        assertEquals 2, validators[0]
+    }
+
+    @Test
+    void testParserAssertsWeakCachedKeys() {
+        SecretKey strong = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe').signWith(strong).compact()
+        def weak = new javax.crypto.spec.SecretKeySpec(new byte[16], 'HmacSHA256')
+        def parser = new DefaultJwtParser().setSigningKeyResolver(
+            new CachingSigningKeyResolver(countingResolver(weak, [0] as int[]), 10, 60))
+        for (int i = 0; i < 2; i++) {
+            try {
+                parser.parseClaimsJws(jws)
+                fail()
+            } catch (WeakKeyException expected) {
+            }
+        }
+    }
+}
@@ -17,9 +17,14 @@ package io.jsonwebtoken.impl
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import io.jsonwebtoken.CompressionCodecs
+import io.jsonwebtoken.JwtMetrics
+import io.jsonwebtoken.JwtMetricsListener
 import io.jsonwebtoken.Jwts
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.impl.crypto.DefaultJwtSigner
+import io.jsonwebtoken.impl.crypto.JwtSigner
 import io.jsonwebtoken.io.Encoder
+import io.jsonwebtoken.io.Encoders
 import io.jsonwebtoken.io.EncodingException
 import io.jsonwebtoken.io.SerializationException
 import io.jsonwebtoken.io.Serializer
@@ -28,6 +33,10 @@ import org.junit.Test
 
 import javax.crypto.KeyGenerator
 import javax.crypto.SecretKeyFactory
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.CharBuffer
+import java.security.Key
 import java.security.KeyFactory
 
 import static org.junit.Assert.*
@@ -382,4 +391,234 @@ class DefaultJwtBuilderTest {
         assertEquals 'bar', Jwts.parser().setSigningKey(key).parseClaimsJws(jws).getBody().get('foo')
     }
 
+
+    @Test
+    void testCryptoEnginePooling() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def parser = Jwts.parser().setSigningKey(key).setCryptoEnginePooling(true)
+        for (int i = 0; i < 3; i++) {
+            String jws = new DefaultJwtBuilder().setCryptoEnginePooling(true).setSubject('joe' + i).signWith(key).compact()
+            assertEquals 'joe' + i, parser.parseClaimsJws(jws).getBody().getSubject()
+        }
+    }
+
+    @Test
+    void testMetricsListener() {
+        List<JwtMetrics> built = []
+        def listener = new JwtMetricsListener() {
+            @Override
+            void onParse(JwtMetrics metrics) {
+            }
+
+            @Override
+            void onBuild(JwtMetrics metrics) {
+                built.add(metrics)
+            }
+        }
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS384)
+        String jws = new DefaultJwtBuilder().setMetricsListener(listener).setSubject('joe')
+                .compressWith(CompressionCodecs.GZIP).signWith(key).compact()
+        String jwt = new DefaultJwtBuilder().setMetricsListener(listener).setSubject('joe').compact()
+
+        assertEquals 2, built.size()
+        JwtMetrics metrics = built[0]
+        assertNull metrics.getFailure()
+        assertEquals SignatureAlgorithm.HS384, metrics.getAlgorithm()
+        assertEquals jws.length(), metrics.getTokenLength()
+        for (JwtMetrics.Stage stage : [JwtMetrics.Stage.SERIALIZE, JwtMetrics.Stage.COMPRESS,
+                                       JwtMetrics.Stage.BASE64_ENCODE, JwtMetrics.Stage.SIGNATURE_CREATION]) {
+            assertTrue metrics.getStageNanos(stage) >= 0
+        }
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.BASE64_DECODE))
+
+        assertEquals SignatureAlgorithm.NONE, built[1].getAlgorithm()
+        assertEquals jwt.length(), built[1].getTokenLength()
+        assertEquals(-1, built[1].getStageNanos(JwtMetrics.Stage.SIGNATURE_CREATION))
+        assertEquals(-1, built[1].getStageNanos(JwtMetrics.Stage.COMPRESS))
+    }
+
+    @Test
+    void testMetricsListenerReportsFailure() {
+        List<JwtMetrics> built = []
+        def listener = new JwtMetricsListener() {
+            @Override
+            void onParse(JwtMetrics metrics) {
+            }
+
+            @Override
+            void onBuild(JwtMetrics metrics) {
+                built.add(metrics)
+            }
+        }
+        try {
+            new DefaultJwtBuilder().setMetricsListener(listener).compact()
+            fail()
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals JwtMetrics.Failure.OTHER, built[0].getFailure()
+        assertEquals 0, built[0].getTokenLength()
+    }
+
+    @Test
+    void testBufferEncodedCompactMatchesStringEncodedCompact() {
+        // an encoder that is not a BufferEncoder forces the String-based assembly:
+        def stringEncoder = new Encoder<byte[], String>() {
+            @Override
+            String encode(byte[] bytes) {
+                return Encoders.BASE64URL.encode(bytes)
+            }
+        }
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String subject = ''
+        for (int i = 0; i < 12; i++) {
+            subject += 'x' // covers every payload length modulo 3
+            assertEquals Jwts.builder().setSubject(subject).base64UrlEncodeWith(stringEncoder).compact(),
+                Jwts.builder().setSubject(subject).compact()
+
+            String expected = Jwts.builder().setSubject(subject).signWith(key).base64UrlEncodeWith(stringEncoder).compact()
+            assertEquals expected, Jwts.builder().setSubject(subject).signWith(key).compact()
+            assertEquals subject, Jwts.parser().setSigningKey(key).parseClaimsJws(expected).getBody().getSubject()
+        }
+    }
+
+    @Test
+    void testCompactWithCustomJwtSigner() {
+        def builder = new DefaultJwtBuilder() {
+            @Override
+            protected JwtSigner createSigner(SignatureAlgorithm alg, Key key) {
+                return new JwtSigner() {
+                    @Override
+                    String sign(String jwtWithoutSignature) {
+                        return 'signature'
+                    }
+                }
+            }
+        }
+        String jws = builder.setSubject('Joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        assertTrue jws.endsWith('.signature')
+    }
+
+    @Test
+    void testCompactWithDefaultJwtSignerSubclass() {
+        def builder = new DefaultJwtBuilder() {
+            @Override
+            protected JwtSigner createSigner(SignatureAlgorithm alg, Key key) {
+                return new DefaultJwtSigner(alg, key, Encoders.BASE64URL) {
+                    @Override
+                    String sign(String jwtWithoutSignature) {
+                        return 'signature'
+                    }
+                }
+            }
+        }
+        String jws = builder.setSubject('Joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        assertTrue jws.endsWith('.signature')
+    }
+
+    @Test
+    void testCryptoEnginePoolingSharesSigners() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def signer = new DefaultJwtBuilder().setCryptoEnginePooling(true).createSigner(SignatureAlgorithm.HS256, key)
+        assertSame signer, new DefaultJwtBuilder().setCryptoEnginePooling(true).createSigner(SignatureAlgorithm.HS256, key)
+        assertNotSame signer, new DefaultJwtBuilder().createSigner(SignatureAlgorithm.HS256, key)
+    }
+
+    @Test
+    void testCompactToMatchesCompact() {
+        def hmacKey = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def rsaKey = Keys.keyPairFor(SignatureAlgorithm.RS256).getPrivate()
+        def stringEncoder = new Encoder<byte[], String>() {
+            @Override
+            String encode(byte[] bytes) {
+                return Encoders.BASE64URL.encode(bytes)
+            }
+        }
+        for (Key key : [hmacKey, rsaKey, null]) {
+            for (Encoder<byte[], String> encoder : [Encoders.BASE64URL, stringEncoder]) {
+                def builder = new DefaultJwtBuilder().base64UrlEncodeWith(encoder).setSubject('joe')
+                    .setIssuedAt(new Date(1500000000000))
+                if (key != null) {
+                    builder.signWith(key)
+                }
+                String jwt = builder.compact()
+
+                def sb = new StringBuilder('Bearer ')
+                assertEquals jwt.length(), builder.compactTo(sb)
+                assertEquals 'Bearer ' + jwt, sb.toString()
+
+                def writer = new StringWriter()
+                assertEquals jwt.length(), builder.compactTo(writer)
+                assertEquals jwt, writer.toString()
+
+                def chars = CharBuffer.allocate(jwt.length())
+                assertEquals jwt.length(), builder.compactTo((Appendable) chars)
+                assertEquals jwt, chars.flip().toString()
+
+                def buffer = ByteBuffer.allocate(jwt.length() + 2)
+                buffer.put((byte) 0x78) // 'x'
+                assertEquals jwt.length(), builder.compactTo(buffer)
+                assertEquals jwt.length() + 1, buffer.position()
+                assertEquals 'x' + jwt, new String(buffer.array(), 0, buffer.position(), 'US-ASCII')
+
+                def stream = new ByteArrayOutputStream()
+                assertEquals jwt.length(), builder.compactTo(stream)
+                assertEquals jwt, new String(stream.toByteArray(), 'US-ASCII')
+            }
+        }
+    }
+
+    @Test
+    void testCompactToByteBufferWithoutSpace() {
+        def builder = new DefaultJwtBuilder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+        int length = builder.compact().length()
+        def buffer = ByteBuffer.allocate(length - 1)
+        try {
+            builder.compactTo(buffer)
+            fail()
+        } catch (BufferOverflowException expected) {
+        }
+        assertEquals 0, buffer.position()
+    }
+
+    @Test
+    void testCompactToFailingStream() {
+        def stream = new OutputStream() {
+            @Override
+            void write(int b) throws IOException {
+                throw new IOException('closed')
+            }
+
+            @Override
+            void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException('closed')
+            }
+        }
+        try {
+            new DefaultJwtBuilder().setSubject('joe').compactTo(stream)
+            fail()
+        } catch (io.jsonwebtoken.io.IOException expected) {
+            assertEquals 'Unable to write JWT: closed', expected.getMessage()
+            assertTrue expected.getCause() instanceof IOException
+        }
+    }
+
+    @Test
+    void testCompactToRecordsTokenLength() {
+        List<JwtMetrics> built = []
+        def listener = new JwtMetricsListener() {
+            @Override
+            void onParse(JwtMetrics metrics) {
+            }
+
+            @Override
+            void onBuild(JwtMetrics metrics) {
+                built.add(metrics)
+            }
+        }
+        def builder = new DefaultJwtBuilder().setMetricsListener(listener).setSubject('joe')
+        def stream = new ByteArrayOutputStream()
+        int length = builder.compactTo(stream)
+        assertEquals 1, built.size()
+        assertEquals length, built[0].getTokenLength()
+    }
 }
@@ -1,19 +1,37 @@
 package io.jsonwebtoken.impl
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.jsonwebtoken.AsyncSigningKeyResolver
+import io.jsonwebtoken.Callback
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.Clock
+import io.jsonwebtoken.CompressionCodecs
+import io.jsonwebtoken.ExpiredJwtException
+import io.jsonwebtoken.IncorrectClaimException
 import io.jsonwebtoken.Jwts
 import io.jsonwebtoken.MalformedJwtException
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.SigningKeyResolverAdapter
+import io.jsonwebtoken.Jws
+import io.jsonwebtoken.JwsHeader
+import io.jsonwebtoken.Jwt
+import io.jsonwebtoken.JwtHandlerAdapter
+import io.jsonwebtoken.JwtMetrics
+import io.jsonwebtoken.JwtMetricsListener
+import io.jsonwebtoken.UnsupportedJwtException
+import io.jsonwebtoken.impl.crypto.JwtSignatureValidator
 import io.jsonwebtoken.io.*
 import io.jsonwebtoken.lang.Strings
+import io.jsonwebtoken.security.KeyException
 import io.jsonwebtoken.security.Keys
+import io.jsonwebtoken.security.SignatureException
 import org.junit.Test
 
 import javax.crypto.Mac
 import javax.crypto.SecretKey
+import java.security.Key
 
-import static org.junit.Assert.assertEquals
-import static org.junit.Assert.assertSame
+import static org.junit.Assert.*
 
 // NOTE to the casual reader: even though this test class appears mostly empty, the DefaultJwtParser
 // implementation is tested to 100% coverage.  The vast majority of its tests are in the JwtsTest class.  This class
@@ -116,4 +134,739 @@ class DefaultJwtParserTest {
 
         new DefaultJwtParser().setSigningKey(key).parseClaimsJws(invalidJws)
     }
+
+    private static DefaultJwtParser countingParser(final int[] verifications) {
+        return new DefaultJwtParser() {
+            @Override
+            protected JwtSignatureValidator createSignatureValidator(SignatureAlgorithm alg, Key key) {
+                verifications[0]++
+                return super.createSignatureValidator(alg, key)
+            }
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheSkipsVerification() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+
+        int[] verifications = [0]
+        def parser = countingParser(verifications).setSigningKey(key).setVerifiedTokenCache(10, 60)
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals 'joe', parser.parseClaimsJws(jws).body.getSubject()
+        }
+        assertEquals 1, verifications[0]
+    }
+
+    @Test
+    void testParseWithWhitespaceOnlySignature() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        String jwt = jws.substring(0, jws.lastIndexOf('.') + 1) + '   '
+
+        try {
+            new DefaultJwtParser().setSigningKey(key).parse(jwt)
+            fail()
+        } catch (DecodingException expected) {
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheDoesNotCacheInvalidSignatures() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+
+        int[] verifications = [0]
+        def parser = countingParser(verifications).setSigningKey(key).setVerifiedTokenCache(10, 60)
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                parser.parseClaimsJws(jws)
+                fail()
+            } catch (SignatureException expected) {
+            }
+        }
+        assertEquals 2, verifications[0]
+    }
+
+    @Test
+    void testVerifiedTokenCacheRechecksExpiration() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        long now = System.currentTimeMillis()
+        String jws = Jwts.builder().setExpiration(new Date(now + 30000)).signWith(key).compact()
+
+        final long[] time = [now]
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(time[0])
+            }
+        }
+        def parser = new DefaultJwtParser().setSigningKey(key).setClock(clock).setVerifiedTokenCache(10, 300)
+        parser.parseClaimsJws(jws)
+
+        time[0] = now + 60000
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (ExpiredJwtException expected) {
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheEntriesExpire() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+
+        long now = System.currentTimeMillis()
+        final long[] time = [now]
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(time[0])
+            }
+        }
+        int[] verifications = [0]
+        def parser = countingParser(verifications).setSigningKey(key).setClock(clock).setVerifiedTokenCache(10, 60)
+
+        parser.parseClaimsJws(jws)
+        time[0] = now + 59000
+        parser.parseClaimsJws(jws)
+        assertEquals 1, verifications[0]
+
+        time[0] = now + 60000
+        parser.parseClaimsJws(jws)
+        assertEquals 2, verifications[0]
+    }
+
+    @Test
+    void testVerifiedTokenCacheReturnsCopies() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setVerifiedTokenCache(10, 60)
+
+        parser.parseClaimsJws(jws).body.setSubject('jane')
+        def first = parser.parseClaimsJws(jws)
+        assertEquals 'joe', first.body.getSubject()
+        first.body.setSubject('jane')
+        assertEquals 'joe', parser.parseClaimsJws(jws).body.getSubject()
+    }
+
+    @Test
+    void testVerifiedTokenCacheClearedWhenKeyChanges() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setVerifiedTokenCache(10, 60)
+        parser.parseClaimsJws(jws)
+
+        parser.setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheRechecksExpectedClaims() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setIssuer('me').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setVerifiedTokenCache(10, 60)
+        parser.parseClaimsJws(jws)
+
+        parser.requireIssuer('you')
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (IncorrectClaimException expected) {
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheDisabled() {
+        def parser = new DefaultJwtParser().setVerifiedTokenCache(10, 60).setVerifiedTokenCache(0, 0)
+        assertNull parser.verifiedTokenCache
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testVerifiedTokenCacheWithoutTtl() {
+        new DefaultJwtParser().setVerifiedTokenCache(10, 0)
+    }
+
+    @Test
+    void testRejectedTokenCacheSkipsVerification() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+
+        int[] verifications = [0]
+        def parser = countingParser(verifications).setSigningKey(key).setRejectedTokenCache(10, 60)
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                parser.parseClaimsJws(jws)
+                fail()
+            } catch (SignatureException expected) {
+                assertEquals 'JWT signature does not match locally computed signature. JWT validity cannot be ' +
+                        'asserted and should not be trusted.', expected.message
+            }
+        }
+        assertEquals 1, verifications[0]
+        assertEquals 2, parser.getRejectedTokenCacheStats().getHitCount()
+        assertEquals 1, parser.getRejectedTokenCacheStats().getMissCount()
+        assertEquals 1, parser.getRejectedTokenCacheStats().getSize()
+    }
+
+    @Test
+    void testRejectedTokenCacheDoesNotCacheValidTokens() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setRejectedTokenCache(10, 60)
+
+        parser.parseClaimsJws(jws)
+        parser.parseClaimsJws(jws)
+        assertEquals 0, parser.getRejectedTokenCacheStats().getHitCount()
+        assertEquals 2, parser.getRejectedTokenCacheStats().getMissCount()
+        assertEquals 0, parser.getRejectedTokenCacheStats().getSize()
+    }
+
+    @Test
+    void testRejectedTokenCacheClearedWhenKeyChanges() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+                .setRejectedTokenCache(10, 60)
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (SignatureException expected) {
+        }
+
+        parser.setSigningKey(key)
+        assertEquals 'joe', parser.parseClaimsJws(jws).body.getSubject()
+    }
+
+    @Test
+    void testTokenCacheStatsDisabledByDefault() {
+        def parser = new DefaultJwtParser()
+        assertNull parser.getVerifiedTokenCacheStats()
+        assertNull parser.getRejectedTokenCacheStats()
+    }
+
+    @Test
+    void testLazyClaims() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').claim('roles', ['a', 'b']).signWith(key).compact()
+
+        def parsed = new DefaultJwtParser().setSigningKey(key).setLazyDeserialization(true).parseClaimsJws(jws)
+        def claims = parsed.body
+        assertTrue claims instanceof LazyClaims
+        assertEquals 'joe', claims.getSubject()
+        assertFalse claims.isLoaded()
+        assertEquals(['a', 'b'], claims.get('roles'))
+
+        assertTrue parsed.header instanceof LazyJwsHeader
+        assertEquals 'HS256', parsed.header.getAlgorithm()
+        assertFalse parsed.header.isLoaded()
+    }
+
+    @Test
+    void testLazyClaimsValidation() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setExpiration(new Date(System.currentTimeMillis() - 60000))
+                .claim('tenant', 'acme').signWith(key).compact()
+
+        def parser = new DefaultJwtParser().setSigningKey(key).setLazyDeserialization(true)
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (ExpiredJwtException expected) {
+        }
+
+        jws = Jwts.builder().claim('tenant', 'acme').signWith(key).compact()
+        parser.require('tenant', 'other')
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (IncorrectClaimException expected) {
+        }
+        parser.require('tenant', 'acme')
+        assertFalse((parser.parseClaimsJws(jws).body as LazyClaims).isLoaded())
+    }
+
+    @Test
+    void testLazyClaimsWithCompression() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').compressWith(io.jsonwebtoken.CompressionCodecs.DEFLATE)
+                .signWith(key).compact()
+        def claims = new DefaultJwtParser().setSigningKey(key).setLazyDeserialization(true).parseClaimsJws(jws).body
+        assertEquals 'joe', claims.getSubject()
+    }
+
+    @Test
+    void testLazyDeserializationWithVerifiedTokenCache() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').claim('foo', 'bar').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setLazyDeserialization(true).setVerifiedTokenCache(10, 60)
+
+        parser.parseClaimsJws(jws).body.put('foo', 'baz')
+        def cached = parser.parseClaimsJws(jws)
+        assertTrue cached.header instanceof LazyJwsHeader
+        assertTrue cached.body instanceof LazyClaims
+        assertEquals 'bar', cached.body.get('foo')
+    }
+
+    private static Deserializer<Map<String, ?>> countingDeserializer(final int[] deserializations) {
+        return new Deserializer<Map<String, ?>>() {
+            @Override
+            Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+                deserializations[0]++
+                return new JacksonDeserializer<Map<String, ?>>().deserialize(bytes)
+            }
+        }
+    }
+
+    @Test
+    void testHeaderCacheSkipsHeaderDeserialization() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        int[] deserializations = [0]
+        def parser = new DefaultJwtParser().setSigningKey(key).setHeaderCache(10)
+            .deserializeJsonWith(countingDeserializer(deserializations))
+
+        for (int i = 0; i < 3; i++) {
+            String jws = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe' + i).signWith(key).compact()
+            def parsed = parser.parseClaimsJws(jws)
+            assertEquals 'k1', parsed.header.getKeyId()
+            assertEquals 'joe' + i, parsed.body.getSubject()
+        }
+        //one header and three payloads:
+        assertEquals 4, deserializations[0]
+        assertEquals 2, parser.getHeaderCacheStats().getHitCount()
+        assertEquals 1, parser.getHeaderCacheStats().getMissCount()
+        assertEquals 1, parser.getHeaderCacheStats().getSize()
+    }
+
+    @Test
+    void testHeaderCacheReturnsIndependentHeaders() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setHeaderCache(10)
+
+        parser.parseClaimsJws(jws).header.setKeyId('changed')
+        parser.parseClaimsJws(jws).header.setKeyId('changed')
+        assertEquals 'k1', parser.parseClaimsJws(jws).header.getKeyId()
+    }
+
+    @Test
+    void testHeaderCacheDoesNotCacheInvalidSignatures() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String forged = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setHeaderCache(10)
+
+        try {
+            parser.parseClaimsJws(forged)
+            fail()
+        } catch (SignatureException expected) {
+        }
+        assertEquals 0, parser.getHeaderCacheStats().getSize()
+    }
+
+    @Test
+    void testHeaderCacheWithCompression() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def parser = new DefaultJwtParser().setSigningKey(key).setHeaderCache(10)
+        for (int i = 0; i < 2; i++) {
+            String jws = Jwts.builder().setSubject('joe' + i).compressWith(CompressionCodecs.DEFLATE).signWith(key)
+                .compact()
+            assertEquals 'joe' + i, parser.parseClaimsJws(jws).body.getSubject()
+        }
+        assertEquals 1, parser.getHeaderCacheStats().getHitCount()
+    }
+
+    @Test
+    void testHeaderCacheStillResolvesKeyForEachToken() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        int[] resolutions = [0]
+        def parser = new DefaultJwtParser().setHeaderCache(10).setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            Key resolveSigningKey(JwsHeader header, Claims claims) {
+                resolutions[0]++
+                return key
+            }
+        })
+        for (int i = 0; i < 3; i++) {
+            parser.parseClaimsJws(Jwts.builder().setSubject('joe' + i).signWith(key).compact())
+        }
+        assertEquals 3, resolutions[0]
+        assertEquals 2, parser.getHeaderCacheStats().getHitCount()
+    }
+
+    @Test
+    void testHeaderCacheIsClearedWhenKeyChanges() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def parser = new DefaultJwtParser().setSigningKey(key).setHeaderCache(10)
+        parser.parseClaimsJws(jws)
+        assertEquals 1, parser.getHeaderCacheStats().getSize()
+
+        parser.setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+        assertEquals 0, parser.getHeaderCacheStats().getSize()
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testHeaderCacheDisabled() {
+        def parser = new DefaultJwtParser().setHeaderCache(10).setHeaderCache(0)
+        assertNull parser.getHeaderCacheStats()
+    }
+
+    /**
+     * Retains the key callbacks so that tests decide when (and on which thread) a key lookup completes.
+     */
+    private static class DeferredKeyResolver implements AsyncSigningKeyResolver {
+
+        List<Callback<Key>> callbacks = []
+        List<JwsHeader> headers = []
+
+        @Override
+        void resolveSigningKey(JwsHeader header, Claims claims, Callback<Key> callback) {
+            headers.add(header)
+            callbacks.add(callback)
+        }
+
+        @Override
+        void resolveSigningKey(JwsHeader header, String plaintext, Callback<Key> callback) {
+            headers.add(header)
+            callbacks.add(callback)
+        }
+    }
+
+    private static class RecordingCallback<T> implements Callback<T> {
+
+        List<T> results = []
+        List<Throwable> failures = []
+
+        @Override
+        void onSuccess(T result) {
+            results.add(result)
+        }
+
+        @Override
+        void onFailure(Throwable t) {
+            failures.add(t)
+        }
+    }
+
+    @Test
+    void testParseClaimsJwsAsync() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setHeaderParam('kid', 'k1').setSubject('joe').signWith(key).compact()
+        def resolver = new DeferredKeyResolver()
+        def parser = new DefaultJwtParser().setAsyncSigningKeyResolver(resolver)
+        def callback = new RecordingCallback<Jws<Claims>>()
+
+        parser.parseClaimsJwsAsync(jws, callback)
+        assertEquals 'k1', resolver.headers[0].getKeyId()
+        assertTrue callback.results.isEmpty()
+        assertTrue callback.failures.isEmpty()
+
+        Thread t = new Thread({ resolver.callbacks[0].onSuccess(key) })
+        t.start()
+        t.join()
+        assertEquals 'joe', callback.results[0].body.getSubject()
+        assertTrue callback.failures.isEmpty()
+    }
+
+    @Test
+    void testParseAsyncWithIncorrectKey() {
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def resolver = new DeferredKeyResolver()
+        def callback = new RecordingCallback<Jwt>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseAsync(jws, callback)
+
+        resolver.callbacks[0].onSuccess(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+        assertTrue callback.results.isEmpty()
+        assertTrue callback.failures[0] instanceof SignatureException
+    }
+
+    @Test
+    void testParseAsyncWithKeyLookupFailure() {
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def resolver = new DeferredKeyResolver()
+        def callback = new RecordingCallback<Jwt>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseAsync(jws, callback)
+
+        def failure = new IOException('key service unavailable')
+        resolver.callbacks[0].onFailure(failure)
+        assertSame failure, callback.failures[0]
+    }
+
+    @Test
+    void testParseAsyncWithNullKey() {
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def resolver = new DeferredKeyResolver()
+        def callback = new RecordingCallback<Jwt>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseAsync(jws, callback)
+
+        resolver.callbacks[0].onSuccess(null)
+        assertTrue callback.failures[0] instanceof IllegalArgumentException
+    }
+
+    @Test
+    void testParseAsyncWithoutAsyncResolverCompletesImmediately() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def callback = new RecordingCallback<Jws<Claims>>()
+        new DefaultJwtParser().setSigningKey(key).parseClaimsJwsAsync(jws, callback)
+        assertEquals 'joe', callback.results[0].body.getSubject()
+    }
+
+    @Test
+    void testParseAsyncFailsBeforeKeyLookup() {
+        def resolver = new DeferredKeyResolver()
+        def callback = new RecordingCallback<Jwt>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseAsync('foo.bar.baz', callback)
+        assertTrue resolver.callbacks.isEmpty()
+        assertTrue callback.failures[0] instanceof MalformedJwtException
+    }
+
+    @Test
+    void testParseClaimsJwsAsyncWithUnsignedJwt() {
+        String jwt = Jwts.builder().setSubject('joe').compact()
+        def resolver = new DeferredKeyResolver()
+        def callback = new RecordingCallback<Jws<Claims>>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseClaimsJwsAsync(jwt, callback)
+        assertTrue resolver.callbacks.isEmpty()
+        assertTrue callback.failures[0] instanceof UnsupportedJwtException
+    }
+
+    /**
+     * Completes every key lookup on the calling thread, as a cache hit would.
+     */
+    private static class SynchronousKeyResolver implements AsyncSigningKeyResolver {
+
+        Key key
+
+        @Override
+        void resolveSigningKey(JwsHeader header, Claims claims, Callback<Key> callback) {
+            callback.onSuccess(key)
+        }
+
+        @Override
+        void resolveSigningKey(JwsHeader header, String plaintext, Callback<Key> callback) {
+            callback.onSuccess(key)
+        }
+    }
+
+    @Test
+    void testParseAsyncWithSynchronousResolverAndThrowingCallback() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def listener = new RecordingMetricsListener()
+        def failure = new IllegalStateException('callback failed')
+        List<Throwable> failures = []
+        def callback = new Callback<Jwt>() {
+            @Override
+            void onSuccess(Jwt result) {
+                throw failure
+            }
+
+            @Override
+            void onFailure(Throwable t) {
+                failures.add(t)
+            }
+        }
+        def parser = new DefaultJwtParser().setAsyncSigningKeyResolver(new SynchronousKeyResolver(key: key))
+                .setMetricsListener(listener)
+        try {
+            parser.parseAsync(jws, callback)
+            fail()
+        } catch (IllegalStateException expected) {
+            assertSame failure, expected
+        }
+        assertTrue failures.isEmpty()
+        assertEquals 1, listener.parsed.size()
+        assertNull listener.parsed[0].getFailure()
+    }
+
+    @Test
+    void testParseAsyncWithSynchronousResolverAndThrowingHandler() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def callback = new RecordingCallback<String>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(new SynchronousKeyResolver(key: key))
+                .parseAsync(jws, new JwtHandlerAdapter<String>(), callback)
+        assertTrue callback.results.isEmpty()
+        assertEquals 1, callback.failures.size()
+        assertTrue callback.failures[0] instanceof UnsupportedJwtException
+    }
+
+    @Test
+    void testParseAsyncWithThrowingResolver() {
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def failure = new IllegalStateException('resolver failed')
+        def resolver = new SynchronousKeyResolver() {
+            @Override
+            void resolveSigningKey(JwsHeader header, Claims claims, Callback<Key> callback) {
+                throw failure
+            }
+        }
+        def callback = new RecordingCallback<Jwt>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).parseAsync(jws, callback)
+        assertTrue callback.results.isEmpty()
+        assertEquals([failure], callback.failures)
+    }
+
+    private static class RecordingMetricsListener implements JwtMetricsListener {
+
+        List<JwtMetrics> parsed = []
+        List<JwtMetrics> built = []
+
+        @Override
+        void onParse(JwtMetrics metrics) {
+            parsed.add(metrics)
+        }
+
+        @Override
+        void onBuild(JwtMetrics metrics) {
+            built.add(metrics)
+        }
+    }
+
+    @Test
+    void testMetricsListener() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').compressWith(CompressionCodecs.DEFLATE).signWith(key).compact()
+        def listener = new RecordingMetricsListener()
+        new DefaultJwtParser().setSigningKey(key).setMetricsListener(listener).parseClaimsJws(jws)
+
+        assertEquals 1, listener.parsed.size()
+        JwtMetrics metrics = listener.parsed[0]
+        assertNull metrics.getFailure()
+        assertFalse metrics.isCached()
+        assertEquals SignatureAlgorithm.HS256, metrics.getAlgorithm()
+        assertEquals jws.length(), metrics.getTokenLength()
+        for (JwtMetrics.Stage stage : [JwtMetrics.Stage.BASE64_DECODE, JwtMetrics.Stage.DECOMPRESS,
+                                       JwtMetrics.Stage.DESERIALIZE, JwtMetrics.Stage.KEY_RESOLUTION,
+                                       JwtMetrics.Stage.SIGNATURE_VERIFICATION, JwtMetrics.Stage.CLAIMS_VALIDATION]) {
+            assertTrue metrics.getStageNanos(stage) >= 0
+        }
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.SERIALIZE))
+        assertTrue metrics.getTotalNanos() >= metrics.getStageNanos(JwtMetrics.Stage.SIGNATURE_VERIFICATION)
+    }
+
+    @Test
+    void testMetricsListenerWithUnsignedJwt() {
+        String jwt = Jwts.builder().setSubject('joe').compact()
+        def listener = new RecordingMetricsListener()
+        new DefaultJwtParser().setMetricsListener(listener).parseClaimsJwt(jwt)
+
+        JwtMetrics metrics = listener.parsed[0]
+        assertEquals SignatureAlgorithm.NONE, metrics.getAlgorithm()
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.KEY_RESOLUTION))
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.SIGNATURE_VERIFICATION))
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.DECOMPRESS))
+    }
+
+    @Test
+    void testMetricsListenerReportsFailures() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def listener = new RecordingMetricsListener()
+        def parser = new DefaultJwtParser().setSigningKey(key).setMetricsListener(listener)
+
+        String expired = Jwts.builder().setExpiration(new Date(System.currentTimeMillis() - 60000)).signWith(key).compact()
+        String forged = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        String wrongSubject = Jwts.builder().setSubject('bob').signWith(key).compact()
+        String malformed = 'foo.bar.baz'
+
+        try {
+            parser.parseClaimsJws(expired)
+            fail()
+        } catch (ExpiredJwtException expected) {
+        }
+        try {
+            parser.parseClaimsJws(forged)
+            fail()
+        } catch (SignatureException expected) {
+        }
+        try {
+            parser.parseClaimsJws(malformed)
+            fail()
+        } catch (MalformedJwtException expected) {
+        }
+        try {
+            parser.requireSubject('joe').parseClaimsJws(wrongSubject)
+            fail()
+        } catch (IncorrectClaimException expected) {
+        }
+
+        assertEquals([JwtMetrics.Failure.EXPIRED, JwtMetrics.Failure.BAD_SIGNATURE, JwtMetrics.Failure.MALFORMED,
+                      JwtMetrics.Failure.INVALID_CLAIM], listener.parsed*.getFailure())
+        assertEquals(-1, listener.parsed[1].getStageNanos(JwtMetrics.Stage.CLAIMS_VALIDATION))
+        assertNull listener.parsed[2].getAlgorithm()
+    }
+
+    @Test
+    void testMetricsListenerWithVerifiedTokenCache() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def listener = new RecordingMetricsListener()
+        def parser = new DefaultJwtParser().setSigningKey(key).setVerifiedTokenCache(10, 60)
+                .setMetricsListener(listener)
+
+        parser.parseClaimsJws(jws)
+        parser.parseClaimsJws(jws)
+
+        assertFalse listener.parsed[0].isCached()
+        assertTrue listener.parsed[1].isCached()
+        assertEquals SignatureAlgorithm.HS256, listener.parsed[1].getAlgorithm()
+        assertEquals(-1, listener.parsed[1].getStageNanos(JwtMetrics.Stage.SIGNATURE_VERIFICATION))
+        assertTrue listener.parsed[1].getStageNanos(JwtMetrics.Stage.CLAIMS_VALIDATION) >= 0
+    }
+
+    @Test
+    void testMetricsListenerWithParseAsync() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def resolver = new DeferredKeyResolver()
+        def listener = new RecordingMetricsListener()
+        def callback = new RecordingCallback<Jws<Claims>>()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).setMetricsListener(listener)
+                .parseClaimsJwsAsync(jws, callback)
+        assertTrue listener.parsed.isEmpty()
+
+        Thread.sleep(5)
+        resolver.callbacks[0].onSuccess(key)
+        assertEquals 'joe', callback.results[0].body.getSubject()
+        JwtMetrics metrics = listener.parsed[0]
+        assertNull metrics.getFailure()
+        assertTrue metrics.getStageNanos(JwtMetrics.Stage.KEY_RESOLUTION) >= 5000000
+    }
+
+    @Test
+    void testMetricsListenerWithParseAsyncFailure() {
+        String jws = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        def resolver = new DeferredKeyResolver()
+        def listener = new RecordingMetricsListener()
+        new DefaultJwtParser().setAsyncSigningKeyResolver(resolver).setMetricsListener(listener)
+                .parseAsync(jws, new RecordingCallback<Jwt>())
+
+        resolver.callbacks[0].onFailure(new KeyException('unknown key'))
+        assertEquals JwtMetrics.Failure.KEY, listener.parsed[0].getFailure()
+        assertEquals(-1, listener.parsed[0].getStageNanos(JwtMetrics.Stage.KEY_RESOLUTION))
+    }
+
+    @Test
+    void testMetricsListenerDisabled() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+        def listener = new RecordingMetricsListener()
+        new DefaultJwtParser().setSigningKey(key).setMetricsListener(listener).setMetricsListener(null)
+                .parseClaimsJws(jws)
+        assertTrue listener.parsed.isEmpty()
+    }
 }
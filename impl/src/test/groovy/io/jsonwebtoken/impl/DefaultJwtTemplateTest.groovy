@@ -0,0 +1,423 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.CompressionCodecs
+import io.jsonwebtoken.JwtMetrics
+import io.jsonwebtoken.JwtMetricsListener
+import io.jsonwebtoken.JwtTemplate
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.impl.crypto.DefaultJwtSigner
+import io.jsonwebtoken.impl.crypto.JwtSigner
+import io.jsonwebtoken.io.Decoders
+import io.jsonwebtoken.io.Encoder
+import io.jsonwebtoken.io.Encoders
+import io.jsonwebtoken.io.Serializer
+import io.jsonwebtoken.io.JacksonSerializer
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import java.security.Key
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+import static org.junit.Assert.*
+
+class DefaultJwtTemplateTest {
+
+    private static Map<String, Object> variableClaims(String sub) {
+        Map<String, Object> claims = new LinkedHashMap<>()
+        claims.put(Claims.SUBJECT, sub)
+        claims.put(Claims.ID, UUID.randomUUID().toString())
+        claims.put(Claims.ISSUED_AT, new Date(1500000000000))
+        claims.put(Claims.EXPIRATION, new Date(1500003600000))
+        return claims
+    }
+
+    @Test
+    void testCompactMatchesBuilder() {
+        def hmacKey = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def rsaKey = Keys.keyPairFor(SignatureAlgorithm.RS256).getPrivate()
+        for (Key key : [hmacKey, rsaKey, null]) {
+            for (boolean compress : [false, true]) {
+                def builder = Jwts.builder().setHeaderParam('kid', 'k1').setIssuer('issuer').claim('scope', 'read')
+                if (key != null) {
+                    builder.signWith(key)
+                }
+                if (compress) {
+                    builder.compressWith(CompressionCodecs.DEFLATE)
+                }
+                JwtTemplate template = builder.toTemplate()
+
+                for (String sub : ['alice', 'bob']) {
+                    Map<String, Object> claims = variableClaims(sub)
+                    def expected = Jwts.builder().setHeaderParam('kid', 'k1').setIssuer('issuer').claim('scope', 'read')
+                        .addClaims(claims)
+                    if (key != null) {
+                        expected.signWith(key)
+                    }
+                    if (compress) {
+                        expected.compressWith(CompressionCodecs.DEFLATE)
+                    }
+                    assertEquals expected.compact(), template.compact(claims)
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCompactWithStringEncoder() {
+        def stringEncoder = new Encoder<byte[], String>() {
+            @Override
+            String encode(byte[] bytes) {
+                return Encoders.BASE64URL.encode(bytes)
+            }
+        }
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS384)
+        Map<String, Object> claims = variableClaims('alice')
+        def template = Jwts.builder().signWith(key).base64UrlEncodeWith(stringEncoder).toTemplate()
+        assertEquals Jwts.builder().addClaims(claims).signWith(key).compact(), template.compact(claims)
+
+        template = Jwts.builder().base64UrlEncodeWith(stringEncoder).toTemplate()
+        assertEquals Jwts.builder().addClaims(claims).compact(), template.compact(claims)
+    }
+
+    @Test
+    void testCompactWithCustomJwtSigner() {
+        def builder = new DefaultJwtBuilder() {
+            @Override
+            protected JwtSigner createSigner(SignatureAlgorithm alg, Key key) {
+                return new JwtSigner() {
+                    @Override
+                    String sign(String jwtWithoutSignature) {
+                        return 'signature'
+                    }
+                }
+            }
+        }
+        def template = builder.signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).toTemplate()
+        assertTrue template.compact([sub: 'Joe']).endsWith('.signature')
+    }
+
+    @Test
+    void testCompactWithDefaultJwtSignerSubclass() {
+        def builder = new DefaultJwtBuilder() {
+            @Override
+            protected JwtSigner createSigner(SignatureAlgorithm alg, Key key) {
+                return new DefaultJwtSigner(alg, key, Encoders.BASE64URL) {
+                    @Override
+                    String sign(String jwtWithoutSignature) {
+                        return 'signature'
+                    }
+                }
+            }
+        }
+        def template = builder.signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).toTemplate()
+        assertTrue template.compact([sub: 'Joe']).endsWith('.signature')
+    }
+
+    @Test
+    void testCompactParsesWithVariableClaims() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def template = Jwts.builder().setIssuer('issuer').setSubject('nobody').signWith(key).toTemplate()
+        Date exp = new Date(System.currentTimeMillis() + 60000)
+
+        Claims claims = Jwts.parser().setSigningKey(key)
+            .parseClaimsJws(template.compact([sub: 'alice', exp: exp, iss: null])).getBody()
+
+        assertEquals 'alice', claims.getSubject()
+        assertEquals exp.getTime().intdiv(1000), claims.get(Claims.EXPIRATION) as long
+        assertFalse claims.containsKey(Claims.ISSUER)
+
+        claims = Jwts.parser().setSigningKey(key).parseClaimsJws(template.compact(null)).getBody()
+        assertEquals 'nobody', claims.getSubject()
+        assertEquals 'issuer', claims.getIssuer()
+    }
+
+    @Test
+    void testTemplateIsUnaffectedByLaterBuilderChanges() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def builder = Jwts.builder().setIssuer('issuer').setHeaderParam('kid', 'k1').signWith(key)
+        def template = builder.toTemplate()
+        builder.setIssuer('other').setHeaderParam('kid', 'k2').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS512))
+
+        def jws = Jwts.parser().setSigningKey(key).parseClaimsJws(template.compact([sub: 'alice']))
+        assertEquals 'issuer', jws.getBody().getIssuer()
+        assertEquals 'k1', jws.getHeader().getKeyId()
+        assertEquals 'HS256', jws.getHeader().getAlgorithm()
+    }
+
+    @Test
+    void testToTemplateWithPayload() {
+        try {
+            Jwts.builder().setPayload('hello').toTemplate()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals "A template cannot be created for a plaintext 'payload'. Specify claims instead.",
+                expected.getMessage()
+        }
+    }
+
+    @Test
+    void testCompactWithEmptyClaims() {
+        try {
+            Jwts.builder().toTemplate().compact([:])
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'Claims cannot be empty.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testMetricsListener() {
+        List<JwtMetrics> built = []
+        def listener = new JwtMetricsListener() {
+            @Override
+            void onParse(JwtMetrics metrics) {
+            }
+
+            @Override
+            void onBuild(JwtMetrics metrics) {
+                built.add(metrics)
+            }
+        }
+        def template = Jwts.builder().signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+            .setMetricsListener(listener).toTemplate()
+
+        String jws = template.compact([sub: 'alice'])
+        try {
+            template.compact(null)
+            fail()
+        } catch (IllegalStateException expected) {
+        }
+
+        assertEquals 2, built.size()
+        assertNull built[0].getFailure()
+        assertEquals SignatureAlgorithm.HS256, built[0].getAlgorithm()
+        assertEquals jws.length(), built[0].getTokenLength()
+        assertTrue built[0].getStageNanos(JwtMetrics.Stage.SIGNATURE_CREATION) >= 0
+        assertEquals JwtMetrics.Failure.OTHER, built[1].getFailure()
+    }
+
+    private static String payloadJson(String jwt) {
+        return new String(Decoders.BASE64URL.decode(jwt.split('\\.')[1]), 'UTF-8')
+    }
+
+    @Test
+    void testTemplateClaimsAreSerializedOnce() {
+        List<Map> serialized = []
+        def jackson = new JacksonSerializer<Map<String, ?>>()
+        def serializer = new Serializer<Map<String, ?>>() {
+            @Override
+            byte[] serialize(Map<String, ?> map) {
+                serialized.add(new LinkedHashMap(map))
+                return jackson.serialize(map)
+            }
+        }
+        def template = Jwts.builder().serializeToJsonWith(serializer).setIssuer('issuer').setAudience('aud')
+            .claim('scope', 'read').toTemplate()
+        int created = serialized.size()
+
+        String jwt = template.compact([sub: 'alice', iat: new Date(1500000000000)])
+
+        assertEquals '{"iss":"issuer","aud":"aud","scope":"read","sub":"alice","iat":1500000000}', payloadJson(jwt)
+        assertEquals created + 1, serialized.size()
+        assertEquals([sub: 'alice', iat: 1500000000L], serialized[-1])
+
+        assertEquals '{"iss":"issuer","aud":"aud","scope":"read"}', payloadJson(template.compact(null))
+        assertEquals created + 1, serialized.size()
+    }
+
+    @Test
+    void testClaimsNamingTemplateClaimsAreNotDuplicated() {
+        def template = Jwts.builder().setIssuer('issuer').claim('scope', 'read').toTemplate()
+
+        assertEquals '{"iss":"other","scope":"read","sub":"alice"}',
+            payloadJson(template.compact([iss: 'other', sub: 'alice']))
+        assertEquals '{"scope":"read","sub":"alice"}', payloadJson(template.compact([iss: null, sub: 'alice']))
+    }
+
+    @Test
+    void testCompactWithNonObjectSerializer() {
+        // a serializer that does not produce a plain JSON object disables splicing:
+        def jackson = new JacksonSerializer<Map<String, ?>>()
+        def serializer = new Serializer<Map<String, ?>>() {
+            @Override
+            byte[] serialize(Map<String, ?> map) {
+                byte[] json = jackson.serialize(map)
+                return map.isEmpty() ? json : ('/*x*/' + new String(json, 'UTF-8')).getBytes('UTF-8')
+            }
+        }
+        def template = Jwts.builder().serializeToJsonWith(serializer).setIssuer('issuer').toTemplate()
+        assertEquals '/*x*/{"iss":"issuer","sub":"alice"}', payloadJson(template.compact([sub: 'alice']))
+    }
+
+    private static List<Map<String, ?>> subjects(int count) {
+        List<Map<String, ?>> claims = []
+        for (int i = 0; i < count; i++) {
+            claims.add([sub: 'device' + i])
+        }
+        return claims
+    }
+
+    @Test
+    void testCompactAllOrdered() {
+        def key = Keys.keyPairFor(SignatureAlgorithm.ES256)
+        def template = Jwts.builder().setCryptoEnginePooling(true).setIssuer('issuer')
+            .signWith(key.getPrivate()).toTemplate()
+        def parser = Jwts.parser().setSigningKey(key.getPublic())
+        def executor = Executors.newFixedThreadPool(4)
+        try {
+            def jwts = template.compactAll(subjects(100).iterator(), executor, 8, true)
+            for (int i = 0; i < 100; i++) {
+                assertTrue jwts.hasNext()
+                def body = parser.parseClaimsJws(jwts.next()).getBody()
+                assertEquals 'device' + i, body.getSubject()
+                assertEquals 'issuer', body.getIssuer()
+            }
+            assertFalse jwts.hasNext()
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void testCompactAllUnordered() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def template = Jwts.builder().signWith(key).toTemplate()
+        def parser = Jwts.parser().setSigningKey(key)
+        def executor = Executors.newFixedThreadPool(4)
+        try {
+            Set<String> issued = new HashSet<>()
+            def jwts = template.compactAll(subjects(100).iterator(), executor, 8, false)
+            while (jwts.hasNext()) {
+                issued.add(parser.parseClaimsJws(jwts.next()).getBody().getSubject())
+            }
+            Set<String> expected = new HashSet<>()
+            for (Map<String, ?> claims : subjects(100)) {
+                expected.add((String) claims.get('sub'))
+            }
+            assertEquals expected, issued
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void testCompactAllConsumesClaimsLazily() {
+        def template = Jwts.builder().setIssuer('issuer').toTemplate()
+        int consumed = 0
+        def source = subjects(10).iterator()
+        def claims = new Iterator<Map<String, ?>>() {
+            @Override
+            boolean hasNext() {
+                return source.hasNext()
+            }
+
+            @Override
+            Map<String, ?> next() {
+                consumed++
+                return source.next()
+            }
+
+            @Override
+            void remove() {
+                throw new UnsupportedOperationException()
+            }
+        }
+        def executor = new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }
+
+        def jwts = template.compactAll(claims, executor, 3, true)
+        assertEquals 0, consumed
+        jwts.next()
+        assertEquals 4, consumed // 3 submitted, 1 returned, 1 submitted in its place
+        jwts.next()
+        assertEquals 5, consumed
+        int remaining = 0
+        while (jwts.hasNext()) {
+            jwts.next()
+            remaining++
+        }
+        assertEquals 8, remaining
+        try {
+            jwts.next()
+            fail()
+        } catch (NoSuchElementException expected) {
+        }
+    }
+
+    @Test
+    void testCompactAllThrowsFailureInPlace() {
+        def template = Jwts.builder().toTemplate()
+        def executor = Executors.newFixedThreadPool(2)
+        try {
+            def jwts = template.compactAll([[sub: 'a'], [:], [sub: 'c']].iterator(), executor, 4, true)
+            assertEquals 'a', Jwts.parser().parseClaimsJwt(jwts.next()).getBody().getSubject()
+            try {
+                jwts.next()
+                fail()
+            } catch (IllegalStateException expected) {
+                assertEquals 'Claims cannot be empty.', expected.getMessage()
+            }
+            assertEquals 'c', Jwts.parser().parseClaimsJwt(jwts.next()).getBody().getSubject()
+            assertFalse jwts.hasNext()
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void testCompactAllWithRejectingExecutor() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def template = Jwts.builder().signWith(key).toTemplate()
+        def parser = Jwts.parser().setSigningKey(key)
+        // a single thread and a single queue slot: most of the 8 pending tasks are rejected at first
+        def executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1))
+        try {
+            for (boolean ordered : [true, false]) {
+                List<String> issued = []
+                def jwts = template.compactAll(subjects(50).iterator(), executor, 8, ordered)
+                while (jwts.hasNext()) {
+                    issued.add(parser.parseClaimsJws(jwts.next()).getBody().getSubject())
+                }
+                List<String> expected = []
+                for (Map<String, ?> claims : subjects(50)) {
+                    expected.add((String) claims.get('sub'))
+                }
+                assertEquals ordered ? expected : expected.sort(), ordered ? issued : issued.sort()
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void testCompactAllWithShutDownExecutor() {
+        def executor = Executors.newSingleThreadExecutor()
+        executor.shutdown()
+        def jwts = Jwts.builder().toTemplate().compactAll(subjects(3).iterator(), executor, 2, true)
+        for (int i = 0; i < 3; i++) {
+            assertEquals 'device' + i, Jwts.parser().parseClaimsJwt(jwts.next()).getBody().getSubject()
+        }
+        assertFalse jwts.hasNext()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testCompactAllWithoutMaxPending() {
+        def executor = new Executor() {
+            @Override
+            void execute(Runnable command) {
+                command.run()
+            }
+        }
+        Jwts.builder().setIssuer('issuer').toTemplate().compactAll(subjects(1).iterator(), executor, 0, true)
+    }
+}
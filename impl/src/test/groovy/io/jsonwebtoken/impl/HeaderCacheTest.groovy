@@ -0,0 +1,50 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.SignatureAlgorithm
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class HeaderCacheTest {
+
+    private static HeaderCache.Entry entry(String kid) {
+        def header = new DefaultJwsHeader()
+        header.setKeyId(kid)
+        return new HeaderCache.Entry(header, SignatureAlgorithm.HS256, null, null)
+    }
+
+    @Test
+    void testGetAndPut() {
+        def cache = new HeaderCache(10)
+        assertNull cache.get('a')
+        cache.put('a', entry('k1'))
+        def entry = cache.get('a')
+        assertEquals SignatureAlgorithm.HS256, entry.getAlgorithm()
+        assertEquals 1, cache.getHitCount()
+        assertEquals 1, cache.getMissCount()
+    }
+
+    @Test
+    void testCopyHeader() {
+        def entry = entry('k1')
+        entry.copyHeader().setKeyId('k2')
+        assertEquals 'k1', entry.copyHeader().getKeyId()
+    }
+
+    @Test
+    void testFullCacheIsDiscarded() {
+        def cache = new HeaderCache(2)
+        cache.put('a', entry('a'))
+        cache.put('b', entry('b'))
+        cache.put('b', entry('b'))
+        assertEquals 2, cache.getSize()
+        cache.put('c', entry('c'))
+        assertEquals 1, cache.getSize()
+        assertNotNull cache.get('c')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxSize() {
+        new HeaderCache(0)
+    }
+}
@@ -0,0 +1,167 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.AsyncSigningKeyResolver
+import io.jsonwebtoken.Callback
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.IncorrectClaimException
+import io.jsonwebtoken.JwsHeader
+import io.jsonwebtoken.JwtParser
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.SigningKeyResolverAdapter
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import java.security.Key
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+import static org.junit.Assert.*
+
+class ImmutableJwtParserTest {
+
+    @Test
+    void testCompileReturnsImmutableParser() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        JwtParser parser = Jwts.parser().setSigningKey(key).compile()
+        assertTrue parser instanceof ImmutableJwtParser
+        assertSame parser, parser.compile()
+    }
+
+    @Test
+    void testMutatorsThrow() {
+        JwtParser parser = Jwts.parser().setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compile()
+        def mutators = [
+                { parser.requireId('id') },
+                { parser.requireSubject('sub') },
+                { parser.requireAudience('aud') },
+                { parser.requireIssuer('iss') },
+                { parser.requireIssuedAt(new Date()) },
+                { parser.requireExpiration(new Date()) },
+                { parser.requireNotBefore(new Date()) },
+                { parser.require('foo', 'bar') },
+                { parser.setClock(new FixedClock()) },
+                { parser.setAllowedClockSkewSeconds(10) },
+                { parser.setCryptoEnginePooling(true) },
+                { parser.setLazyDeserialization(true) },
+                { parser.setVerifiedTokenCache(10, 60) },
+                { parser.setRejectedTokenCache(10, 60) },
+                { parser.setHeaderCache(10) },
+                { parser.setMetricsListener(null) },
+                { parser.setAsyncSigningKeyResolver(new AsyncSigningKeyResolver() {
+                    @Override
+                    void resolveSigningKey(JwsHeader header, Claims claims, Callback<Key> callback) {
+                    }
+
+                    @Override
+                    void resolveSigningKey(JwsHeader header, String plaintext, Callback<Key> callback) {
+                    }
+                }) },
+                { parser.setSigningKey(new byte[32]) },
+                { parser.setSigningKey('c2VjcmV0') },
+                { parser.setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256)) },
+                { parser.setSigningKeyResolver(new SigningKeyResolverAdapter()) },
+                { parser.setCompressionCodecResolver(null) },
+                { parser.base64UrlDecodeWith(null) },
+                { parser.deserializeJsonWith(null) }
+        ]
+        for (Closure c : mutators) {
+            try {
+                c.call()
+                fail()
+            } catch (IllegalStateException expected) {
+            }
+        }
+    }
+
+    @Test
+    void testCompileWithConflictingKeysFailsFast() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        try {
+            Jwts.parser().setSigningKey(key).setSigningKey(key.getEncoded()).compile()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'A key object and key bytes cannot both be specified. Choose either.', expected.message
+        }
+    }
+
+    @Test
+    void testCompileWithKeyAndResolverFailsFast() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        try {
+            Jwts.parser().setSigningKey(key).setSigningKeyResolver(new SigningKeyResolverAdapter()).compile()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'A signing key resolver and a key object cannot both be specified. Choose either.', expected.message
+        }
+    }
+
+    @Test
+    void testKeyBytesForEveryHmacAlgorithm() {
+        byte[] bytes = Keys.secretKeyFor(SignatureAlgorithm.HS512).getEncoded()
+        JwtParser parser = Jwts.parser().setSigningKey(bytes).compile()
+        for (SignatureAlgorithm alg : [SignatureAlgorithm.HS256, SignatureAlgorithm.HS384, SignatureAlgorithm.HS512]) {
+            String jws = Jwts.builder().setSubject('joe').signWith(Keys.hmacShaKeyFor(bytes), alg).compact()
+            assertEquals 'joe', parser.parseClaimsJws(jws).body.getSubject()
+        }
+    }
+
+    @Test
+    void testLaterChangesToSourceParserAreNotVisible() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setIssuer('me').signWith(key).compact()
+
+        JwtParser source = Jwts.parser().setSigningKey(key).requireIssuer('me')
+        JwtParser compiled = source.compile()
+
+        source.requireIssuer('you')
+
+        assertEquals 'me', compiled.parseClaimsJws(jws).body.getIssuer()
+        try {
+            source.parseClaimsJws(jws)
+            fail()
+        } catch (IncorrectClaimException expected) {
+        }
+    }
+
+    @Test
+    void testConcurrentParsing() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        final JwtParser parser = Jwts.parser().setSigningKey(key).compile()
+
+        def executor = Executors.newFixedThreadPool(4)
+        try {
+            List<Future<String>> futures = []
+            for (int i = 0; i < 100; i++) {
+                final String subject = 'subject' + i
+                final String jws = Jwts.builder().setSubject(subject).signWith(key).compact()
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    String call() throws Exception {
+                        return parser.parseClaimsJws(jws).body.getSubject()
+                    }
+                }))
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals 'subject' + i, futures[i].get()
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheIsNotSharedWithSourceParser() {
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(key).compact()
+
+        DefaultJwtParser source = (DefaultJwtParser) Jwts.parser().setSigningKey(key).setVerifiedTokenCache(10, 60)
+        source.parseClaimsJws(jws)
+        ImmutableJwtParser compiled = (ImmutableJwtParser) source.compile()
+
+        assertEquals 0, compiled.jwtParser.verifiedTokenCache.getSize()
+        assertEquals 'joe', compiled.parseClaimsJws(jws).body.getSubject()
+        assertEquals 1, compiled.jwtParser.verifiedTokenCache.getSize()
+    }
+}
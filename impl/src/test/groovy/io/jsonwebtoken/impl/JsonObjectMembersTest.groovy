@@ -0,0 +1,45 @@
+package io.jsonwebtoken.impl
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class JsonObjectMembersTest {
+
+    private static JsonObjectMembers of(String json) {
+        return JsonObjectMembers.of(json.getBytes('UTF-8'))
+    }
+
+    private static String str(byte[] bytes) {
+        return new String(bytes, 'UTF-8')
+    }
+
+    @Test
+    void testOfNonObject() {
+        assertNull JsonObjectMembers.of(null)
+        assertNull of('')
+        assertNull of('{')
+        assertNull of('[1]')
+        assertNull of('"{}"')
+        assertNull of('{"a":1} x')
+    }
+
+    @Test
+    void testToObject() {
+        assertEquals '{}', str(of('{}').toObject())
+        assertEquals '{}', str(of(' {\n} ').toObject())
+        assertEquals '{"a":1}', str(of('{"a":1}').toObject())
+        assertEquals '{"a" : 1}', str(of('\t{ "a" : 1 }\r\n').toObject())
+        assertTrue of('{ }').isEmpty()
+        assertFalse of('{"a":1}').isEmpty()
+    }
+
+    @Test
+    void testConcat() {
+        assertEquals '{"a":1,"b":"x"}', str(of('{"a":1}').concat(of('{"b":"x"}')))
+        assertEquals '{"a":1,"b":{"c":[1,2]}}', str(of('{ "a":1 }\n').concat(of('{\n  "b":{"c":[1,2]}\n}')))
+        assertEquals '{"a":1}', str(of('{"a":1}').concat(of('{}')))
+        assertEquals '{"b":2}', str(of('{}').concat(of('{"b":2}')))
+        assertEquals '{}', str(of('{}').concat(of('{}')))
+    }
+}
@@ -0,0 +1,82 @@
+package io.jsonwebtoken.impl
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class JsonScannerTest {
+
+    private static Map<String, Object> scan(String json, List<String> names) {
+        return JsonScanner.scan(json.getBytes('UTF-8'), names as Set)
+    }
+
+    @Test
+    void testScalarValues() {
+        def json = '{"s":"foo","i":42,"l":1500000000000,"d":1.5e2,"t":true,"f":false,"neg":-7,"big":123456789012345678901234567890}'
+        def values = scan(json, ['s', 'i', 'l', 'd', 't', 'f', 'neg', 'big'])
+        assertEquals 'foo', values.s
+        assertEquals Integer.valueOf(42), values.i
+        assertEquals Long.valueOf(1500000000000L), values.l
+        assertTrue values.d instanceof Double
+        assertEquals 150d, values.d as double, 0d
+        assertEquals Boolean.TRUE, values.t
+        assertEquals Boolean.FALSE, values.f
+        assertEquals Integer.valueOf(-7), values.neg
+        assertEquals new BigInteger('123456789012345678901234567890'), values.big
+    }
+
+    @Test
+    void testIntegerRanges() {
+        def values = scan('{"a":2147483647,"b":2147483648,"c":9223372036854775807}', ['a', 'b', 'c'])
+        assertEquals Integer.valueOf(Integer.MAX_VALUE), values.a
+        assertEquals Long.valueOf(2147483648L), values.b
+        assertEquals Long.valueOf(Long.MAX_VALUE), values.c
+    }
+
+    @Test
+    void testOnlySelectedMembersAreExtracted() {
+        def values = scan('{"a":1,"b":{"c":[1,2,{"d":"}"}]},"e":"x"}', ['e'])
+        assertEquals([e: 'x'], values)
+    }
+
+    @Test
+    void testComplexAndNullValues() {
+        def values = scan('{"a":[1,2],"b":{"c":1},"n":null}', ['a', 'b', 'n'])
+        assertSame JsonScanner.COMPLEX, values.a
+        assertSame JsonScanner.COMPLEX, values.b
+        assertFalse values.containsKey('n')
+    }
+
+    @Test
+    void testEscapes() {
+        def values = scan('{"a\\u0062":"x\\"y\\\\z\\n\\u00e9","u":"café"}', ['ab', 'u'])
+        assertEquals 'x"y\\z\né', values.ab
+        assertEquals 'café', values.u
+    }
+
+    @Test
+    void testLastDuplicateWins() {
+        assertEquals 2, scan('{"a":1,"a":2}', ['a']).a
+        assertFalse scan('{"a":1,"a":null}', ['a']).containsKey('a')
+    }
+
+    @Test
+    void testEmptyObjectAndWhitespace() {
+        assertTrue scan(' { } ', ['a']).isEmpty()
+        assertEquals 1, scan(' {\n\t"a" : 1 \r\n} ', ['a']).a
+    }
+
+    @Test
+    void testMalformed() {
+        for (String json : ['', '[]', '{', '{"a"}', '{"a":}', '{"a":1,}', '{"a":01}', '{"a":1.}', '{"a":tru}',
+                            '{"a":"\\x"}', '{"a":"b', '{"a":1} x', '{"a":[1,}', '{a:1}', '{"a":"\n"}']) {
+            assertNull json, scan(json, ['a'])
+        }
+    }
+
+    @Test
+    void testMaxDepth() {
+        String deep = '[' * 300 + ']' * 300
+        assertNull scan('{"a":' + deep + '}', ['b'])
+    }
+}
@@ -0,0 +1,258 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Clock
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.io.Encoders
+import io.jsonwebtoken.io.JacksonDeserializer
+import io.jsonwebtoken.io.JacksonSerializer
+import io.jsonwebtoken.security.InvalidKeyException
+import io.jsonwebtoken.security.KeyException
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import javax.crypto.SecretKey
+import java.security.KeyPair
+import java.security.interfaces.ECPublicKey
+import java.security.interfaces.RSAPublicKey
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+import static org.junit.Assert.*
+
+class JwkSetSigningKeyResolverTest {
+
+    private static String b64(BigInteger i, int length) {
+        byte[] bytes = i.toByteArray()
+        if (bytes[0] == 0 && bytes.length > 1) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length)
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length]
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length)
+            bytes = padded
+        }
+        return Encoders.BASE64URL.encode(bytes)
+    }
+
+    private static Map rsaJwk(String kid, KeyPair pair) {
+        RSAPublicKey pub = (RSAPublicKey) pair.getPublic()
+        return [kty: 'RSA', kid: kid, use: 'sig', n: b64(pub.getModulus(), 0), e: b64(pub.getPublicExponent(), 0)]
+    }
+
+    private static Map ecJwk(String kid, KeyPair pair) {
+        ECPublicKey pub = (ECPublicKey) pair.getPublic()
+        int length = (pub.getParams().getCurve().getField().getFieldSize() + 7) / 8
+        return [kty: 'EC', kid: kid, crv: 'P-256', x: b64(pub.getW().getAffineX(), length),
+                y  : b64(pub.getW().getAffineY(), length)]
+    }
+
+    private static Map octJwk(String kid, SecretKey key, String alg) {
+        def jwk = [kty: 'oct', kid: kid, k: Encoders.BASE64URL.encode(key.getEncoded())]
+        if (alg != null) {
+            jwk.alg = alg
+        }
+        return jwk
+    }
+
+    private static JwkSetSource source(final List<Map> jwks) {
+        return new JwkSetSource() {
+            @Override
+            byte[] load() throws IOException {
+                return new JacksonSerializer().serialize([keys: jwks])
+            }
+        }
+    }
+
+    private static JwkSetSigningKeyResolver resolver(JwkSetSource source) {
+        return new JwkSetSigningKeyResolver(source, new JacksonDeserializer<Map<String, ?>>(), DefaultClock.INSTANCE, 0)
+    }
+
+    @Test
+    void testResolvesRsaEcAndOctKeysByKid() {
+        KeyPair rsa = Keys.keyPairFor(SignatureAlgorithm.RS256)
+        KeyPair ec = Keys.keyPairFor(SignatureAlgorithm.ES256)
+        SecretKey hmac = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def resolver = resolver(source([rsaJwk('rsa', rsa), ecJwk('ec', ec), octJwk('oct', hmac, 'HS256'),
+                                        [kty: 'OKP', kid: 'unsupported'], [kty: 'RSA', kid: 'enc', use: 'enc']]))
+        resolver.refresh()
+        assertEquals(['rsa', 'ec', 'oct'] as Set, resolver.getKeyIds())
+
+        def parser = Jwts.parser().setSigningKeyResolver(resolver)
+        assertEquals 'a', parser.parseClaimsJws(Jwts.builder().setHeaderParam('kid', 'rsa').setSubject('a')
+            .signWith(rsa.getPrivate()).compact()).body.getSubject()
+        assertEquals 'b', parser.parseClaimsJws(Jwts.builder().setHeaderParam('kid', 'ec').setSubject('b')
+            .signWith(ec.getPrivate()).compact()).body.getSubject()
+        assertEquals 'c', parser.parseClaimsJws(Jwts.builder().setHeaderParam('kid', 'oct').setSubject('c')
+            .signWith(hmac).compact()).body.getSubject()
+    }
+
+    @Test
+    void testUnknownKid() {
+        def resolver = resolver(source([octJwk('k1', Keys.secretKeyFor(SignatureAlgorithm.HS256), null)]))
+        resolver.refresh()
+        String jws = Jwts.builder().setHeaderParam('kid', 'k2').setSubject('a')
+            .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+        try {
+            Jwts.parser().setSigningKeyResolver(resolver).parseClaimsJws(jws)
+            fail()
+        } catch (KeyException expected) {
+            assertEquals "The JWK Set does not contain a key with id 'k2'.", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testMissingKidWithSingleKey() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def resolver = resolver(source([octJwk(null, key, null)]))
+        resolver.refresh()
+        String jws = Jwts.builder().setSubject('a').signWith(key).compact()
+        assertEquals 'a', Jwts.parser().setSigningKeyResolver(resolver).parseClaimsJws(jws).body.getSubject()
+    }
+
+    @Test(expected = KeyException)
+    void testMissingKidWithMultipleKeys() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def resolver = resolver(source([octJwk('k1', key, null), octJwk('k2', key, null)]))
+        resolver.refresh()
+        Jwts.parser().setSigningKeyResolver(resolver).parseClaimsJws(Jwts.builder().setSubject('a').signWith(key).compact())
+    }
+
+    @Test(expected = InvalidKeyException)
+    void testJwkAlgorithmMustMatch() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS512)
+        def resolver = resolver(source([octJwk('k1', key, 'HS256')]))
+        resolver.refresh()
+        Jwts.parser().setSigningKeyResolver(resolver).parseClaimsJws(Jwts.builder().setHeaderParam('kid', 'k1').setSubject('a')
+            .signWith(key, SignatureAlgorithm.HS512).compact())
+    }
+
+    @Test
+    void testFailedRefreshRetainsKeys() {
+        final boolean[] fail = [false]
+        def resolver = resolver(new JwkSetSource() {
+            @Override
+            byte[] load() throws IOException {
+                if (fail[0]) {
+                    throw new IOException('unavailable')
+                }
+                return new JacksonSerializer().serialize([keys: [octJwk('k1', Keys.secretKeyFor(SignatureAlgorithm.HS256), null)]])
+            }
+        })
+        resolver.refresh()
+        fail[0] = true
+        try {
+            resolver.refresh()
+            fail()
+        } catch (KeyException expected) {
+            assertEquals 'Unable to load JWK Set: unavailable', expected.getMessage()
+        }
+        assertEquals(['k1'] as Set, resolver.getKeyIds())
+    }
+
+    @Test(expected = KeyException)
+    void testRefreshWithInvalidJwkSet() {
+        resolver(new JwkSetSource() {
+            @Override
+            byte[] load() throws IOException {
+                return '{"foo":"bar"}'.getBytes('UTF-8')
+            }
+        }).refresh()
+    }
+
+    @Test
+    void testFileSource() {
+        File file = File.createTempFile('jwks', '.json')
+        file.deleteOnExit()
+        file.bytes = new JacksonSerializer().serialize([keys: [octJwk('k1', Keys.secretKeyFor(SignatureAlgorithm.HS256), null)]])
+        def resolver = resolver(JwkSetSources.file(file))
+        resolver.refresh()
+        assertEquals(['k1'] as Set, resolver.getKeyIds())
+    }
+
+    @Test(expected = KeyException)
+    void testMissingClasspathSource() {
+        resolver(JwkSetSources.classpath('does/not/exist.json')).refresh()
+    }
+
+    @Test
+    void testUnknownKidTriggersBackgroundRefresh() {
+        SecretKey k1 = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        SecretKey k2 = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        final List<Map> jwks = [octJwk('k1', k1, null)]
+        final CountDownLatch loaded = new CountDownLatch(2)
+        def resolver = resolver(new JwkSetSource() {
+            @Override
+            byte[] load() throws IOException {
+                try {
+                    return new JacksonSerializer().serialize([keys: new ArrayList(jwks)])
+                } finally {
+                    loaded.countDown()
+                }
+            }
+        })
+        def scheduler = Executors.newSingleThreadScheduledExecutor()
+        try {
+            resolver.start(scheduler, 1, TimeUnit.HOURS)
+            assertEquals(['k1'] as Set, resolver.getKeyIds())
+
+            jwks.add(octJwk('k2', k2, null))
+            def parser = Jwts.parser().setSigningKeyResolver(resolver)
+            String jws = Jwts.builder().setHeaderParam('kid', 'k2').setSubject('a').signWith(k2).compact()
+            try {
+                parser.parseClaimsJws(jws) //unknown for now, but triggers a refresh
+                fail()
+            } catch (KeyException expected) {
+            }
+            assertTrue loaded.await(10, TimeUnit.SECONDS)
+            scheduler.shutdown()
+            assertTrue scheduler.awaitTermination(10, TimeUnit.SECONDS)
+            assertEquals 'a', parser.parseClaimsJws(jws).body.getSubject()
+            assertNull resolver.getLastRefreshFailure()
+        } finally {
+            scheduler.shutdownNow()
+        }
+    }
+
+    @Test
+    void testRefreshRequestsAreRateLimited() {
+        final long[] now = [100000]
+        int[] loads = [0]
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(now[0])
+            }
+        }
+        def resolver = new JwkSetSigningKeyResolver(new JwkSetSource() {
+            @Override
+            byte[] load() throws IOException {
+                loads[0]++
+                return '{"keys":[]}'.getBytes('UTF-8')
+            }
+        }, new JacksonDeserializer<Map<String, ?>>(), clock, 1000)
+        def scheduler = Executors.newSingleThreadScheduledExecutor()
+        try {
+            resolver.start(scheduler, 1, TimeUnit.HOURS)
+            def header = new DefaultJwsHeader()
+            header.setKeyId('unknown')
+            for (int t : [100000, 101000]) {
+                now[0] = t
+                for (int i = 0; i < 5; i++) {
+                    try {
+                        resolver.resolveSigningKey(header, 'plaintext')
+                        fail()
+                    } catch (KeyException expected) {
+                    }
+                }
+            }
+            scheduler.shutdown()
+            assertTrue scheduler.awaitTermination(10, TimeUnit.SECONDS)
+            //the initial refresh, then a single refresh once the minimum interval elapsed:
+            assertEquals 2, loads[0]
+        } finally {
+            scheduler.shutdownNow()
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.ExpiredJwtException
+import io.jsonwebtoken.IncorrectClaimException
+import io.jsonwebtoken.JwtMetrics
+import io.jsonwebtoken.MalformedJwtException
+import io.jsonwebtoken.MissingClaimException
+import io.jsonwebtoken.PrematureJwtException
+import io.jsonwebtoken.UnsupportedJwtException
+import io.jsonwebtoken.io.DecodingException
+import io.jsonwebtoken.security.SignatureException
+import io.jsonwebtoken.security.WeakKeyException
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class JwtMetricsRecorderTest {
+
+    @Test
+    void testDisabledRecorder() {
+        assertEquals 0L, JwtMetricsRecorder.mark(null)
+        JwtMetricsRecorder.record(null, JwtMetrics.Stage.BASE64_DECODE, 0L) //no-op
+    }
+
+    @Test
+    void testStagesAccumulate() {
+        def metrics = new JwtMetricsRecorder()
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.BASE64_DECODE))
+        JwtMetricsRecorder.record(metrics, JwtMetrics.Stage.BASE64_DECODE, System.nanoTime() - 1000)
+        JwtMetricsRecorder.record(metrics, JwtMetrics.Stage.BASE64_DECODE, System.nanoTime() - 1000)
+        assertTrue metrics.getStageNanos(JwtMetrics.Stage.BASE64_DECODE) >= 2000
+        assertEquals(-1, metrics.getStageNanos(JwtMetrics.Stage.DESERIALIZE))
+        metrics.complete(null)
+        assertNull metrics.getFailure()
+        assertTrue metrics.getTotalNanos() >= 0
+    }
+
+    @Test
+    void testCategorize() {
+        assertEquals JwtMetrics.Failure.MALFORMED, JwtMetricsRecorder.categorize(new MalformedJwtException('x'))
+        assertEquals JwtMetrics.Failure.MALFORMED, JwtMetricsRecorder.categorize(new DecodingException('x'))
+        assertEquals JwtMetrics.Failure.UNSUPPORTED, JwtMetricsRecorder.categorize(new UnsupportedJwtException('x'))
+        assertEquals JwtMetrics.Failure.BAD_SIGNATURE, JwtMetricsRecorder.categorize(new SignatureException('x'))
+        assertEquals JwtMetrics.Failure.KEY, JwtMetricsRecorder.categorize(new WeakKeyException('x'))
+        assertEquals JwtMetrics.Failure.EXPIRED, JwtMetricsRecorder.categorize(new ExpiredJwtException(null, null, 'x'))
+        assertEquals JwtMetrics.Failure.PREMATURE,
+                JwtMetricsRecorder.categorize(new PrematureJwtException(null, null, 'x'))
+        assertEquals JwtMetrics.Failure.INVALID_CLAIM,
+                JwtMetricsRecorder.categorize(new MissingClaimException(null, null, 'x'))
+        assertEquals JwtMetrics.Failure.INVALID_CLAIM,
+                JwtMetricsRecorder.categorize(new IncorrectClaimException(null, null, 'x'))
+        assertEquals JwtMetrics.Failure.OTHER, JwtMetricsRecorder.categorize(new IllegalArgumentException('x'))
+        assertEquals JwtMetrics.Failure.OTHER, JwtMetricsRecorder.categorize(new IOException('x'))
+    }
+}
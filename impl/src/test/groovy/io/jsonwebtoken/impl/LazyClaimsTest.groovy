@@ -0,0 +1,111 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.MalformedJwtException
+import io.jsonwebtoken.io.DeserializationException
+import io.jsonwebtoken.io.Deserializer
+import io.jsonwebtoken.io.JacksonDeserializer
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class LazyClaimsTest {
+
+    private static final Set<String> NAMES = [Claims.SUBJECT, Claims.EXPIRATION, 'scope'] as Set
+
+    private static LazyClaims lazy(String json, Deserializer deserializer = new JacksonDeserializer()) {
+        return LazyClaims.scan(json.getBytes('UTF-8'), deserializer, NAMES)
+    }
+
+    @Test
+    void testScannedClaimsDoNotLoad() {
+        def claims = lazy('{"sub":"joe","exp":1500000000,"roles":["a","b"]}')
+        assertEquals 'joe', claims.getSubject()
+        assertEquals new Date(1500000000000L), claims.getExpiration()
+        assertNull claims.get('scope')
+        assertFalse claims.containsKey('scope')
+        assertFalse claims.isLoaded()
+    }
+
+    @Test
+    void testOtherAccessLoads() {
+        def claims = lazy('{"sub":"joe","roles":["a","b"]}')
+        assertEquals(['a', 'b'], claims.get('roles'))
+        assertTrue claims.isLoaded()
+        assertEquals 2, claims.size()
+    }
+
+    @Test
+    void testComplexScannedValueLoads() {
+        //not a FieldDeserializer, so the built-in scanner is used, which does not materialize complex values:
+        def deserializer = new Deserializer() {
+            @Override
+            Object deserialize(byte[] bytes) throws DeserializationException {
+                return new JacksonDeserializer().deserialize(bytes)
+            }
+        }
+        def claims = lazy('{"scope":["read","write"]}', deserializer)
+        assertEquals(['read', 'write'], claims.get('scope'))
+        assertTrue claims.isLoaded()
+    }
+
+    @Test
+    void testComplexScannedValueWithFieldDeserializer() {
+        def claims = lazy('{"scope":["read","write"],"other":{"a":1}}')
+        assertEquals(['read', 'write'], claims.get('scope'))
+        assertFalse claims.isLoaded()
+    }
+
+    @Test
+    void testModificationLoads() {
+        def claims = lazy('{"sub":"joe","foo":"bar"}')
+        claims.setSubject('jane')
+        assertTrue claims.isLoaded()
+        assertEquals 'jane', claims.getSubject()
+        assertEquals 'bar', claims.get('foo')
+    }
+
+    @Test
+    void testEquality() {
+        def claims = lazy('{"sub":"joe","foo":"bar"}')
+        assertEquals new DefaultClaims([sub: 'joe', foo: 'bar']), claims
+        assertEquals claims, new DefaultClaims([sub: 'joe', foo: 'bar'])
+    }
+
+    @Test
+    void testCopy() {
+        def claims = lazy('{"sub":"joe"}')
+        def copy = claims.copy()
+        assertTrue copy instanceof LazyClaims
+        copy.setSubject('jane')
+        assertEquals 'joe', claims.getSubject()
+
+        claims.put('foo', 'bar')
+        copy = claims.copy()
+        assertFalse copy instanceof LazyClaims
+        assertEquals 'bar', copy.get('foo')
+    }
+
+    @Test
+    void testUnscannableJson() {
+        assertNull lazy('{"sub":')
+    }
+
+    @Test
+    void testDeserializationFailureOnLoad() {
+        def deserializer = new Deserializer() {
+            @Override
+            Object deserialize(byte[] bytes) throws DeserializationException {
+                throw new DeserializationException('nope')
+            }
+        }
+        def claims = lazy('{"sub":"joe","foo":"bar"}', deserializer)
+        assertEquals 'joe', claims.getSubject()
+        try {
+            claims.get('foo')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'Unable to read JSON value: {"sub":"joe","foo":"bar"}', expected.message
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.io.JacksonDeserializer
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class LazyJwsHeaderTest {
+
+    private static LazyJwsHeader lazy(String json) {
+        return LazyJwsHeader.scan(json.getBytes('UTF-8'), new JacksonDeserializer())
+    }
+
+    @Test
+    void testStandardParametersDoNotLoad() {
+        def header = lazy('{"alg":"RS256","kid":"k1","zip":"DEF","x5c":["abc"]}')
+        assertEquals 'RS256', header.getAlgorithm()
+        assertEquals 'k1', header.getKeyId()
+        assertEquals 'DEF', header.getCompressionAlgorithm()
+        assertNull header.getType()
+        assertFalse header.isLoaded()
+    }
+
+    @Test
+    void testOtherAccessLoads() {
+        def header = lazy('{"alg":"RS256","x5c":["abc"]}')
+        assertEquals(['abc'], header.get('x5c'))
+        assertTrue header.isLoaded()
+        assertEquals 2, header.size()
+    }
+
+    @Test
+    void testCopy() {
+        def header = lazy('{"alg":"RS256","kid":"k1"}')
+        def copy = header.copy()
+        assertTrue copy instanceof LazyJwsHeader
+        copy.setKeyId('k2')
+        assertEquals 'k1', header.getKeyId()
+        assertEquals 'k2', copy.getKeyId()
+        assertEquals new DefaultJwsHeader([alg: 'RS256', kid: 'k1']), header
+    }
+
+    @Test
+    void testUnscannableJson() {
+        assertNull lazy('[]')
+    }
+}
@@ -0,0 +1,101 @@
+package io.jsonwebtoken.impl
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class TokenCacheTest {
+
+    @Test
+    void testGetAndPut() {
+        def cache = new TokenCache<String>(10, 1000)
+        def key = TokenCache.keyFor('a.b.c')
+        assertNull cache.get(key, 0)
+        cache.put(key, 'value', 0)
+        assertEquals 'value', cache.get(TokenCache.keyFor('a.b.c'), 999)
+        assertNull cache.get(TokenCache.keyFor('a.b.d'), 0)
+        assertEquals 1, cache.getSize()
+    }
+
+    @Test
+    void testEntriesExpire() {
+        def cache = new TokenCache<String>(10, 1000)
+        def key = TokenCache.keyFor('a.b.c')
+        cache.put(key, 'value', 0)
+        assertNull cache.get(key, 1000)
+        assertEquals 0, cache.getSize()
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        def cache = new TokenCache<String>(1, 1000)
+        def a = TokenCache.keyFor('a.a.a')
+        def b = TokenCache.keyFor('b.b.b')
+        cache.put(a, 'a', 0)
+        cache.put(b, 'b', 0)
+        assertNull cache.get(a, 0)
+        assertEquals 'b', cache.get(b, 0)
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        def cache = new TokenCache<Integer>(100, 1000)
+        for (int i = 0; i < 1000; i++) {
+            cache.put(TokenCache.keyFor('token' + i), i, 0)
+        }
+        assertTrue cache.getSize() <= 100
+    }
+
+    @Test
+    void testCapacityIsMaxSize() {
+        for (int maxSize : [2, 7, 17, 31, 100, 1000]) {
+            def cache = new TokenCache<Integer>(maxSize, 1000)
+            for (int i = 0; i < maxSize * 20; i++) {
+                cache.put(TokenCache.keyFor('token' + i), i, 0)
+            }
+            assertEquals maxSize, cache.getSize()
+        }
+    }
+
+    @Test
+    void testSmallCacheRetainsAllEntries() {
+        def cache = new TokenCache<Integer>(8, 1000)
+        for (int i = 0; i < 8; i++) {
+            cache.put(TokenCache.keyFor('token' + i), i, 0)
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals i, cache.get(TokenCache.keyFor('token' + i), 0)
+        }
+    }
+
+    @Test
+    void testClear() {
+        def cache = new TokenCache<String>(10, 1000)
+        cache.put(TokenCache.keyFor('a.b.c'), 'value', 0)
+        cache.clear()
+        assertEquals 0, cache.getSize()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxSize() {
+        new TokenCache<String>(0, 1000)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidTtl() {
+        new TokenCache<String>(10, 0)
+    }
+
+    @Test
+    void testHitAndMissCounts() {
+        def cache = new TokenCache<String>(10, 1000)
+        def key = TokenCache.keyFor('a.b.c')
+        cache.get(key, 0)
+        cache.put(key, 'value', 0)
+        cache.get(key, 0)
+        cache.get(key, 0)
+        cache.get(key, 1000) //expired
+        assertEquals 2, cache.getHitCount()
+        assertEquals 2, cache.getMissCount()
+    }
+}
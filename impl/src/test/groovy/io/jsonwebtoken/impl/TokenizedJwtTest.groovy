@@ -0,0 +1,143 @@
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.MalformedJwtException
+import io.jsonwebtoken.io.Decoder
+import io.jsonwebtoken.io.Decoders
+import io.jsonwebtoken.io.Encoders
+import io.jsonwebtoken.lang.Strings
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class TokenizedJwtTest {
+
+    @Test
+    void testTokenize() {
+        def t = TokenizedJwt.tokenize('aaa.bbb.ccc')
+        assertEquals 'aaa', t.getHeader()
+        assertEquals 'bbb', t.getPayload()
+        assertEquals 'ccc', t.getSignature()
+        assertEquals 'aaa.bbb', t.getSigningInput()
+        assertTrue t.hasHeader()
+        assertTrue t.hasPayload()
+        assertTrue t.hasSignature()
+    }
+
+    @Test
+    void testTokenizeUnsigned() {
+        def t = TokenizedJwt.tokenize('aaa.bbb.')
+        assertEquals 'aaa', t.getHeader()
+        assertEquals 'bbb', t.getPayload()
+        assertNull t.getSignature()
+        assertFalse t.hasSignature()
+    }
+
+    @Test
+    void testTokenizeEmptySegments() {
+        def t = TokenizedJwt.tokenize('..')
+        assertNull t.getHeader()
+        assertNull t.getPayload()
+        assertNull t.getSignature()
+        assertFalse t.hasHeader()
+        assertFalse t.hasPayload()
+    }
+
+    @Test
+    void testTokenizeTrimsWhitespace() {
+        def t = TokenizedJwt.tokenize(' aaa . bbb\t.  ccc \n')
+        assertEquals 'aaa', t.getHeader()
+        assertEquals 'bbb', t.getPayload()
+        assertEquals '  ccc \n', t.getSignature() // the signature segment is never trimmed
+        assertEquals 'aaa.bbb', t.getSigningInput()
+    }
+
+    @Test
+    void testSigningInputBytes() {
+        assertArrayEquals 'aaa.bbb'.getBytes('US-ASCII'), TokenizedJwt.tokenize('aaa.bbb.ccc').getSigningInputBytes()
+    }
+
+    @Test
+    void testSigningInputBytesWithTrimmedWhitespace() {
+        assertArrayEquals 'aaa.bbb'.getBytes('US-ASCII'), TokenizedJwt.tokenize('aaa .\nbbb.ccc').getSigningInputBytes()
+    }
+
+    @Test
+    void testSigningInputBytesWithNonAsciiCharacter() {
+        assertArrayEquals 'a?a.bbb'.getBytes('US-ASCII'), TokenizedJwt.tokenize('a\u00e9a.bbb.ccc').getSigningInputBytes()
+    }
+
+    @Test
+    void testTokenizeWhitespaceOnlySegment() {
+        def t = TokenizedJwt.tokenize('aaa.   .ccc')
+        assertNull t.getPayload()
+    }
+
+    @Test
+    void testTokenizeWhitespaceOnlySignature() {
+        def t = TokenizedJwt.tokenize('aaa.bbb.   ')
+        assertTrue t.hasSignature()
+        assertEquals '   ', t.getSignature()
+    }
+
+    @Test
+    void testTooFewSeparators() {
+        try {
+            TokenizedJwt.tokenize('aaa.bbb')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'JWT strings must contain exactly 2 period characters. Found: 1', expected.message
+        }
+    }
+
+    @Test
+    void testNoSeparators() {
+        try {
+            TokenizedJwt.tokenize('aaa')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'JWT strings must contain exactly 2 period characters. Found: 0', expected.message
+        }
+    }
+
+    @Test
+    void testTooManySeparators() {
+        try {
+            TokenizedJwt.tokenize('a.b.c.d.e')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'JWT strings must contain exactly 2 period characters. Found: 4', expected.message
+        }
+    }
+
+    @Test
+    void testDecodeSegments() {
+        String header = Encoders.BASE64URL.encode('{"alg":"none"}'.getBytes(Strings.UTF_8))
+        String payload = Encoders.BASE64URL.encode('hello'.getBytes(Strings.UTF_8))
+        def t = TokenizedJwt.tokenize(' ' + header + ' . ' + payload + '.')
+        assertEquals '{"alg":"none"}', new String(t.decodeHeader(Decoders.BASE64URL), Strings.UTF_8)
+        assertEquals 'hello', new String(t.decodePayload(Decoders.BASE64URL), Strings.UTF_8)
+    }
+
+    @Test
+    void testDecodeSegmentsWithCustomDecoder() {
+        List<String> decoded = []
+        def decoder = new Decoder<String, byte[]>() {
+            @Override
+            byte[] decode(String s) {
+                decoded.add(s)
+                return new byte[0]
+            }
+        }
+        def t = TokenizedJwt.tokenize('aaa.bbb.')
+        t.decodeHeader(decoder)
+        t.decodePayload(decoder)
+        assertEquals(['aaa', 'bbb'], decoded)
+    }
+
+    @Test
+    void testDecodeEmptySegments() {
+        def t = TokenizedJwt.tokenize('..')
+        assertNull t.decodeHeader(Decoders.BASE64URL)
+        assertNull t.decodePayload(Decoders.BASE64URL)
+    }
+}
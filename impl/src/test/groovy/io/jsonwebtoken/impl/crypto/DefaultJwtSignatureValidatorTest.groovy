@@ -2,11 +2,14 @@ package io.jsonwebtoken.impl.crypto
 
 import io.jsonwebtoken.SignatureAlgorithm
 import io.jsonwebtoken.io.Decoders
+import io.jsonwebtoken.io.Encoders
 import io.jsonwebtoken.security.Keys
 import org.junit.Test
 
+import static org.junit.Assert.assertFalse
 import static org.junit.Assert.assertNotNull
 import static org.junit.Assert.assertSame
+import static org.junit.Assert.assertTrue
 
 class DefaultJwtSignatureValidatorTest {
 
@@ -35,4 +38,19 @@ class DefaultJwtSignatureValidatorTest {
         assertNotNull validator.signatureValidator
         assertSame Decoders.BASE64URL, validator.base64UrlDecoder
     }
+
+    @Test
+    void testIsValidWithSigningInputBytes() {
+
+        def alg = SignatureAlgorithm.HS256
+        def key = Keys.secretKeyFor(alg)
+        def signer = new DefaultJwtSigner(alg, key, Encoders.BASE64URL)
+        def validator = new DefaultJwtSignatureValidator(alg, key, Decoders.BASE64URL)
+
+        String signature = signer.sign('header.payload')
+
+        assertTrue validator.isValid('header.payload'.getBytes('US-ASCII'), signature)
+        assertTrue validator.isValid('header.payload', signature)
+        assertFalse validator.isValid('header.payloaX'.getBytes('US-ASCII'), signature)
+    }
 }
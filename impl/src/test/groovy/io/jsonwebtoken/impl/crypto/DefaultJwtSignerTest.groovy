@@ -5,6 +5,7 @@ import io.jsonwebtoken.io.Encoders
 import io.jsonwebtoken.security.Keys
 import org.junit.Test
 
+import static org.junit.Assert.assertEquals
 import static org.junit.Assert.assertNotNull
 import static org.junit.Assert.assertSame
 
@@ -37,4 +38,16 @@ class DefaultJwtSignerTest {
         assertNotNull signer.signer
         assertSame Encoders.BASE64URL, signer.base64UrlEncoder
     }
+
+    @Test
+    void testComputeSignatureMatchesSign() {
+        def alg = SignatureAlgorithm.HS256
+        def key = Keys.secretKeyFor(alg)
+        def signer = new DefaultJwtSigner(alg, key, Encoders.BASE64URL)
+        String jwtWithoutSignature = 'eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJKb2UifQ'
+
+        byte[] signature = signer.computeSignature(jwtWithoutSignature.getBytes('US-ASCII'))
+
+        assertEquals signer.sign(jwtWithoutSignature), Encoders.BASE64URL.encode(signature)
+    }
 }
@@ -200,4 +200,28 @@ class EllipticCurveSignatureValidatorTest {
             assert new EllipticCurveSignatureValidator(algorithm, keypair.public).isValid(data, signature)
         }
     }
+
+    @Test
+    void testPooledSignatureIsReused() {
+        def alg = SignatureAlgorithm.ES256
+        def keypair = EllipticCurveProvider.generateKeyPair(alg)
+        def data = 'foo'.getBytes('UTF-8')
+        def signature = new EllipticCurveSigner(alg, keypair.private).sign(data)
+        def tampered = new EllipticCurveSigner(alg, keypair.private).sign('bar'.getBytes('UTF-8'))
+
+        int created = 0
+        def v = new EllipticCurveSignatureValidator(alg, keypair.public, new EnginePool(4, 4)) {
+            @Override
+            protected Signature getSignatureInstance() throws NoSuchAlgorithmException {
+                created++
+                return super.getSignatureInstance()
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue v.isValid(data, signature)
+            assertFalse v.isValid(data, tampered)
+        }
+        assertEquals 1, created
+    }
 }
@@ -23,8 +23,10 @@ import org.junit.Test
 
 import java.security.InvalidKeyException
 import java.security.KeyPair
+import java.security.NoSuchAlgorithmException
 import java.security.PrivateKey
 import java.security.PublicKey
+import java.security.Signature
 
 import static org.junit.Assert.*
 
@@ -141,4 +143,26 @@ class EllipticCurveSignerTest {
             assertSame se.cause, ex
         }
     }
+
+    @Test
+    void testPooledSignatureIsReused() {
+        def alg = SignatureAlgorithm.ES256
+        def keypair = EllipticCurveProvider.generateKeyPair(alg)
+        def data = 'foo'.getBytes('UTF-8')
+
+        int created = 0
+        def s = new EllipticCurveSigner(alg, keypair.private, new EnginePool(4, 4)) {
+            @Override
+            protected Signature getSignatureInstance() throws NoSuchAlgorithmException {
+                created++
+                return super.getSignatureInstance()
+            }
+        }
+        def v = new EllipticCurveSignatureValidator(alg, keypair.public)
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue v.isValid(data, s.sign(data))
+        }
+        assertEquals 1, created
+    }
 }
@@ -0,0 +1,57 @@
+package io.jsonwebtoken.impl.crypto
+
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import javax.crypto.spec.SecretKeySpec
+
+import static org.junit.Assert.*
+
+class EnginePoolTest {
+
+    @Test
+    void testSameQueueForEqualKeys() {
+        def pool = new EnginePool(4, 4)
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def copy = new SecretKeySpec(key.getEncoded(), key.getAlgorithm())
+        assertSame pool.getIdleEngines(SignatureAlgorithm.HS256, key), pool.getIdleEngines(SignatureAlgorithm.HS256, copy)
+        assertEquals 1, pool.size()
+    }
+
+    @Test
+    void testDifferentQueuePerAlgorithm() {
+        def pool = new EnginePool(4, 4)
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS512)
+        assertNotSame pool.getIdleEngines(SignatureAlgorithm.HS256, key), pool.getIdleEngines(SignatureAlgorithm.HS512, key)
+        assertEquals 2, pool.size()
+    }
+
+    @Test
+    void testMaxIdle() {
+        def pool = new EnginePool(4, 2)
+        Queue<String> idle = pool.getIdleEngines(SignatureAlgorithm.HS256, Keys.secretKeyFor(SignatureAlgorithm.HS256))
+        assertTrue idle.offer('a')
+        assertTrue idle.offer('b')
+        assertFalse idle.offer('c')
+    }
+
+    @Test
+    void testMaxKeys() {
+        def pool = new EnginePool(2, 2)
+        for (int i = 0; i < 10; i++) {
+            pool.getIdleEngines(SignatureAlgorithm.HS256, Keys.secretKeyFor(SignatureAlgorithm.HS256))
+            assertTrue pool.size() <= 2
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxKeys() {
+        new EnginePool(0, 2)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxIdle() {
+        new EnginePool(2, 0)
+    }
+}
@@ -0,0 +1,101 @@
+package io.jsonwebtoken.impl.crypto
+
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.io.Encoder
+import io.jsonwebtoken.io.Encoders
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import javax.crypto.spec.SecretKeySpec
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import static org.junit.Assert.*
+
+class JwtSignerRegistryTest {
+
+    @Test
+    void testSignerIsSharedForEqualKeys() {
+        def registry = new JwtSignerRegistry(DefaultSignerFactory.POOLED, 4)
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def copy = new SecretKeySpec(key.getEncoded(), key.getAlgorithm())
+        def signer = registry.getSigner(SignatureAlgorithm.HS256, key, Encoders.BASE64URL)
+        assertSame signer, registry.getSigner(SignatureAlgorithm.HS256, copy, Encoders.BASE64URL)
+        assertEquals 1, registry.size()
+        assertEquals new DefaultJwtSigner(SignatureAlgorithm.HS256, key, Encoders.BASE64URL).sign('foo.bar'),
+            signer.sign('foo.bar')
+    }
+
+    @Test
+    void testSignerPerAlgorithmAndEncoder() {
+        def registry = new JwtSignerRegistry(DefaultSignerFactory.INSTANCE, 4)
+        def key = Keys.secretKeyFor(SignatureAlgorithm.HS512)
+        Encoder<byte[], String> encoder = new Encoder<byte[], String>() {
+            @Override
+            String encode(byte[] bytes) {
+                return Encoders.BASE64URL.encode(bytes)
+            }
+        }
+        def signer = registry.getSigner(SignatureAlgorithm.HS256, key, Encoders.BASE64URL)
+        assertNotSame signer, registry.getSigner(SignatureAlgorithm.HS512, key, Encoders.BASE64URL)
+        assertNotSame signer, registry.getSigner(SignatureAlgorithm.HS256, key, encoder)
+        assertEquals 3, registry.size()
+
+        registry.clear()
+        assertEquals 0, registry.size()
+        assertNotSame signer, registry.getSigner(SignatureAlgorithm.HS256, key, Encoders.BASE64URL)
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        def registry = new JwtSignerRegistry(DefaultSignerFactory.INSTANCE, 2)
+        for (int i = 0; i < 5; i++) {
+            registry.getSigner(SignatureAlgorithm.HS256, Keys.secretKeyFor(SignatureAlgorithm.HS256), Encoders.BASE64URL)
+            assertTrue registry.size() <= 2
+        }
+    }
+
+    @Test
+    void testInvalidKeyIsNotRegistered() {
+        def registry = new JwtSignerRegistry(DefaultSignerFactory.INSTANCE, 2)
+        def key = Keys.keyPairFor(SignatureAlgorithm.RS256).getPublic()
+        try {
+            registry.getSigner(SignatureAlgorithm.RS256, key, Encoders.BASE64URL)
+            fail()
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals 0, registry.size()
+    }
+
+    @Test
+    void testConcurrentSigning() {
+        def registry = new JwtSignerRegistry(DefaultSignerFactory.POOLED, 4)
+        def keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256)
+        def validator = new EllipticCurveSignatureValidator(SignatureAlgorithm.ES256, keyPair.getPublic())
+        def executor = Executors.newFixedThreadPool(4)
+        try {
+            List<Callable<Boolean>> tasks = []
+            for (int i = 0; i < 16; i++) {
+                final byte[] data = ('token' + i).getBytes('US-ASCII')
+                tasks.add(new Callable<Boolean>() {
+                    @Override
+                    Boolean call() throws Exception {
+                        def signer = registry.getSigner(SignatureAlgorithm.ES256, keyPair.getPrivate(), Encoders.BASE64URL)
+                        return validator.isValid(data, signer.computeSignature(data))
+                    }
+                })
+            }
+            for (def future : executor.invokeAll(tasks)) {
+                assertTrue future.get()
+            }
+        } finally {
+            executor.shutdown()
+        }
+        assertEquals 1, registry.size()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testMaxSizeMustBePositive() {
+        new JwtSignerRegistry(DefaultSignerFactory.INSTANCE, 0)
+    }
+}
@@ -20,6 +20,7 @@ import io.jsonwebtoken.security.SignatureException
 import org.junit.Test
 
 import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
 import java.security.InvalidKeyException
 import java.security.Key
 import java.security.NoSuchAlgorithmException
@@ -100,4 +101,29 @@ class MacSignerTest {
             assertEquals e.cause.message, 'foo'
         }
     }
+
+    @Test
+    void testPooledMacIsReused() {
+        byte[] key = new byte[32]
+        byte[] data = new byte[32]
+        rng.nextBytes(key)
+        rng.nextBytes(data)
+
+        def pool = new EnginePool(4, 4)
+        int created = 0
+        def s = new MacSigner(SignatureAlgorithm.HS256, new SecretKeySpec(key, 'HmacSHA256'), pool) {
+            @Override
+            protected Mac doGetMacInstance() throws NoSuchAlgorithmException, InvalidKeyException {
+                created++
+                return super.doGetMacInstance()
+            }
+        }
+
+        def unpooled = new MacSigner(SignatureAlgorithm.HS256, key)
+
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals unpooled.sign(data), s.sign(data)
+        }
+        assertEquals 1, created
+    }
 }
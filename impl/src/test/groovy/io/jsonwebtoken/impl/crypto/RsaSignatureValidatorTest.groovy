@@ -70,4 +70,30 @@ class RsaSignatureValidatorTest {
             assertSame se.cause, ex
         }
     }
+
+    @Test
+    void testPooledSignatureIsReused() {
+        for (SignatureAlgorithm alg : [SignatureAlgorithm.RS256, SignatureAlgorithm.PS256]) {
+            KeyPair kp = Keys.keyPairFor(alg)
+            byte[] data = new byte[32]
+            rng.nextBytes(data)
+            byte[] signature = new RsaSigner(alg, kp.getPrivate()).sign(data)
+            byte[] tampered = new RsaSigner(alg, kp.getPrivate()).sign(new byte[32])
+
+            int created = 0
+            def v = new RsaSignatureValidator(alg, kp.getPublic(), new EnginePool(4, 4)) {
+                @Override
+                protected Signature getSignatureInstance() throws NoSuchAlgorithmException {
+                    created++
+                    return super.getSignatureInstance()
+                }
+            }
+
+            for (int i = 0; i < 3; i++) {
+                assertTrue v.isValid(data, signature)
+                assertFalse v.isValid(data, tampered)
+            }
+            assertEquals 1, created
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.jsonwebtoken.impl.crypto
 
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.security.Keys
 import io.jsonwebtoken.security.SignatureException
 import org.junit.Test
 
@@ -174,4 +175,32 @@ class RsaSignerTest {
 
         assertTrue(MessageDigest.isEqual(out1, out2))
     }
+
+    @Test
+    void testPooledSignatureIsReused() {
+        for (SignatureAlgorithm alg : [SignatureAlgorithm.RS256, SignatureAlgorithm.PS256]) {
+            KeyPair kp = Keys.keyPairFor(alg)
+            byte[] data = new byte[32]
+            rng.nextBytes(data)
+
+            int created = 0
+            def s = new RsaSigner(alg, kp.getPrivate(), new EnginePool(4, 4)) {
+                @Override
+                protected Signature getSignatureInstance() throws NoSuchAlgorithmException {
+                    created++
+                    return super.getSignatureInstance()
+                }
+            }
+            def v = new RsaSignatureValidator(alg, kp.getPublic())
+
+            for (int i = 0; i < 3; i++) {
+                byte[] signature = s.sign(data)
+                assertTrue v.isValid(data, signature)
+                if (alg == SignatureAlgorithm.RS256) { //PKCS #1 v1.5 signatures are deterministic:
+                    assertArrayEquals new RsaSigner(alg, kp.getPrivate()).sign(data), signature
+                }
+            }
+            assertEquals 1, created
+        }
+    }
 }
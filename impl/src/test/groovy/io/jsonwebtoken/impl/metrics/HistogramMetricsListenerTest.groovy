@@ -0,0 +1,65 @@
+package io.jsonwebtoken.impl.metrics
+
+import io.jsonwebtoken.JwtMetrics
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.security.Keys
+import io.jsonwebtoken.security.SignatureException
+import org.junit.Test
+
+import javax.crypto.SecretKey
+
+import static org.junit.Assert.*
+
+class HistogramMetricsListenerTest {
+
+    @Test
+    void testParseAndBuild() {
+        def metrics = new HistogramMetricsListener()
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256)
+        def parser = Jwts.parser().setSigningKey(key).setVerifiedTokenCache(10, 60).setMetricsListener(metrics)
+
+        String jws = Jwts.builder().setMetricsListener(metrics).setSubject('joe').signWith(key).compact()
+        parser.parseClaimsJws(jws)
+        parser.parseClaimsJws(jws)
+
+        assertEquals 1, metrics.getBuildNanos().getCount()
+        assertEquals 1, metrics.getBuildNanos(SignatureAlgorithm.HS256).getCount()
+        assertEquals 0, metrics.getBuildNanos(SignatureAlgorithm.HS512).getCount()
+        assertEquals jws.length(), metrics.getBuiltTokenLength().getMax()
+
+        assertEquals 2, metrics.getParseNanos().getCount()
+        assertEquals 2, metrics.getParseNanos(SignatureAlgorithm.HS256).getCount()
+        assertEquals 2, metrics.getParsedTokenLength().getCount()
+        assertEquals 1, metrics.getCachedParseCount()
+
+        assertEquals 1, metrics.getStageNanos(JwtMetrics.Stage.SIGNATURE_CREATION).getCount()
+        assertEquals 1, metrics.getStageNanos(JwtMetrics.Stage.SIGNATURE_VERIFICATION).getCount()
+        assertEquals 2, metrics.getStageNanos(JwtMetrics.Stage.CLAIMS_VALIDATION).getCount()
+        assertEquals 0, metrics.getStageNanos(JwtMetrics.Stage.DECOMPRESS).getCount()
+    }
+
+    @Test
+    void testFailures() {
+        def metrics = new HistogramMetricsListener()
+        def parser = Jwts.parser().setSigningKey(Keys.secretKeyFor(SignatureAlgorithm.HS256)).setMetricsListener(metrics)
+        String forged = Jwts.builder().setSubject('joe').signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact()
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                parser.parseClaimsJws(forged)
+                fail()
+            } catch (SignatureException expected) {
+            }
+        }
+        assertEquals 3, metrics.getParseFailureCount(JwtMetrics.Failure.BAD_SIGNATURE)
+        assertEquals 0, metrics.getParseFailureCount(JwtMetrics.Failure.EXPIRED)
+        assertEquals 0, metrics.getBuildFailureCount(JwtMetrics.Failure.BAD_SIGNATURE)
+        assertEquals 3, metrics.getParseNanos().getCount()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNullStage() {
+        new HistogramMetricsListener().getStageNanos(null)
+    }
+}
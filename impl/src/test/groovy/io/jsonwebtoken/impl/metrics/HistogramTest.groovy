@@ -0,0 +1,95 @@
+package io.jsonwebtoken.impl.metrics
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class HistogramTest {
+
+    @Test
+    void testBucketIndex() {
+        assertEquals 0, Histogram.getBucketIndex(0)
+        assertEquals 0, Histogram.getBucketIndex(-5)
+        assertEquals 1, Histogram.getBucketIndex(1)
+        assertEquals 2, Histogram.getBucketIndex(2)
+        assertEquals 2, Histogram.getBucketIndex(3)
+        assertEquals 3, Histogram.getBucketIndex(4)
+        assertEquals 63, Histogram.getBucketIndex(Long.MAX_VALUE)
+    }
+
+    @Test
+    void testBucketUpperBound() {
+        assertEquals 0, Histogram.getBucketUpperBound(0)
+        assertEquals 1, Histogram.getBucketUpperBound(1)
+        assertEquals 3, Histogram.getBucketUpperBound(2)
+        assertEquals Long.MAX_VALUE, Histogram.getBucketUpperBound(63)
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i++) {
+            assertEquals i, Histogram.getBucketIndex(Histogram.getBucketUpperBound(i))
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testBucketUpperBoundOutOfRange() {
+        Histogram.getBucketUpperBound(64)
+    }
+
+    @Test
+    void testEmpty() {
+        def histogram = new Histogram()
+        assertEquals 0, histogram.getCount()
+        assertEquals 0, histogram.getMax()
+        assertEquals 0, histogram.getMean(), 0d
+        assertEquals 0, histogram.getValueAtPercentile(99)
+    }
+
+    @Test
+    void testRecord() {
+        def histogram = new Histogram()
+        for (long value : [1, 2, 3, 100, -1]) {
+            histogram.record(value)
+        }
+        assertEquals 5, histogram.getCount()
+        assertEquals 106, histogram.getSum()
+        assertEquals 100, histogram.getMax()
+        assertEquals 21.2d, histogram.getMean(), 0.0001d
+        assertEquals 1, histogram.getBucketCount(0)
+        assertEquals 1, histogram.getBucketCount(1)
+        assertEquals 2, histogram.getBucketCount(2)
+        assertEquals 1, histogram.getBucketCount(7)
+    }
+
+    @Test
+    void testValueAtPercentile() {
+        def histogram = new Histogram()
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10)
+        }
+        histogram.record(1000)
+        assertEquals 15, histogram.getValueAtPercentile(0)
+        assertEquals 15, histogram.getValueAtPercentile(50)
+        assertEquals 15, histogram.getValueAtPercentile(99)
+        assertEquals 1000, histogram.getValueAtPercentile(100)
+    }
+
+    @Test
+    void testConcurrentRecording() {
+        def histogram = new Histogram()
+        List<Thread> threads = []
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.start {
+                for (int i = 1; i <= 10000; i++) {
+                    histogram.record(i)
+                }
+            })
+        }
+        threads*.join()
+        assertEquals 40000, histogram.getCount()
+        assertEquals 4L * 10000 * 10001 / 2 as long, histogram.getSum()
+        assertEquals 10000, histogram.getMax()
+        long total = 0
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i++) {
+            total += histogram.getBucketCount(i)
+        }
+        assertEquals 40000, total
+    }
+}